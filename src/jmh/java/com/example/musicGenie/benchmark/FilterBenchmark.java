@@ -0,0 +1,115 @@
+package com.example.musicGenie.benchmark;
+
+import java.time.Duration;
+import java.time.Year;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.example.musicGenie.dtos.filter.PlaylistFilterRequest;
+import com.example.musicGenie.dtos.filter.PlaylistFilterResponse;
+import com.example.musicGenie.dtos.song.SongDto;
+import com.example.musicGenie.services.filter.FilterService;
+import com.example.musicGenie.services.filter.SongIndex;
+import com.example.musicGenie.services.filter.SongIndexCache;
+import com.example.musicGenie.services.playlist.CachedSongsLookup;
+import com.example.musicGenie.services.playlist.PlaylistCacheService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FilterService over a synthetic pool where every playlist is already cached, so only the
+ * in-process work is measured: pool dedup, index build and filter evaluation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+    private static final Long USER_ID = 1L;
+    private static final String PROVIDER = "spotify";
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int poolSize;
+
+    @Param({"10"})
+    public int playlistCount;
+
+    @Param({"0.2"})
+    public double overlap;
+
+    private FilterService filterService;
+    private List<String> playlistIds;
+    private PlaylistFilterRequest request;
+
+    @Setup
+    public void setUp() {
+        Map<String, List<SongDto>> playlists = new SongDataGenerator(SongDataGenerator.DEFAULT_SEED, poolSize)
+                .playlists(poolSize, playlistCount, overlap);
+        playlistIds = List.copyOf(playlists.keySet());
+        filterService = new FilterService(null, new InMemoryPlaylistCache(playlists),
+                new SongIndexCache(Long.MAX_VALUE, Duration.ofHours(1)), Runnable::run, 4);
+
+        request = PlaylistFilterRequest.builder()
+                                       .playlistIds(playlistIds)
+                                       .provider(PROVIDER)
+                                       .artists(List.of("Artist 0", "Artist 3", "Artist 7"))
+                                       .popularity(70)
+                                       .releaseYear(Year.of(1999))
+                                       .build();
+        filterService.filterSongs(USER_ID, request); // index is cached from here on
+    }
+
+    /** Steady state: the user tweaks criteria over the same playlists and the cached index answers. */
+    @Benchmark
+    public PlaylistFilterResponse filterSongs() {
+        return filterService.filterSongs(USER_ID, request);
+    }
+
+    /** First filter over a playlist selection: build the pool, index it, evaluate. */
+    @Benchmark
+    public List<SongDto> filterSongsCold() {
+        return SongIndex.of(filterService.buildSongPool(PROVIDER, USER_ID, playlistIds)).filter(request);
+    }
+
+    @Benchmark
+    public List<SongDto> buildSongPool() {
+        return filterService.buildSongPool(PROVIDER, USER_ID, playlistIds);
+    }
+
+    // every playlist is a cache hit and nothing is written, no Redis involved
+    private static final class InMemoryPlaylistCache extends PlaylistCacheService {
+        private final Map<String, List<SongDto>> playlists;
+
+        InMemoryPlaylistCache(Map<String, List<SongDto>> playlists) {
+            super(null, null, null, null, null, null, null, null);
+            this.playlists = playlists;
+        }
+
+        @Override
+        public CachedSongsLookup getCachedSongs(Long userId, Collection<String> playlistIds) {
+            Map<String, List<SongDto>> hits = new HashMap<>();
+            for (String playlistId : playlistIds) hits.put(playlistId, playlists.get(playlistId));
+            return new CachedSongsLookup(hits, List.of());
+        }
+
+        @Override
+        public UUID cacheFilteredSongs(Long userId, List<SongDto> songs) {
+            return UUID.randomUUID();
+        }
+    }
+}
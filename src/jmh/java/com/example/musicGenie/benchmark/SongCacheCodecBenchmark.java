@@ -0,0 +1,71 @@
+package com.example.musicGenie.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.example.musicGenie.services.playlist.codec.SongCacheCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encode and decode cost of the cached song lists, for each codec PlaylistCacheService can use.
+ * The encoded size is reported next to the timings as the {@code bytes} counter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SongCacheCodecBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int songCount;
+
+    @Param({"json", "compact", "compact-deflate"})
+    public String codec;
+
+    private SongCacheCodec songCacheCodec;
+    private List<SongDto> songs;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        boolean deflate = codec.endsWith("-deflate");
+        songCacheCodec = new SongCacheCodec(objectMapper, deflate ? "compact" : codec, deflate, 1024);
+        songs = new SongDataGenerator(SongDataGenerator.DEFAULT_SEED, songCount).songs(songCount);
+        encoded = songCacheCodec.encode(songs);
+    }
+
+    @Benchmark
+    public byte[] encode(EncodedSize size) {
+        byte[] bytes = songCacheCodec.encode(songs);
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<SongDto> decode() {
+        return songCacheCodec.decode(encoded);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class EncodedSize {
+        public long bytes;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.musicGenie.benchmark;
+
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Deterministic synthetic data for the benchmarks. The same seed always yields the same
+ * songs, so numbers from different runs and branches are comparable.
+ */
+public final class SongDataGenerator {
+    public static final long DEFAULT_SEED = 42L;
+
+    private final SplittableRandom random;
+    private final int artistCount;
+    private final int albumCount;
+
+    public SongDataGenerator(long seed, int songCount) {
+        this.random = new SplittableRandom(seed);
+        // catalogue shape of a typical library: a few thousand artists, albums of ~10 tracks
+        this.artistCount = Math.max(10, songCount / 20);
+        this.albumCount = Math.max(10, songCount / 10);
+    }
+
+    public List<SongDto> songs(int count) {
+        List<SongDto> songs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            songs.add(song(i));
+        }
+        return songs;
+    }
+
+    /**
+     * Splits {@code count} songs over {@code playlistCount} playlists, with each playlist also
+     * repeating {@code overlap} (0..1) of its size from the previous one to exercise dedup.
+     */
+    public Map<String, List<SongDto>> playlists(int count, int playlistCount, double overlap) {
+        List<SongDto> songs = songs(count);
+        Map<String, List<SongDto>> playlists = new LinkedHashMap<>();
+        int perPlaylist = Math.max(1, count / playlistCount);
+        for (int p = 0; p < playlistCount; p++) {
+            int from = p * perPlaylist;
+            int to = p == playlistCount - 1 ? count : Math.min(count, from + perPlaylist);
+            int shared = p == 0 ? 0 : (int) (perPlaylist * overlap);
+            List<SongDto> playlist = new ArrayList<>(songs.subList(Math.max(0, from - shared), to));
+            playlists.put("playlist-" + p, playlist);
+        }
+        return playlists;
+    }
+
+    /** One page of GET /playlists/{id}/tracks as Spotify returns it. */
+    public byte[] spotifyTracksPage(ObjectMapper objectMapper, int offset, int size, int total) {
+        List<Map<String, Object>> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            SongDto song = song(offset + i);
+            List<Map<String, Object>> artists = new ArrayList<>();
+            for (String artist : song.getArtists()) {
+                artists.add(Map.of("id", "artist-" + artist.hashCode(), "name", artist, "type", "artist"));
+            }
+            Map<String, Object> track = new LinkedHashMap<>();
+            track.put("id", song.getId());
+            track.put("name", song.getTitle());
+            track.put("artists", artists);
+            track.put("album", Map.of("name", song.getAlbum(), "release_date", song.getReleaseYear() + "-03-14",
+                    "album_type", "album", "total_tracks", 12));
+            track.put("duration_ms", 180_000 + random.nextInt(120_000));
+            track.put("popularity", song.getPopularity());
+            track.put("explicit", song.isExplicit());
+            track.put("preview_url", "https://p.scdn.co/mp3-preview/" + song.getId());
+            track.put("external_urls", Map.of("spotify", "https://open.spotify.com/track/" + song.getId()));
+
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("added_at", song.getAddedAt() + "-05T12:00:00Z");
+            item.put("is_local", false);
+            item.put("track", track);
+            items.add(item);
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("href", "https://api.spotify.com/v1/playlists/benchmark/tracks");
+        page.put("limit", size);
+        page.put("offset", offset);
+        page.put("total", total);
+        page.put("items", items);
+        try {
+            return objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private SongDto song(int i) {
+        int artists = 1 + (random.nextInt(10) == 0 ? 1 + random.nextInt(2) : 0);
+        List<String> names = new ArrayList<>(artists);
+        for (int a = 0; a < artists; a++) {
+            names.add("Artist " + skewed(artistCount));
+        }
+        return SongDto.builder()
+                      .id(trackId(i))
+                      .title("Track " + i)
+                      .artists(names)
+                      .album("Album " + skewed(albumCount))
+                      .popularity(random.nextInt(101))
+                      .releaseYear(Year.of(1960 + random.nextInt(65)))
+                      .explicit(random.nextInt(5) == 0)
+                      .addedAt(YearMonth.of(2015 + random.nextInt(10), 1 + random.nextInt(12)))
+                      .build();
+    }
+
+    // a few popular values and a long tail, like real artist and album frequencies
+    private int skewed(int bound) {
+        double u = random.nextDouble();
+        return (int) (bound * u * u);
+    }
+
+    // 22 characters of base62 like a Spotify track ID: 16 hashed characters, then i itself so IDs stay unique
+    private static String trackId(int i) {
+        String alphabet = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+        char[] id = new char[22];
+        long hash = (i + 1) * 0x9E3779B97F4A7C15L;
+        for (int c = 0; c < 16; c++) {
+            id[c] = alphabet.charAt((int) Long.remainderUnsigned(hash, 62));
+            hash = Long.rotateLeft(hash, 7) * 0xBF58476D1CE4E5B9L;
+        }
+        int value = i;
+        for (int c = 21; c >= 16; c--) {
+            id[c] = alphabet.charAt(value % 62);
+            value /= 62;
+        }
+        return new String(id);
+    }
+}
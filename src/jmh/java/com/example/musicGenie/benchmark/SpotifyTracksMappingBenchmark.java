@@ -0,0 +1,66 @@
+package com.example.musicGenie.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.example.musicGenie.response.song.spotify.SpotifyPlaylistTracksResponse;
+import com.example.musicGenie.response.song.spotify.SpotifyTracksPageReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of turning one 100 track Spotify page into SongDtos: the Jackson bind of the response
+ * body and the toSongDtos mapping, separately and together, against the streaming reader.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpotifyTracksMappingBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    private ObjectMapper objectMapper;
+    private byte[] pageJson;
+    private SpotifyPlaylistTracksResponse page;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        pageJson = new SongDataGenerator(SongDataGenerator.DEFAULT_SEED, PAGE_SIZE)
+                .spotifyTracksPage(objectMapper, 0, PAGE_SIZE, PAGE_SIZE);
+        page = objectMapper.readValue(pageJson, SpotifyPlaylistTracksResponse.class);
+    }
+
+    @Benchmark
+    public SpotifyPlaylistTracksResponse bindPage() throws IOException {
+        return objectMapper.readValue(pageJson, SpotifyPlaylistTracksResponse.class);
+    }
+
+    @Benchmark
+    public List<SongDto> toSongDtos() {
+        return page.toSongDtos();
+    }
+
+    @Benchmark
+    public List<SongDto> bindAndMap() throws IOException {
+        return objectMapper.readValue(pageJson, SpotifyPlaylistTracksResponse.class).toSongDtos();
+    }
+
+    @Benchmark
+    public List<SongDto> streamPage() throws IOException {
+        return SpotifyTracksPageReader.read(pageJson).songs();
+    }
+}
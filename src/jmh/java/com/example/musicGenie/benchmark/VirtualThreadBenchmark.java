@@ -0,0 +1,126 @@
+package com.example.musicGenie.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Requests per second for blocking request handlers against a slow upstream, on a 200 thread
+ * platform pool (Tomcat's default) versus one virtual thread per request. Each simulated
+ * request makes two sequential {@code WebClient.block()} calls, like a token check followed
+ * by a provider fetch. The upstream is a local Netty server that answers after
+ * {@code upstreamLatencyMs}, so the numbers measure waiting, not Spotify. The virtual
+ * runs need a Java 21+ JVM, like the one in the Dockerfile.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+    private static final int CONCURRENT_REQUESTS = 1000;
+    private static final int UPSTREAM_CALLS_PER_REQUEST = 2;
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threading;
+
+    @Param({"50", "200"})
+    public int upstreamLatencyMs;
+
+    private DisposableServer upstream;
+    private ConnectionProvider connections;
+    private WebClient webClient;
+    private ExecutorService platformPool;
+    private SimpleAsyncTaskExecutor virtualExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Duration latency = Duration.ofMillis(upstreamLatencyMs);
+        upstream = HttpServer.create()
+                             .host("localhost")
+                             .port(0)
+                             .route(routes -> routes.get("/slow", (request, response) ->
+                                     response.sendString(Mono.just("{}").delayElement(latency))))
+                             .bindNow();
+
+        // enough connections that the pool is never what the two modes are waiting on
+        connections = ConnectionProvider.builder("benchmark")
+                                        .maxConnections(CONCURRENT_REQUESTS)
+                                        .pendingAcquireMaxCount(-1)
+                                        .build();
+        webClient = WebClient.builder()
+                             .baseUrl("http://localhost:" + upstream.port())
+                             .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                             .build();
+
+        if ("virtual".equals(threading)) {
+            virtualExecutor = new SimpleAsyncTaskExecutor("benchmark-vt-");
+            virtualExecutor.setVirtualThreads(true);
+        } else {
+            platformPool = Executors.newFixedThreadPool(PLATFORM_THREADS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (platformPool != null) platformPool.shutdownNow();
+        if (virtualExecutor != null) virtualExecutor.close();
+        connections.dispose();
+        upstream.disposeNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENT_REQUESTS)
+    public int handleRequests() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(CONCURRENT_REQUESTS);
+        AtomicInteger bytes = new AtomicInteger();
+        Runnable request = () -> {
+            try {
+                for (int call = 0; call < UPSTREAM_CALLS_PER_REQUEST; call++) {
+                    String body = webClient.get().uri("/slow").retrieve().bodyToMono(String.class).block();
+                    bytes.addAndGet(body == null ? 0 : body.length());
+                }
+            } finally {
+                done.countDown();
+            }
+        };
+
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            if (virtualExecutor != null) {
+                virtualExecutor.execute(request);
+            } else {
+                platformPool.execute(request);
+            }
+        }
+        done.await();
+        return bytes.get();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.musicGenie.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Closed-loop load: each worker sends its next request as soon as the previous one answered, so the
+ * throughput reported is what the service sustains at that concurrency. Latencies recorded during the
+ * warmup are dropped.
+ */
+public final class LoadGenerator {
+
+    public enum Scenario {
+        PLAYLISTS,          // GET /api/playlists/{provider}, served from the cache after the first call
+        PLAYLISTS_REFRESH,  // the same with forceRefresh, pages through /me/playlists every time
+        SONGS,              // GET /api/songs/{provider} for a random playlist
+        FILTER              // POST /api/filter over a handful of random playlists
+    }
+
+    public record Result(Scenario scenario, long requests, long errors, Duration elapsed,
+                         double p50Millis, double p99Millis, double maxMillis) {
+
+        public double throughput() {
+            return requests / (elapsed.toNanos() / 1e9);
+        }
+    }
+
+    private static final int FILTER_PLAYLISTS = 5;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+                                                    .version(HttpClient.Version.HTTP_1_1)
+                                                    .connectTimeout(Duration.ofSeconds(5))
+                                                    .build();
+    private final String baseUrl;
+    private final List<String> sessionCookies;
+    private final int playlistCount;
+
+    public LoadGenerator(String baseUrl, List<String> sessionCookies, int playlistCount) {
+        this.baseUrl = baseUrl;
+        this.sessionCookies = sessionCookies;
+        this.playlistCount = playlistCount;
+    }
+
+    public Result run(Scenario scenario, int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+
+        for (int worker = 0; worker < concurrency; worker++) {
+            String cookie = sessionCookies.get(worker % sessionCookies.size());
+            LatencyLog log = new LatencyLog();
+            latencies.add(null);
+            int slot = worker;
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    boolean ok = send(request(scenario, cookie));
+                    long end = System.nanoTime();
+                    if (start < measureFrom) continue;
+                    if (ok) log.add(end - start);
+                    else errors.incrementAndGet();
+                }
+                synchronized (latencies) {
+                    latencies.set(slot, log.toArray());
+                }
+            }, "load-" + scenario.name().toLowerCase() + "-" + worker);
+            workers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : workers) thread.join();
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(scenario, all.length, errors.get(), duration,
+                percentile(all, 0.50), percentile(all, 0.99), all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+    }
+
+    private HttpRequest request(Scenario scenario, String cookie) {
+        HttpRequest.Builder request = switch (scenario) {
+            case PLAYLISTS -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/playlists/spotify")).GET();
+            case PLAYLISTS_REFRESH -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/playlists/spotify?forceRefresh=true")).GET();
+            case SONGS -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/songs/spotify?playlistId=" + randomPlaylist())).GET();
+            case FILTER -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/filter"))
+                                      .header("Content-Type", "application/json")
+                                      .POST(HttpRequest.BodyPublishers.ofString(filterBody()));
+        };
+        return request.header("Cookie", cookie)
+                      .timeout(Duration.ofSeconds(30))
+                      .build();
+    }
+
+    private String filterBody() {
+        String playlistIds = IntStream.range(0, FILTER_PLAYLISTS)
+                                      .mapToObj(i -> "\"" + randomPlaylist() + "\"")
+                                      .collect(Collectors.joining(","));
+        int artist = ThreadLocalRandom.current().nextInt(200);
+        return "{\"playlistIds\":[" + playlistIds + "],\"artists\":[\"Artist " + artist + "\"],\"provider\":\"spotify\"}";
+    }
+
+    private String randomPlaylist() {
+        return "pl" + ThreadLocalRandom.current().nextInt(playlistCount);
+    }
+
+    private boolean send(HttpRequest request) {
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    // per worker, so recording a latency never contends
+    private static final class LatencyLog {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long nanos) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = nanos;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.musicGenie.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.musicGenie.MusicGenieApplication;
+import com.example.musicGenie.config.webclient.ConnectionPoolMonitor;
+import com.example.musicGenie.enums.Role;
+import com.example.musicGenie.models.Provider;
+import com.example.musicGenie.models.User;
+import com.example.musicGenie.models.UserProvider;
+import com.example.musicGenie.models.UserProviderId;
+import com.example.musicGenie.repos.ProviderRepository;
+import com.example.musicGenie.repos.UserProviderRepository;
+import com.example.musicGenie.repos.UserRepository;
+import com.example.musicGenie.services.provider.ProviderRegistry;
+import com.example.musicGenie.services.security.TokenEncryptionService;
+import com.example.musicGenie.services.session.SessionService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+/**
+ * End-to-end load test: boots the whole app on a random port against {@link SpotifyStandIn},
+ * {@link RedisStandIn} and an in-memory H2 database, signs in a set of synthetic users by writing their
+ * sessions directly, then drives each scenario and prints throughput and p50/p99 latency.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec@loadtest -Dloadtest.args="scenarios=songs,filter concurrency=32 latency=50ms"
+ * </pre>
+ *
+ * Options ({@code key=value}): scenarios, concurrency, users, duration, warmup, playlists, tracks, latency,
+ * rate-limit-every (answer every Nth Spotify request with a 429, 0 = never).
+ */
+public final class LoadTestRunner {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "scenarios", "playlists,songs,filter",
+            "concurrency", "16",
+            "users", "8",
+            "duration", "20s",
+            "warmup", "5s",
+            "playlists", "200",
+            "tracks", "300",
+            "latency", "20ms",
+            "rate-limit-every", "0"
+    );
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int playlists = Integer.parseInt(options.get("playlists"));
+        SpotifyStandIn.Settings spotifySettings = new SpotifyStandIn.Settings(
+                playlists,
+                Integer.parseInt(options.get("tracks")),
+                DurationStyle.detectAndParse(options.get("latency")),
+                Integer.parseInt(options.get("rate-limit-every")));
+
+        try (RedisStandIn redis = new RedisStandIn();
+             SpotifyStandIn spotify = new SpotifyStandIn(spotifySettings);
+             ConfigurableApplicationContext app = start(redis, spotify)) {
+
+            String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            List<String> cookies = signIn(app, Integer.parseInt(options.get("users")));
+            LoadGenerator generator = new LoadGenerator(baseUrl, cookies, playlists);
+
+            List<LoadGenerator.Result> results = new ArrayList<>();
+            for (String scenario : options.get("scenarios").split(",")) {
+                results.add(generator.run(
+                        LoadGenerator.Scenario.valueOf(scenario.trim().replace('-', '_').toUpperCase(Locale.ROOT)),
+                        Integer.parseInt(options.get("concurrency")),
+                        DurationStyle.detectAndParse(options.get("warmup")),
+                        DurationStyle.detectAndParse(options.get("duration"))));
+            }
+
+            report(options, results, spotify, redis, app.getBean(ConnectionPoolMonitor.class));
+        }
+    }
+
+    private static ConfigurableApplicationContext start(RedisStandIn redis, SpotifyStandIn spotify) {
+        // devtools would relaunch this main method in a restart class loader, without the options
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        // passed as command line arguments so they win over application.yaml
+        return new SpringApplicationBuilder(MusicGenieApplication.class)
+                .profiles("test") // H2 in place of MySQL
+                .run("--server.port=0",
+                        "--SPRING_REDIS_HOST=localhost",
+                        "--SPRING_REDIS_PORT=" + redis.port(),
+                        "--spotify.api.base-url=" + spotify.baseUrl(),
+                        "--SPOTIFY_CLIENT_ID=load-test",
+                        "--SPOTIFY_CLIENT_SECRET=load-test",
+                        "--BASE_URL=http://localhost",
+                        "--spring.jpa.show-sql=false",
+                        // application.yaml turns on per-request security and auth logging, which would dominate the numbers
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--logging.level.com.example.musicGenie=WARN");
+    }
+
+    // what the OAuth2 login would leave behind: the user and refresh token rows, and a session holding the token
+    private static List<String> signIn(ConfigurableApplicationContext app, int users) {
+        Provider spotify = app.getBean(ProviderRepository.class)
+                              .save(Provider.builder().name("spotify").displayName("Spotify").build());
+        app.getBean(ProviderRegistry.class).reload();
+        TokenEncryptionService encryption = app.getBean(TokenEncryptionService.class);
+        SessionService sessionService = app.getBean(SessionService.class);
+        SessionRepository<?> sessions = app.getBean(SessionRepository.class);
+
+        List<String> cookies = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String providerUserId = "load-user-" + i;
+            User user = app.getBean(UserRepository.class).save(User.builder()
+                                                                   .email(providerUserId + "@example.com")
+                                                                   .displayName("Load User " + i)
+                                                                   .role(Role.USER)
+                                                                   .createdAt(LocalDateTime.now())
+                                                                   .build());
+            app.getBean(UserProviderRepository.class).save(UserProvider.builder()
+                                                                       .id(new UserProviderId(user.getId(), spotify.getId()))
+                                                                       .user(user)
+                                                                       .provider(spotify)
+                                                                       .providerUserId(providerUserId)
+                                                                       .refreshToken(encryption.encrypt("refresh-" + i))
+                                                                       .build());
+
+            // collect the attributes through SessionService so they match what login writes
+            MockHttpSession attributes = new MockHttpSession();
+            sessionService.createUserSession(attributes, user.getId(), "access-" + i, Instant.now().plus(Duration.ofDays(1)));
+            cookies.add(saveSession(sessions, attributes, authentication(providerUserId, user.getEmail())));
+        }
+        return cookies;
+    }
+
+    private static <S extends Session> String saveSession(SessionRepository<S> sessions, MockHttpSession attributes,
+                                                          SecurityContextImpl securityContext) {
+        S session = sessions.createSession();
+        for (String name : Collections.list(attributes.getAttributeNames())) {
+            session.setAttribute(name, attributes.getAttribute(name));
+        }
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, securityContext);
+        sessions.save(session);
+        // Spring Session's default cookie holds the Base64 encoded id
+        return "SESSION=" + Base64.getEncoder().encodeToString(session.getId().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SecurityContextImpl authentication(String providerUserId, String email) {
+        Set<SimpleGrantedAuthority> authorities = Set.of(new SimpleGrantedAuthority("ROLE_USER"));
+        DefaultOAuth2User principal = new DefaultOAuth2User(authorities, Map.of("id", providerUserId, "email", email), "id");
+        return new SecurityContextImpl(new OAuth2AuthenticationToken(principal, authorities, "spotify"));
+    }
+
+    private static void report(Map<String, String> options, List<LoadGenerator.Result> results,
+                               SpotifyStandIn spotify, RedisStandIn redis, ConnectionPoolMonitor pool) {
+        System.out.printf("%nconcurrency=%s users=%s playlists=%s tracks=%s latency=%s rate-limit-every=%s%n",
+                options.get("concurrency"), options.get("users"), options.get("playlists"), options.get("tracks"),
+                options.get("latency"), options.get("rate-limit-every"));
+        System.out.printf("%-18s %10s %8s %10s %10s %10s %10s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (LoadGenerator.Result result : results) {
+            System.out.printf("%-18s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                    result.scenario().name().toLowerCase(Locale.ROOT), result.requests(), result.errors(),
+                    result.throughput(), result.p50Millis(), result.p99Millis(), result.maxMillis());
+        }
+        System.out.printf("spotify stand-in: %d requests, %d answered 429; redis stand-in: %d keys%n",
+                spotify.requests(), spotify.rateLimited(), redis.keyCount());
+        long acquires = pool.getAcquireCount();
+        System.out.printf("spotify pool: %d acquires, mean %.2f ms, max %.2f ms, %d idle connections%n",
+                acquires, acquires == 0 ? 0 : (double) pool.getAcquireTimeTotalMillis() / acquires,
+                pool.getAcquireTimeMaxMillis(), pool.getIdleConnections());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        Arrays.stream(args)
+              .flatMap(arg -> Arrays.stream(arg.trim().split("\\s+")))
+              .filter(arg -> !arg.isEmpty())
+              .forEach(arg -> {
+                  int separator = arg.indexOf('=');
+                  String key = separator < 0 ? arg : arg.substring(0, separator);
+                  if (!DEFAULTS.containsKey(key)) throw new IllegalArgumentException("Unknown option " + key);
+                  options.put(key, separator < 0 ? "" : arg.substring(separator + 1));
+              });
+        return options;
+    }
+}
@@ -0,0 +1,406 @@
+package com.example.musicGenie.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Single-node, in-memory Redis stand-in speaking RESP2, with just the commands the app, Spring Session
+ * and Lettuce's handshake send: strings, hashes, key expiry, RENAME and the fetch lease's compare-and-delete
+ * script. Enough to run the service end to end without a Redis server, not a Redis replacement.
+ *
+ * <p>Commands run one at a time under the store's lock, one thread per client connection.
+ */
+public final class RedisStandIn implements AutoCloseable {
+
+    private static final String LEASE_RELEASE_SCRIPT = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    // value is a byte[] for strings, a Map<String, byte[]> for hashes
+    private static final class Entry {
+        Object value;
+        long expiresAt; // epoch millis, 0 = no TTL
+
+        Entry(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static final class RedisError extends RuntimeException {
+        RedisError(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private final Map<String, Entry> store = new HashMap<>();
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "redis-stand-in");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RedisStandIn() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        connections.execute(this::accept);
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public synchronized int keyCount() {
+        store.values().removeIf(this::expired);
+        return store.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return; // closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            while (true) {
+                byte[][] command = readCommand(in);
+                if (command.length == 0) continue;
+                try {
+                    writeReply(out, execute(command));
+                } catch (RedisError e) {
+                    out.write(('-' + e.getMessage() + "\r\n").getBytes(StandardCharsets.UTF_8));
+                }
+                // pipelined commands are answered in one write
+                if (in.available() == 0) out.flush();
+            }
+        } catch (EOFException | SocketException e) {
+            // client went away
+        } catch (IOException e) {
+            throw new IllegalStateException("Redis stand-in connection failed", e);
+        }
+    }
+
+    // ---- COMMANDS ----
+
+    private Object execute(byte[][] command) {
+        String name = text(command[0]).toUpperCase(Locale.ROOT);
+        synchronized (this) {
+            return switch (name) {
+                case "PING" -> command.length > 1 ? command[1] : new Status("PONG");
+                // Lettuce falls back to RESP2 when HELLO is unknown
+                case "HELLO" -> throw new RedisError("ERR unknown command 'HELLO'");
+                case "AUTH", "SELECT", "CLIENT", "READONLY", "FLUSHDB", "FLUSHALL" -> {
+                    if (name.startsWith("FLUSH")) store.clear();
+                    yield new Status("OK");
+                }
+                case "INFO" -> "redis_version:7.0.0\r\n".getBytes(StandardCharsets.UTF_8);
+                case "DBSIZE" -> (long) keyCount();
+                case "GET" -> string(key(command, 1));
+                case "MGET" -> {
+                    List<Object> values = new ArrayList<>();
+                    for (int i = 1; i < command.length; i++) values.add(string(text(command[i])));
+                    yield values;
+                }
+                case "SET" -> set(command);
+                case "SETEX" -> put(key(command, 1), command[3], System.currentTimeMillis() + seconds(command[2]));
+                case "PSETEX" -> put(key(command, 1), command[3], System.currentTimeMillis() + number(command[2]));
+                case "DEL", "UNLINK" -> {
+                    long removed = 0;
+                    for (int i = 1; i < command.length; i++) {
+                        if (live(text(command[i])) != null && store.remove(text(command[i])) != null) removed++;
+                    }
+                    yield removed;
+                }
+                case "EXISTS" -> {
+                    long found = 0;
+                    for (int i = 1; i < command.length; i++) if (live(text(command[i])) != null) found++;
+                    yield found;
+                }
+                case "EXPIRE" -> expireAt(key(command, 1), System.currentTimeMillis() + seconds(command[2]));
+                case "PEXPIRE" -> expireAt(key(command, 1), System.currentTimeMillis() + number(command[2]));
+                case "EXPIREAT" -> expireAt(key(command, 1), seconds(command[2]));
+                case "PEXPIREAT" -> expireAt(key(command, 1), number(command[2]));
+                case "PERSIST" -> {
+                    Entry entry = live(key(command, 1));
+                    if (entry == null || entry.expiresAt == 0) yield 0L;
+                    entry.expiresAt = 0;
+                    yield 1L;
+                }
+                case "PTTL" -> ttl(key(command, 1), 1);
+                case "TTL" -> ttl(key(command, 1), 1000);
+                case "RENAME" -> {
+                    Entry entry = live(key(command, 1));
+                    if (entry == null) throw new RedisError("ERR no such key");
+                    store.remove(key(command, 1));
+                    store.put(key(command, 2), entry);
+                    yield new Status("OK");
+                }
+                case "HSET", "HMSET" -> {
+                    Map<String, byte[]> hash = hash(key(command, 1), true);
+                    long added = 0;
+                    for (int i = 2; i + 1 < command.length; i += 2) {
+                        if (hash.put(text(command[i]), command[i + 1]) == null) added++;
+                    }
+                    yield name.equals("HMSET") ? new Status("OK") : added;
+                }
+                case "HSETNX" -> {
+                    Map<String, byte[]> hash = hash(key(command, 1), true);
+                    yield hash.putIfAbsent(text(command[2]), command[3]) == null ? 1L : 0L;
+                }
+                case "HGET" -> {
+                    Map<String, byte[]> hash = hash(key(command, 1), false);
+                    yield hash != null ? hash.get(text(command[2])) : null;
+                }
+                case "HMGET" -> {
+                    Map<String, byte[]> hash = hash(key(command, 1), false);
+                    List<Object> values = new ArrayList<>();
+                    for (int i = 2; i < command.length; i++) values.add(hash != null ? hash.get(text(command[i])) : null);
+                    yield values;
+                }
+                case "HGETALL", "HKEYS", "HVALS" -> {
+                    Map<String, byte[]> hash = hash(key(command, 1), false);
+                    List<Object> values = new ArrayList<>();
+                    if (hash != null) {
+                        hash.forEach((field, value) -> {
+                            if (!name.equals("HVALS")) values.add(bytes(field));
+                            if (!name.equals("HKEYS")) values.add(value);
+                        });
+                    }
+                    yield values;
+                }
+                case "HDEL" -> {
+                    Map<String, byte[]> hash = hash(key(command, 1), false);
+                    long removed = 0;
+                    for (int i = 2; hash != null && i < command.length; i++) {
+                        if (hash.remove(text(command[i])) != null) removed++;
+                    }
+                    if (hash != null && hash.isEmpty()) store.remove(key(command, 1));
+                    yield removed;
+                }
+                case "HEXISTS" -> {
+                    Map<String, byte[]> hash = hash(key(command, 1), false);
+                    yield hash != null && hash.containsKey(text(command[2])) ? 1L : 0L;
+                }
+                case "HLEN" -> {
+                    Map<String, byte[]> hash = hash(key(command, 1), false);
+                    yield hash != null ? (long) hash.size() : 0L;
+                }
+                case "PUBLISH" -> 0L; // nobody subscribes to the stand-in
+                case "EVALSHA" -> throw new RedisError("NOSCRIPT No matching script. Please use EVAL.");
+                case "EVAL" -> eval(command);
+                default -> throw new RedisError("ERR unknown command '" + name + "'");
+            };
+        }
+    }
+
+    private Object set(byte[][] command) {
+        String key = key(command, 1);
+        long expiresAt = 0;
+        boolean onlyIfAbsent = false;
+        boolean onlyIfPresent = false;
+        boolean keepTtl = false;
+        for (int i = 3; i < command.length; i++) {
+            switch (text(command[i]).toUpperCase(Locale.ROOT)) {
+                case "EX" -> expiresAt = System.currentTimeMillis() + seconds(command[++i]);
+                case "PX" -> expiresAt = System.currentTimeMillis() + number(command[++i]);
+                case "EXAT" -> expiresAt = seconds(command[++i]);
+                case "PXAT" -> expiresAt = number(command[++i]);
+                case "NX" -> onlyIfAbsent = true;
+                case "XX" -> onlyIfPresent = true;
+                case "KEEPTTL" -> keepTtl = true;
+                default -> throw new RedisError("ERR syntax error");
+            }
+        }
+
+        Entry existing = live(key);
+        if ((onlyIfAbsent && existing != null) || (onlyIfPresent && existing == null)) return null;
+        if (keepTtl && existing != null) expiresAt = existing.expiresAt;
+        return put(key, command[2], expiresAt);
+    }
+
+    // the only script the app runs: release the fetch lease if this instance still owns it
+    private Object eval(byte[][] command) {
+        if (!LEASE_RELEASE_SCRIPT.equals(text(command[1])) || number(command[2]) != 1) {
+            throw new RedisError("ERR the stand-in only runs the fetch lease release script");
+        }
+        byte[] owner = string(text(command[3]));
+        if (owner == null || !Arrays.equals(owner, command[4])) return 0L;
+        store.remove(text(command[3]));
+        return 1L;
+    }
+
+    private Status put(String key, byte[] value, long expiresAt) {
+        Entry entry = new Entry(value);
+        entry.expiresAt = expiresAt;
+        store.put(key, entry);
+        return new Status("OK");
+    }
+
+    private long expireAt(String key, long expiresAt) {
+        Entry entry = live(key);
+        if (entry == null) return 0L;
+        if (expiresAt <= System.currentTimeMillis()) {
+            store.remove(key);
+        } else {
+            entry.expiresAt = expiresAt;
+        }
+        return 1L;
+    }
+
+    private long ttl(String key, long unitMillis) {
+        Entry entry = live(key);
+        if (entry == null) return -2L;
+        if (entry.expiresAt == 0) return -1L;
+        return Math.max(0, entry.expiresAt - System.currentTimeMillis()) / unitMillis;
+    }
+
+    private byte[] string(String key) {
+        Entry entry = live(key);
+        if (entry == null) return null;
+        if (!(entry.value instanceof byte[] value)) throw wrongType();
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, byte[]> hash(String key, boolean create) {
+        Entry entry = live(key);
+        if (entry == null) {
+            if (!create) return null;
+            entry = new Entry(new LinkedHashMap<String, byte[]>());
+            store.put(key, entry);
+        }
+        if (!(entry.value instanceof Map)) throw wrongType();
+        return (Map<String, byte[]>) entry.value;
+    }
+
+    // expired keys are dropped lazily, when they are next touched
+    private Entry live(String key) {
+        Entry entry = store.get(key);
+        if (entry != null && expired(entry)) {
+            store.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private boolean expired(Entry entry) {
+        return entry.expiresAt != 0 && entry.expiresAt <= System.currentTimeMillis();
+    }
+
+    private static RedisError wrongType() {
+        return new RedisError("WRONGTYPE Operation against a key holding the wrong kind of value");
+    }
+
+    // ---- PROTOCOL ----
+
+    private record Status(String text) {}
+
+    private static byte[][] readCommand(InputStream in) throws IOException {
+        String line = readLine(in);
+        if (!line.startsWith("*")) {
+            // inline command, e.g. from redis-cli or telnet
+            return Arrays.stream(line.trim().split("\\s+"))
+                         .filter(part -> !part.isEmpty())
+                         .map(RedisStandIn::bytes)
+                         .toArray(byte[][]::new);
+        }
+
+        int count = Integer.parseInt(line.substring(1));
+        byte[][] command = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            String header = readLine(in);
+            if (!header.startsWith("$")) throw new IOException("Expected a bulk string, got " + header);
+            byte[] value = in.readNBytes(Integer.parseInt(header.substring(1)));
+            if (in.read() != '\r' || in.read() != '\n') throw new EOFException();
+            command[i] = value;
+        }
+        return command;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) throw new EOFException();
+            line.append((char) b);
+        }
+        if (in.read() != '\n') throw new EOFException();
+        return line.toString();
+    }
+
+    private static void writeReply(OutputStream out, Object reply) throws IOException {
+        if (reply == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+        } else if (reply instanceof Status status) {
+            out.write(('+' + status.text() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        } else if (reply instanceof Long number) {
+            out.write((":" + number + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        } else if (reply instanceof byte[] value) {
+            out.write(('$' + String.valueOf(value.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(value);
+            out.write('\r');
+            out.write('\n');
+        } else if (reply instanceof List<?> values) {
+            out.write(('*' + String.valueOf(values.size()) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            for (Object value : values) writeReply(out, value);
+        } else {
+            throw new IllegalArgumentException("Unsupported reply " + reply.getClass());
+        }
+    }
+
+    private static String key(byte[][] command, int index) {
+        if (command.length <= index) throw new RedisError("ERR wrong number of arguments");
+        return text(command[index]);
+    }
+
+    // keys and fields are binary, ISO-8859-1 maps every byte to one char and back
+    private static String text(byte[] value) {
+        return new String(value, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static long number(byte[] value) {
+        try {
+            return Long.parseLong(text(value));
+        } catch (NumberFormatException e) {
+            throw new RedisError("ERR value is not an integer or out of range");
+        }
+    }
+
+    private static long seconds(byte[] value) {
+        return number(value) * 1000;
+    }
+}
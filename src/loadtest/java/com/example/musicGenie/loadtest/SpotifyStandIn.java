@@ -0,0 +1,190 @@
+package com.example.musicGenie.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * In-process stand-in for the parts of the Spotify Web API the app calls: the paginated
+ * /me/playlists listing, playlist lookups, paginated playlist tracks and the two POST endpoints.
+ * Every response waits the configured latency, and every Nth request can be answered with a 429.
+ *
+ * <p>The library is synthetic: playlist {@code pl<i>} holds {@code tracksPerPlaylist} tracks and
+ * overlaps its neighbour by half, so shared track caching has something to share.
+ */
+public final class SpotifyStandIn implements AutoCloseable {
+
+    public record Settings(int playlistCount, int tracksPerPlaylist, Duration latency, int rateLimitEvery) {}
+
+    private static final String SNAPSHOT_ID = "snap-1";
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // rendered once, the same pages are requested over and over during a run
+    private final Map<String, byte[]> renderedPages = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicInteger createdPlaylists = new AtomicInteger();
+    private final DisposableServer server;
+
+    public SpotifyStandIn(Settings settings) {
+        this.settings = settings;
+        this.server = HttpServer.create()
+                                .host("localhost")
+                                .port(0)
+                                .route(routes -> routes
+                                        .get("/v1/me/playlists", (request, response) -> respond(request, response,
+                                                HttpResponseStatus.OK, () -> playlistsPage(request)))
+                                        .post("/v1/me/playlists", (request, response) -> respond(request, response,
+                                                HttpResponseStatus.CREATED, this::createdPlaylist))
+                                        .get("/v1/playlists/{id}/tracks", (request, response) -> respond(request, response,
+                                                HttpResponseStatus.OK, () -> tracksPage(request)))
+                                        .post("/v1/playlists/{id}/tracks", (request, response) -> respond(request, response,
+                                                HttpResponseStatus.CREATED, () -> write(objectMapper.createObjectNode()
+                                                                                                    .put("snapshot_id", SNAPSHOT_ID))))
+                                        .get("/v1/playlists/{id}", (request, response) -> respond(request, response,
+                                                HttpResponseStatus.OK, () -> write(playlistItem(request.param("id"))))))
+                                .bindNow();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.port() + "/v1";
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long rateLimited() {
+        return rateLimited.get();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Publisher<Void> respond(HttpServerRequest request, HttpServerResponse response,
+                                    HttpResponseStatus status, Supplier<byte[]> body) {
+        long count = requests.incrementAndGet();
+        Mono<Void> delayed = request.receive().then().then(Mono.delay(settings.latency())).then();
+
+        if (settings.rateLimitEvery() > 0 && count % settings.rateLimitEvery() == 0) {
+            rateLimited.incrementAndGet();
+            return delayed.then(Mono.defer(() -> response.status(HttpResponseStatus.TOO_MANY_REQUESTS)
+                                                         .header(HttpHeaderNames.RETRY_AFTER, "1")
+                                                         .send()
+                                                         .then()));
+        }
+        return delayed.then(Mono.defer(() -> response.status(status)
+                                                     .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                                     .sendByteArray(Mono.fromSupplier(body))
+                                                     .then()));
+    }
+
+    private byte[] playlistsPage(HttpServerRequest request) {
+        Map<String, List<String>> query = new QueryStringDecoder(request.uri()).parameters();
+        int offset = intParam(query, "offset", 0);
+        int limit = intParam(query, "limit", 20);
+
+        return renderedPages.computeIfAbsent("playlists:" + offset + ":" + limit, key -> {
+            int end = Math.min(offset + limit, settings.playlistCount());
+            ObjectNode page = objectMapper.createObjectNode();
+            ArrayNode items = page.putArray("items");
+            for (int i = offset; i < end; i++) {
+                items.add(playlistItem("pl" + i));
+            }
+            page.put("total", settings.playlistCount());
+            page.put("next", end < settings.playlistCount() ? baseUrl() + "/me/playlists?offset=" + end + "&limit=" + limit : null);
+            return write(page);
+        });
+    }
+
+    private byte[] tracksPage(HttpServerRequest request) {
+        Map<String, List<String>> query = new QueryStringDecoder(request.uri()).parameters();
+        String playlistId = request.param("id");
+        int offset = intParam(query, "offset", 0);
+        int limit = intParam(query, "limit", 100);
+
+        return renderedPages.computeIfAbsent("tracks:" + playlistId + ":" + offset + ":" + limit, key -> {
+            int total = trackCount(playlistId);
+            int end = Math.min(offset + limit, total);
+            int first = playlistIndex(playlistId) * (settings.tracksPerPlaylist() / 2);
+
+            ObjectNode page = objectMapper.createObjectNode();
+            ArrayNode items = page.putArray("items");
+            for (int i = offset; i < end; i++) {
+                int track = first + i;
+                ObjectNode item = items.addObject();
+                item.put("added_at", "20%02d-%02d-05T12:00:00Z".formatted(15 + track % 10, 1 + track % 12));
+                ObjectNode song = item.putObject("track");
+                song.put("id", "t" + track);
+                song.put("name", "Track " + track);
+                song.put("popularity", track % 100);
+                song.put("explicit", track % 7 == 0);
+                song.putArray("artists").addObject().put("name", "Artist " + track % 200);
+                song.putObject("album")
+                    .put("name", "Album " + track % 500)
+                    .put("release_date", String.valueOf(1980 + track % 45));
+            }
+            page.put("total", total);
+            page.put("next", end < total ? baseUrl() + "/playlists/" + playlistId + "/tracks?offset=" + end : null);
+            return write(page);
+        });
+    }
+
+    private byte[] createdPlaylist() {
+        return write(playlistItem("new" + createdPlaylists.incrementAndGet()));
+    }
+
+    private ObjectNode playlistItem(String playlistId) {
+        ObjectNode item = objectMapper.createObjectNode();
+        item.put("id", playlistId);
+        item.put("name", "Playlist " + playlistId);
+        item.putObject("owner").put("display_name", "Load Tester");
+        item.putObject("tracks").put("total", trackCount(playlistId));
+        item.putArray("images");
+        item.put("snapshot_id", SNAPSHOT_ID);
+        return item;
+    }
+
+    // playlists created during the run start out empty
+    private int trackCount(String playlistId) {
+        return playlistId.startsWith("pl") ? settings.tracksPerPlaylist() : 0;
+    }
+
+    private static int playlistIndex(String playlistId) {
+        return playlistId.startsWith("pl") ? Integer.parseInt(playlistId.substring(2)) : 0;
+    }
+
+    private static int intParam(Map<String, List<String>> query, String name, int defaultValue) {
+        List<String> values = query.get(name);
+        return values == null || values.isEmpty() ? defaultValue : Integer.parseInt(values.get(0));
+    }
+
+    private byte[] write(ObjectNode json) {
+        try {
+            return objectMapper.writeValueAsBytes(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render stand-in response", e);
+        }
+    }
+}
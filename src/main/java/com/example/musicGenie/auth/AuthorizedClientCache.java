@@ -0,0 +1,62 @@
+package com.example.musicGenie.auth;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authorized clients as built by {@link SessionBasedAuthorizedClientRepository}, which costs three
+ * queries and a decrypt, held on the request for the calls it makes and for a short while across
+ * requests. An entry is only served for the access token currently in the session, so a token
+ * refreshed here or on another node is picked up at once.
+ */
+@Component
+public class AuthorizedClientCache {
+    private static final String REQUEST_ATTRIBUTE_PREFIX = AuthorizedClientCache.class.getName() + ".";
+
+    private record Key(Long userId, String registrationId) {}
+
+    private final Cache<Key, OAuth2AuthorizedClient> cache;
+
+    public AuthorizedClientCache(@Value("${auth.authorized-clients.ttl:60s}") Duration ttl,
+                                 @Value("${auth.authorized-clients.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                             .expireAfterWrite(ttl)
+                             .maximumSize(maxSize)
+                             .build();
+    }
+
+    // the loader may return null, nothing is cached then
+    public OAuth2AuthorizedClient get(HttpServletRequest request, Long userId, String registrationId,
+                                      String accessToken, Supplier<OAuth2AuthorizedClient> loader) {
+        String attribute = REQUEST_ATTRIBUTE_PREFIX + registrationId;
+        if (request.getAttribute(attribute) instanceof OAuth2AuthorizedClient client && issuedFor(client, accessToken)) {
+            return client;
+        }
+
+        Key key = new Key(userId, registrationId);
+        OAuth2AuthorizedClient client = cache.getIfPresent(key);
+        if (client == null || !issuedFor(client, accessToken)) {
+            client = loader.get();
+            if (client == null) return null;
+            cache.put(key, client);
+        }
+        request.setAttribute(attribute, client);
+        return client;
+    }
+
+    public void invalidate(HttpServletRequest request, Long userId, String registrationId) {
+        request.removeAttribute(REQUEST_ATTRIBUTE_PREFIX + registrationId);
+        if (userId != null) cache.invalidate(new Key(userId, registrationId));
+    }
+
+    private static boolean issuedFor(OAuth2AuthorizedClient client, String accessToken) {
+        return client.getAccessToken().getTokenValue().equals(accessToken);
+    }
+}
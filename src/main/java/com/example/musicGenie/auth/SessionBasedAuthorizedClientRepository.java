@@ -34,6 +34,7 @@ public class SessionBasedAuthorizedClientRepository implements OAuth2AuthorizedC
     private final UserProviderService userProviderService;
     private final TokenEncryptionService encryptionService;
     private final ClientRegistrationRepository clientRegistrationRepository;
+    private final AuthorizedClientCache authorizedClientCache;
 
     @Override
     public <T extends OAuth2AuthorizedClient> T loadAuthorizedClient(
@@ -52,6 +53,13 @@ public class SessionBasedAuthorizedClientRepository implements OAuth2AuthorizedC
 
         if (accessToken == null) return null;
 
+        // every outbound call loads the client, only the first one in a while goes to the database
+        return (T) authorizedClientCache.get(request, userId, clientRegistrationId, accessToken,
+                () -> buildAuthorizedClient(clientRegistrationId, userId, accessToken, expiry));
+    }
+
+    private OAuth2AuthorizedClient buildAuthorizedClient(String clientRegistrationId, Long userId,
+                                                         String accessToken, Instant expiry) {
         // Get refresh token from database
         Long providerId = providerService.getIdByName(clientRegistrationId);
         String refreshToken = userProviderService.getRefreshTokenDirect(userId, providerId);
@@ -74,7 +82,7 @@ public class SessionBasedAuthorizedClientRepository implements OAuth2AuthorizedC
         // Get client registration
         ClientRegistration clientRegistration = getClientRegistration(clientRegistrationId);
 
-        return (T) new OAuth2AuthorizedClient(
+        return new OAuth2AuthorizedClient(
                 clientRegistration,
                 getPrincipalName(userId),
                 oauth2AccessToken,
@@ -121,6 +129,8 @@ public class SessionBasedAuthorizedClientRepository implements OAuth2AuthorizedC
             log.debug("Updated refresh token for user: {}", userId);
         }
 
+        authorizedClientCache.invalidate(request, userId, providerName);
+
     }
 
     @Override
@@ -136,6 +146,7 @@ public class SessionBasedAuthorizedClientRepository implements OAuth2AuthorizedC
             Long providerId = providerService.getIdByName(clientRegistrationId);
 
             if (userId != null) {
+                authorizedClientCache.invalidate(request, userId, clientRegistrationId);
                 userProviderService.deleteRefreshToken(userId, providerId);
                 sessionService.invalidateSession(session);
                 log.debug("Removed authorized client for user: {}", userId);
@@ -0,0 +1,72 @@
+package com.example.musicGenie.config.async;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Bean(name = "songPoolExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor songPoolExecutor(
+            @Value("${filter.song-pool.pool-size:16}") int poolSize,
+            @Value("${filter.song-pool.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("song-pool-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        // when saturated the request thread loads the playlist itself instead of failing the filter
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // with spring.threads.virtual.enabled every playlist load gets its own virtual thread, so a
+    // blocked provider or Redis call costs no pool slot. FilterService still caps it per user.
+    @Bean(name = "songPoolExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualSongPoolExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("song-pool-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        return executor;
+    }
+
+    // stale cache refreshes run after the response is sent. A small fixed pool bounds the load they put
+    // on the provider; when its queue is full the refresh is dropped and the next stale read retries it.
+    @Bean(name = "cacheRefreshExecutor")
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(
+            @Value("${cache.refresh.pool-size:4}") int poolSize,
+            @Value("${cache.refresh.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+
+    // playlist creation jobs outlive their request, submissions beyond the queue are refused
+    @Bean(name = "playlistJobExecutor")
+    public ThreadPoolTaskExecutor playlistJobExecutor(
+            @Value("${playlists.jobs.pool-size:4}") int poolSize,
+            @Value("${playlists.jobs.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("playlist-job-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.musicGenie.config.webclient;
+
+import java.lang.management.ManagementFactory;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import io.netty.resolver.AddressResolverGroup;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.TransportConfig;
+
+/**
+ * Pool gauges and acquire times for one provider's connections, exported over JMX as
+ * {@code com.example.musicGenie:type=ConnectionPool,name=<provider>}. Reactor Netty hands the pools
+ * over through {@link ConnectionProvider.MeterRegistrar}, acquire times are taken by wrapping the
+ * provider with {@link #instrument}.
+ */
+@Slf4j
+public class ConnectionPoolMonitor implements ConnectionProvider.MeterRegistrar, ConnectionPoolMonitorMXBean, AutoCloseable {
+
+    // one per pool and remote address, HTTP/2 pools included
+    private final Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong acquireMaxNanos = new AtomicLong();
+    private final ObjectName objectName;
+
+    public ConnectionPoolMonitor(String provider) {
+        try {
+            this.objectName = new ObjectName("com.example.musicGenie:type=ConnectionPool,name=" + ObjectName.quote(provider));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid provider name " + provider, e);
+        }
+    }
+
+    // replaces a monitor left behind by an earlier context in the same JVM, as in tests
+    public ConnectionPoolMonitor register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) server.unregisterMBean(objectName);
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            log.warn("Could not export connection pool metrics as {}", objectName, e);
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException ignored) {
+            // never registered or already gone
+        }
+    }
+
+    public ConnectionProvider instrument(ConnectionProvider provider) {
+        return new TimedConnectionProvider(provider);
+    }
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        pools.put(id, metrics);
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        pools.remove(id);
+    }
+
+    void recordAcquire(long nanos) {
+        acquireCount.increment();
+        acquireNanos.add(nanos);
+        acquireMaxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return sum(ConnectionPoolMetrics::acquiredSize);
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return sum(ConnectionPoolMetrics::idleSize);
+    }
+
+    @Override
+    public int getPendingAcquires() {
+        return sum(ConnectionPoolMetrics::pendingAcquireSize);
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return sum(ConnectionPoolMetrics::maxAllocatedSize);
+    }
+
+    @Override
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    @Override
+    public long getAcquireTimeTotalMillis() {
+        return acquireNanos.sum() / 1_000_000;
+    }
+
+    @Override
+    public double getAcquireTimeMaxMillis() {
+        return acquireMaxNanos.getAndSet(0) / 1e6;
+    }
+
+    private int sum(ToIntFunction<ConnectionPoolMetrics> gauge) {
+        return pools.values().stream().mapToInt(gauge).sum();
+    }
+
+    // times each acquire, from asking the pool to holding a connection, new or reused
+    private final class TimedConnectionProvider implements ConnectionProvider {
+        private final ConnectionProvider delegate;
+
+        private TimedConnectionProvider(ConnectionProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<? extends Connection> acquire(TransportConfig config, ConnectionObserver observer,
+                                                  Supplier<? extends SocketAddress> remoteAddress,
+                                                  AddressResolverGroup<?> resolverGroup) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return delegate.acquire(config, observer, remoteAddress, resolverGroup)
+                               .doOnNext(connection -> recordAcquire(System.nanoTime() - start));
+            });
+        }
+
+        @Override
+        public void disposeWhen(SocketAddress address) {
+            delegate.disposeWhen(address);
+        }
+
+        @Override
+        public void dispose() {
+            delegate.dispose();
+        }
+
+        @Override
+        public Mono<Void> disposeLater() {
+            return delegate.disposeLater();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return delegate.isDisposed();
+        }
+
+        @Override
+        public int maxConnections() {
+            return delegate.maxConnections();
+        }
+
+        @Override
+        public Map<SocketAddress, Integer> maxConnectionsPerHost() {
+            return delegate.maxConnectionsPerHost();
+        }
+
+        // HTTP/2 pools are built from this builder, they report through the same registrar
+        @Override
+        public Builder mutate() {
+            return delegate.mutate();
+        }
+
+        @Override
+        public String name() {
+            return delegate.name();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.musicGenie.config.webclient;
+
+/**
+ * JMX view of one provider's connection pool, summed over the remote addresses it connects to.
+ */
+public interface ConnectionPoolMonitorMXBean {
+
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getPendingAcquires();
+
+    int getMaxConnections();
+
+    long getAcquireCount();
+
+    // monotonic, divide its rate by the acquire count's for the mean
+    long getAcquireTimeTotalMillis();
+
+    // slowest acquire since the previous read
+    double getAcquireTimeMaxMillis();
+}
@@ -0,0 +1,52 @@
+package com.example.musicGenie.config.webclient;
+
+import java.time.Instant;
+import java.util.function.Function;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Provider calls made after the user's request finished, such as background cache refreshes,
+ * cannot go through the OAuth2 filter: it loads the client from the servlet request, which is
+ * recycled by then. Such calls carry the access token captured during the request in the
+ * Reactor context instead and are sent with it as is.
+ */
+public final class DetachedAccessToken {
+    private static final Object CONTEXT_KEY = DetachedAccessToken.class;
+
+    private DetachedAccessToken() {
+    }
+
+    public static Function<Context, Context> with(OAuth2AccessToken accessToken) {
+        return context -> context.put(CONTEXT_KEY, accessToken);
+    }
+
+    // true for calls made after their request, which the rate governor treats as background work
+    public static boolean isPresent(ContextView context) {
+        return context.hasKey(CONTEXT_KEY);
+    }
+
+    // requestBound handles every call that has no detached token
+    public static ExchangeFilterFunction filter(ExchangeFilterFunction requestBound) {
+        return (request, next) -> Mono.deferContextual(context -> {
+            if (!context.hasKey(CONTEXT_KEY)) return requestBound.filter(request, next);
+
+            OAuth2AccessToken accessToken = context.get(CONTEXT_KEY);
+            // there is no request to save a refreshed token to, leave that to the user's next request
+            Instant expiresAt = accessToken.getExpiresAt();
+            if (expiresAt != null && Instant.now().isAfter(expiresAt)) {
+                return Mono.error(new IllegalStateException("Detached access token expired at " + expiresAt));
+            }
+            return next.exchange(ClientRequest.from(request)
+                                              .headers(headers -> headers.set(HttpHeaders.AUTHORIZATION,
+                                                      "Bearer " + accessToken.getTokenValue()))
+                                              .build());
+        });
+    }
+}
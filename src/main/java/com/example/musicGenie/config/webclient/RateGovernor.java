@@ -0,0 +1,160 @@
+package com.example.musicGenie.config.webclient;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Paces one provider's calls so a burst of parallel fetches queues here rather than running into 429s.
+ * Each call needs a token from its user's bucket and from the bucket shared by the whole app. A 429
+ * pauses every call until its Retry-After has passed, for at most the maximum back-off, and is then
+ * retried unless the Retry-After was longer than that. 5xx answers and connection failures on reads
+ * are retried with jittered exponential back-off. Calls made on a detached token, background refreshes
+ * and jobs, leave part of each bucket to interactive calls and resume last after a pause.
+ */
+public class RateGovernor implements ExchangeFilterFunction {
+    private static final Duration USER_BUCKET_IDLE = Duration.ofMinutes(10);
+    private static final long MAX_USER_BUCKETS = 10_000;
+
+    private final double userRequestsPerSecond;
+    private final double backgroundReserve;
+    private final int maxRetries;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final TokenBucket appBucket;
+    // keyed by the Authorization header, an access token stands for its user
+    private final Cache<String, TokenBucket> userBuckets = Caffeine.newBuilder()
+                                                                   .expireAfterAccess(USER_BUCKET_IDLE)
+                                                                   .maximumSize(MAX_USER_BUCKETS)
+                                                                   .build();
+    private final AtomicLong pausedUntil = new AtomicLong(System.nanoTime());
+
+    public RateGovernor(double appRequestsPerSecond, double userRequestsPerSecond, double backgroundReserve,
+                        int maxRetries, Duration baseBackoff, Duration maxBackoff) {
+        this.userRequestsPerSecond = userRequestsPerSecond;
+        this.backgroundReserve = backgroundReserve;
+        this.maxRetries = maxRetries;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.appBucket = new TokenBucket(appRequestsPerSecond, backgroundReserve, System.nanoTime());
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> exchange(request, next, DetachedAccessToken.isPresent(context), 0));
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, boolean background, int attempt) {
+        String user = Optional.ofNullable(request.headers().getFirst(HttpHeaders.AUTHORIZATION)).orElse("");
+        TokenBucket userBucket = userBuckets.get(user,
+                key -> new TokenBucket(userRequestsPerSecond, backgroundReserve, System.nanoTime()));
+
+        return permit(userBucket, background)
+                .then(permit(appBucket, background))
+                .then(Mono.defer(() -> next.exchange(request)))
+                // an unreachable provider is retried like a 5xx, completing empty hands over to the retry below
+                .onErrorResume(error -> error instanceof WebClientRequestException && retriesServerError(request, attempt),
+                        error -> Mono.empty())
+                .flatMap(response -> handle(request, next, background, attempt, response))
+                .switchIfEmpty(Mono.defer(() -> Mono.delay(backoff(attempt))
+                                                    .then(exchange(request, next, background, attempt + 1))));
+    }
+
+    private Mono<ClientResponse> handle(ClientRequest request, ExchangeFunction next, boolean background,
+                                        int attempt, ClientResponse response) {
+        if (response.statusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            appBucket.throttled(System.nanoTime());
+            Duration wait = retryAfter(response).orElseGet(() -> backoff(attempt));
+            // capped, a long Retry-After is passed on to this caller instead of holding up every other one
+            pauseFor(wait.compareTo(maxBackoff) > 0 ? maxBackoff : wait);
+            // the call was not served, so it is safe to retry whatever the method, once the pause is over
+            if (attempt >= maxRetries || wait.compareTo(maxBackoff) > 0) return Mono.just(response);
+            return response.releaseBody().then(Mono.defer(() -> exchange(request, next, background, attempt + 1)));
+        }
+
+        appBucket.succeeded();
+        if (response.statusCode().is5xxServerError() && retriesServerError(request, attempt)) {
+            return response.releaseBody()
+                           .then(Mono.delay(backoff(attempt)))
+                           .then(Mono.defer(() -> exchange(request, next, background, attempt + 1)));
+        }
+        return Mono.just(response);
+    }
+
+    private Mono<Void> permit(TokenBucket bucket, boolean background) {
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            long paused = pausedUntil.get() - now;
+            if (paused > 0) {
+                // jittered so the waiting calls do not all return at once, background calls after the others
+                long jitter = ThreadLocalRandom.current().nextLong(baseBackoff.toNanos() + 1);
+                long resumeAfter = paused + jitter + (background ? baseBackoff.toNanos() : 0);
+                return Mono.delay(Duration.ofNanos(resumeAfter)).then(permit(bucket, background));
+            }
+
+            long wait = bucket.acquire(background, now);
+            if (wait == 0) return Mono.empty();
+            Mono<Long> delay = Mono.delay(Duration.ofNanos(wait));
+            // an interactive call holds its token once the wait is over, a background call has to ask again
+            return background ? delay.then(permit(bucket, true)) : delay.then();
+        });
+    }
+
+    private void pauseFor(Duration wait) {
+        long until = System.nanoTime() + wait.toNanos();
+        pausedUntil.accumulateAndGet(until, (current, candidate) -> candidate - current > 0 ? candidate : current);
+    }
+
+    // only reads are sent twice, a write that got a 5xx may have been applied
+    private boolean retriesServerError(ClientRequest request, int attempt) {
+        return attempt < maxRetries && (request.method() == HttpMethod.GET || request.method() == HttpMethod.HEAD);
+    }
+
+    // doubled per attempt with equal jitter: at least half the step, so retries never come back at once
+    private Duration backoff(int attempt) {
+        long step = Math.min(maxBackoff.toNanos(), baseBackoff.toNanos() << Math.min(attempt, 30));
+        return Duration.ofNanos(step / 2 + ThreadLocalRandom.current().nextLong(step / 2 + 1));
+    }
+
+    // Retry-After is either a number of seconds or an HTTP date
+    private static Optional<Duration> retryAfter(ClientResponse response) {
+        String value = response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) return Optional.empty();
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim()))));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                Duration untilDate = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return Optional.of(untilDate.isNegative() ? Duration.ZERO : untilDate);
+            } catch (DateTimeParseException notDate) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    // remaining global pause, for tests
+    Duration pausedFor() {
+        return Duration.ofNanos(Math.max(0, pausedUntil.get() - System.nanoTime()));
+    }
+
+    double appRate() {
+        return appBucket.rate();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.musicGenie.config.webclient;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The OAuth2 filter needs the servlet request, response and authentication of the call it signs.
+ * Left to itself it looks them up on whichever thread sends the call, and after a Redis hop that
+ * thread has no request. Wrapping a request's chain here captures them on the request thread when
+ * the chain is subscribed, and {@link #filter()} sets them on each provider call of that chain as
+ * the OAuth2 filter's own request attributes.
+ */
+public final class RequestBoundContext {
+    private static final Object CONTEXT_KEY = RequestBoundContext.class;
+
+    private RequestBoundContext() {
+    }
+
+    public static <T> Mono<T> pin(Mono<T> source) {
+        return Mono.defer(() -> {
+            Bound bound = capture();
+            return bound == null ? source : source.contextWrite(context -> context.put(CONTEXT_KEY, bound));
+        });
+    }
+
+    public static <T> Flux<T> pin(Flux<T> source) {
+        return Flux.defer(() -> {
+            Bound bound = capture();
+            return bound == null ? source : source.contextWrite(context -> context.put(CONTEXT_KEY, bound));
+        });
+    }
+
+    // must sit outside the OAuth2 filter, which only looks up what the request does not carry
+    public static ExchangeFilterFunction filter() {
+        return (request, next) -> Mono.deferContextual(context -> {
+            if (!context.hasKey(CONTEXT_KEY)) return next.exchange(request);
+
+            Bound bound = context.get(CONTEXT_KEY);
+            ClientRequest.Builder builder = ClientRequest.from(request)
+                                                         .attributes(ServletOAuth2AuthorizedClientExchangeFilterFunction.httpServletRequest(bound.request()));
+            if (bound.response() != null) {
+                builder.attributes(ServletOAuth2AuthorizedClientExchangeFilterFunction.httpServletResponse(bound.response()));
+            }
+            if (bound.authentication() != null) {
+                builder.attributes(ServletOAuth2AuthorizedClientExchangeFilterFunction.authentication(bound.authentication()));
+            }
+            return next.exchange(builder.build());
+        });
+    }
+
+    // null off a request thread, such as in a background refresh
+    private static Bound capture() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) return null;
+        return new Bound(attributes.getRequest(), attributes.getResponse(),
+                SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private record Bound(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.musicGenie.config.webclient;
+
+/**
+ * Token bucket refilled continuously, holding at most a second's worth of tokens. Its rate halves
+ * whenever the provider throttles and creeps back to the configured rate as calls go through.
+ * Background callers may only take tokens above the reserve, which is kept for interactive calls.
+ */
+final class TokenBucket {
+    private static final double MIN_RATE_SHARE = 0.1;  // never slow down below a tenth of the configured rate
+    private static final double RECOVERY_SHARE = 0.02; // regained per successful call
+
+    private final double maxRate;
+    private final double capacity;
+    private final double reserve;
+    private double rate;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double ratePerSecond, double backgroundReserve, long now) {
+        this.maxRate = ratePerSecond;
+        this.rate = ratePerSecond;
+        this.capacity = Math.max(1, ratePerSecond);
+        this.reserve = capacity * backgroundReserve;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * Nanos to wait, 0 to go ahead. An interactive caller always gets a token, possibly one that is
+     * only due after the wait. A background caller gets none unless it can go now, and asks again
+     * after the wait.
+     */
+    synchronized long acquire(boolean background, long now) {
+        refill(now);
+        if (background) {
+            if (tokens - 1 >= reserve) {
+                tokens -= 1;
+                return 0;
+            }
+            return nanosFor(reserve + 1 - tokens);
+        }
+        tokens -= 1;
+        return tokens >= 0 ? 0 : nanosFor(-tokens);
+    }
+
+    synchronized void throttled(long now) {
+        refill(now);
+        rate = Math.max(maxRate * MIN_RATE_SHARE, rate / 2);
+    }
+
+    synchronized void succeeded() {
+        rate = Math.min(maxRate, rate + maxRate * RECOVERY_SHARE);
+    }
+
+    synchronized double rate() {
+        return rate;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * rate / 1e9);
+        refilledAt = now;
+    }
+
+    private long nanosFor(double missingTokens) {
+        return (long) Math.ceil(missingTokens / rate * 1e9);
+    }
+}
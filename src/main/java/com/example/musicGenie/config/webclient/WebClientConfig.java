@@ -1,24 +1,95 @@
 package com.example.musicGenie.config.webclient;
 
+import java.time.Duration;
 import java.util.Map;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 public class WebClientConfig {
 
+    // one governor per provider, shared by every call made with the app's client ID
     @Bean
-    public Map<String, WebClient> providerWebClients(OAuth2AuthorizedClientManager manager) {
+    public RateGovernor spotifyRateGovernor(@Value("${spotify.rate-limit.app-requests-per-second:25}") double appRequestsPerSecond,
+                                            @Value("${spotify.rate-limit.user-requests-per-second:10}") double userRequestsPerSecond,
+                                            @Value("${spotify.rate-limit.background-reserve:0.25}") double backgroundReserve,
+                                            @Value("${spotify.rate-limit.max-retries:3}") int maxRetries,
+                                            @Value("${spotify.rate-limit.base-backoff:200ms}") Duration baseBackoff,
+                                            @Value("${spotify.rate-limit.max-backoff:10s}") Duration maxBackoff) {
+        return new RateGovernor(appRequestsPerSecond, userRequestsPerSecond, backgroundReserve,
+                maxRetries, baseBackoff, maxBackoff);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ConnectionPoolMonitor spotifyConnectionPoolMonitor() {
+        return new ConnectionPoolMonitor("spotify").register();
+    }
+
+    // a dedicated pool, so one provider's backlog cannot starve another's connections
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider spotifyConnectionProvider(ConnectionPoolMonitor spotifyConnectionPoolMonitor,
+                                                        @Value("${spotify.http.max-connections:50}") int maxConnections,
+                                                        @Value("${spotify.http.pending-acquire-max-count:500}") int pendingAcquireMaxCount,
+                                                        @Value("${spotify.http.pending-acquire-timeout:10s}") Duration pendingAcquireTimeout,
+                                                        @Value("${spotify.http.max-idle-time:30s}") Duration maxIdleTime,
+                                                        @Value("${spotify.http.max-life-time:5m}") Duration maxLifeTime,
+                                                        @Value("${spotify.http.evict-in-background:30s}") Duration evictInBackground) {
+        ConnectionProvider pool = ConnectionProvider.builder("spotify")
+                                                    .maxConnections(maxConnections)
+                                                    .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                                                    .pendingAcquireTimeout(pendingAcquireTimeout)
+                                                    .maxIdleTime(maxIdleTime)
+                                                    .maxLifeTime(maxLifeTime)
+                                                    .evictInBackground(evictInBackground)
+                                                    // reuse the most recently used connection, the least likely to be closed upstream
+                                                    .lifo()
+                                                    .metrics(true, () -> spotifyConnectionPoolMonitor)
+                                                    .build();
+        return spotifyConnectionPoolMonitor.instrument(pool);
+    }
+
+    @Bean
+    public HttpClient spotifyHttpClient(ConnectionProvider spotifyConnectionProvider,
+                                        @Value("${spotify.http.connect-timeout:3s}") Duration connectTimeout,
+                                        @Value("${spotify.http.response-timeout:20s}") Duration responseTimeout,
+                                        @Value("${spotify.http.http2:false}") boolean http2,
+                                        @Value("${spotify.http.compress:true}") boolean compress) {
+        HttpClient httpClient = HttpClient.create(spotifyConnectionProvider)
+                                          .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                                          .option(ChannelOption.SO_KEEPALIVE, true)
+                                          .responseTimeout(responseTimeout)
+                                          .compress(compress)
+                                          // h2 is negotiated over TLS, servers without it get HTTP/1.1
+                                          .protocol(http2 ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                                                          : new HttpProtocol[]{HttpProtocol.HTTP11});
+        // loads the event loops and DNS resolver now rather than on the first user's call
+        httpClient.warmup().block();
+        return httpClient;
+    }
+
+    // overridable so a local stand-in can take Spotify's place in load tests
+    @Bean
+    public Map<String, WebClient> providerWebClients(OAuth2AuthorizedClientManager manager,
+                                                     @Value("${spotify.api.base-url:https://api.spotify.com/v1}") String spotifyBaseUrl,
+                                                     RateGovernor spotifyRateGovernor,
+                                                     HttpClient spotifyHttpClient) {
         return Map.of(
-                "spotify", buildWebClient(manager, "spotify", "https://api.spotify.com/v1")
+                "spotify", buildWebClient(manager, "spotify", spotifyBaseUrl, spotifyRateGovernor, spotifyHttpClient)
         );
     }
 
-    private WebClient buildWebClient(OAuth2AuthorizedClientManager manager, String registrationId, String baseUrl) {
+    private WebClient buildWebClient(OAuth2AuthorizedClientManager manager, String registrationId, String baseUrl,
+                                     RateGovernor rateGovernor, HttpClient httpClient) {
         ServletOAuth2AuthorizedClientExchangeFilterFunction oauth2Client =
                 new ServletOAuth2AuthorizedClientExchangeFilterFunction(manager);
 
@@ -26,9 +97,14 @@ public class WebClientConfig {
 
         return WebClient.builder()
                         .baseUrl(baseUrl)
+                        .clientConnector(new ReactorClientHttpConnector(httpClient))
                         .codecs(configurer ->
                                 configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024)) // 16 MB
-                        .filter(oauth2Client)
+                        // outermost, so the OAuth2 filter finds the request the call was made for
+                        .filter(RequestBoundContext.filter())
+                        .filter(DetachedAccessToken.filter(oauth2Client))
+                        // inside the OAuth2 filter, so it sees which user's token each call carries
+                        .filter(rateGovernor)
                         .build();
     }
 }
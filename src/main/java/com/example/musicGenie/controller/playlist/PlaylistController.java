@@ -1,10 +1,14 @@
 package com.example.musicGenie.controller.playlist;
 
+import java.net.URI;
 import java.util.List;
 
 import com.example.musicGenie.dtos.playlist.CreatePlaylistRequest;
 import com.example.musicGenie.dtos.playlist.PlaylistDto;
+import com.example.musicGenie.dtos.playlist.PlaylistJobDto;
+import com.example.musicGenie.services.playlist.PlaylistJobService;
 import com.example.musicGenie.services.playlist.PlaylistService;
+import com.example.musicGenie.services.session.AccessTokenRefreshService;
 import com.example.musicGenie.services.session.SessionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,7 +19,9 @@ import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -24,13 +30,17 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/playlists")
 @RequiredArgsConstructor
 public class PlaylistController {
     private final PlaylistService playlistService;
+    private final PlaylistJobService playlistJobService;
     private final SessionService sessionService;
+    private final AccessTokenRefreshService accessTokenRefreshService;
 
     @GetMapping("/{provider}")
     @Operation(
@@ -41,7 +51,7 @@ public class PlaylistController {
                 If `forceRefresh=true`, playlists will be fetched directly from the provider, bypassing the cache.
                 """
     )
-    public ResponseEntity<List<PlaylistDto>> getUserPlaylists(
+    public Mono<ResponseEntity<List<PlaylistDto>>> getUserPlaylists(
             @Parameter(
                     description = "Music provider. Currently only 'spotify' is supported.",
                     schema = @Schema(allowableValues = {"spotify"})
@@ -53,11 +63,37 @@ public class PlaylistController {
         Long userId = sessionService.getUserId(session);
         if (accessToken == null) {
             // no token in session → return 401 Unauthorized
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                                 .body(List.of()); // empty list in body
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                           .body(List.of())); // empty list in body
         }
-        List<PlaylistDto> playlists = playlistService.getUserPlaylists(provider, accessToken,userId, forceRefresh != null && forceRefresh);
-        return ResponseEntity.ok(playlists); // 200 OK with body
+        return playlistService.getUserPlaylists(provider, accessToken, userId, forceRefresh != null && forceRefresh)
+                              .map(ResponseEntity::ok); // 200 OK with body
+    }
+
+    @GetMapping(value = "/{provider}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Stream user playlists",
+            description = """
+                Same listing as getting the user playlists, written as newline-delimited JSON (one playlist per line).
+                Each page of the listing is sent as soon as the provider returns it, so the first playlists
+                can be shown before the rest of a large library arrives.
+                """
+    )
+    public ResponseEntity<Flux<PlaylistDto>> streamUserPlaylists(
+            @Parameter(
+                    description = "Music provider. Currently only 'spotify' is supported.",
+                    schema = @Schema(allowableValues = {"spotify"})
+            )
+            @PathVariable String provider,
+            HttpSession session, @RequestParam(required = false) Boolean forceRefresh
+    ) {
+        String accessToken = sessionService.getAccessToken(session);
+        Long userId = sessionService.getUserId(session);
+        if (accessToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(playlistService.streamUserPlaylists(provider, accessToken, userId,
+                forceRefresh != null && forceRefresh));
     }
 
     @PostMapping("/{provider}")
@@ -71,7 +107,7 @@ public class PlaylistController {
                 - Requires authentication with the music provider.
                 """
     )
-    public ResponseEntity<PlaylistDto> createPlaylist(
+    public Mono<ResponseEntity<PlaylistDto>> createPlaylist(
             @Parameter(
                     description = "Music provider. Currently only 'spotify' is supported.",
                     schema = @Schema(allowableValues = {"spotify"})
@@ -84,20 +120,65 @@ public class PlaylistController {
         Long userId = sessionService.getUserId(session);
 
         if (accessToken == null || userId == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
         }
 
-        PlaylistDto newPlaylist = playlistService.createPlaylistFromFilter(
+        return playlistService.createPlaylistFromFilter(
                 provider,
                 accessToken,
                 userId,
                 request
-        );
-
-        return ResponseEntity.ok(newPlaylist);
+        ).map(ResponseEntity::ok);
     }
 
+    @PostMapping("/{provider}/jobs")
+    @Operation(
+            summary = "Create a new playlist in the background",
+            description = """
+                Same as creating a playlist, but returns **202 Accepted** with a job right away instead of
+                waiting for every song to be added. Poll the job's `Location` until its status is
+                `COMPLETED` (the playlist is set) or `FAILED` (the error is set).
+                
+                - `addedSongs` out of `totalSongs` reports progress while the songs are inserted.
+                - Returns **503** when too many jobs are already queued.
+                """
+    )
+    public Mono<ResponseEntity<PlaylistJobDto>> createPlaylistJob(
+            @Parameter(
+                    description = "Music provider. Currently only 'spotify' is supported.",
+                    schema = @Schema(allowableValues = {"spotify"})
+            )
+            @PathVariable String provider,
+            @RequestBody CreatePlaylistRequest request,
+            HttpSession session
+    ) {
+        Long userId = sessionService.getUserId(session);
+        // the job runs after this request and cannot refresh the token itself
+        OAuth2AccessToken accessToken = userId != null
+                ? accessTokenRefreshService.getValidAccessToken(session, provider, userId) : null;
+        if (accessToken == null || userId == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
 
-}
+        return playlistJobService.submit(provider, accessToken, userId, request)
+                                 .map(job -> ResponseEntity.accepted()
+                                                           .location(URI.create("/api/playlists/jobs/" + job.id()))
+                                                           .body(job));
+    }
 
+    @GetMapping("/jobs/{jobId}")
+    @Operation(
+            summary = "Get a playlist creation job",
+            description = "Returns the status and progress of one of the current user's playlist jobs, 404 once it expired."
+    )
+    public Mono<ResponseEntity<PlaylistJobDto>> getPlaylistJob(@PathVariable String jobId, HttpSession session) {
+        Long userId = sessionService.getUserId(session);
+        if (userId == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
 
+        return playlistJobService.getJob(userId, jobId)
+                                 .map(ResponseEntity::ok)
+                                 .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -21,6 +21,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/songs")
@@ -39,7 +40,7 @@ public class SongController {
                 Requires the user to be authenticated with the music provider.
                 """
     )
-    public ResponseEntity<List<SongDto>> getPlaylistSongs(
+    public Mono<ResponseEntity<List<SongDto>>> getPlaylistSongs(
             @Parameter(
                     description = "Music provider. Currently only 'spotify' is supported.",
                     schema = @Schema(allowableValues = {"spotify"})
@@ -55,11 +56,11 @@ public class SongController {
 
         if (accessToken == null) {
             // no token in session → return 401 Unauthorized
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                                 .body(List.of()); // empty list in body
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                           .body(List.of())); // empty list in body
         }
-        List<SongDto> songs = songService.getPlaylistSongs(provider, playlistId, userId);
-        return ResponseEntity.ok(songs); // 200 OK with body
+        return songService.getPlaylistSongs(provider, playlistId, userId)
+                          .map(ResponseEntity::ok); // 200 OK with body
 
 
     }
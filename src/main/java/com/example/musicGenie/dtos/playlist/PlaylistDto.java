@@ -8,5 +8,6 @@ public record PlaylistDto(
         String name,
         String owner,
         int tracksCount,
-        String imageUrl
+        String imageUrl,
+        String snapshotId // version of the track list, changes whenever tracks are added, removed or moved
 ) {}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.example.musicGenie.dtos.playlist;
+
+import lombok.Builder;
+
+// progress of a playlist created in the background, playlist is set once it completed
+@Builder(toBuilder = true)
+public record PlaylistJobDto(
+        String id,
+        PlaylistJobStatus status,
+        int totalSongs,
+        int addedSongs,
+        PlaylistDto playlist,
+        String error
+) {}
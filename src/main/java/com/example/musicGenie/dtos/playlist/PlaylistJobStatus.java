@@ -0,0 +1,8 @@
+package com.example.musicGenie.dtos.playlist;
+
+public enum PlaylistJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
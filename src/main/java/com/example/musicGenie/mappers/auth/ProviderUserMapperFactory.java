@@ -1,5 +1,6 @@
 package com.example.musicGenie.mappers.auth;
 
+import com.example.musicGenie.services.provider.ProviderRegistry;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
@@ -8,13 +9,17 @@ import java.util.Map;
 public class ProviderUserMapperFactory {
 
     private final Map<String, ProviderUserMapper> mappers;
+    private final ProviderRegistry providerRegistry;
 
-    public ProviderUserMapperFactory(Map<String, ProviderUserMapper> mappers) {
+    public ProviderUserMapperFactory(Map<String, ProviderUserMapper> mappers, ProviderRegistry providerRegistry) {
         this.mappers = mappers;
+        this.providerRegistry = providerRegistry;
     }
 
     public ProviderUserMapper getMapper(String providerName) {
-        ProviderUserMapper mapper = mappers.get(providerName + "Mapper");
+        ProviderUserMapper mapper = providerRegistry.find(providerName)
+                                                    .map(provider -> mappers.get(provider.getName() + "Mapper"))
+                                                    .orElse(null);
         if (mapper == null) {
             throw new IllegalArgumentException("No mapper found for provider: " + providerName);
         }
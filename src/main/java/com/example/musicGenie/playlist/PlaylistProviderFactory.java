@@ -2,22 +2,32 @@ package com.example.musicGenie.playlist;
 
 import java.util.Map;
 
-import com.example.musicGenie.mappers.auth.ProviderUserMapper;
+import com.example.musicGenie.services.provider.ProviderRegistry;
 import org.springframework.stereotype.Component;
 
 @Component
 public class PlaylistProviderFactory {
-    private final Map<String, PlaylistProvider> providers;
+    private final Map<String, ReactivePlaylistProvider> reactiveProviders;
+    private final ProviderRegistry providerRegistry;
 
-    public PlaylistProviderFactory(Map<String, PlaylistProvider> providers) {
-        this.providers = providers;
+    public PlaylistProviderFactory(Map<String, ReactivePlaylistProvider> reactiveProviders,
+                                   ProviderRegistry providerRegistry) {
+        this.reactiveProviders = reactiveProviders;
+        this.providerRegistry = providerRegistry;
     }
 
-    public PlaylistProvider getProvider(String providerName) {
-        PlaylistProvider provider = providers.get(providerName + "PlaylistProvider");
+    public ReactivePlaylistProvider getReactiveProvider(String providerName) {
+        ReactivePlaylistProvider provider = reactiveProviders.get(beanName(providerName));
         if (provider == null) {
             throw new IllegalArgumentException("No playlist provider found for: " + providerName);
         }
         return provider;
     }
+
+    // only providers in the registry are served, under their registered name
+    private String beanName(String providerName) {
+        return providerRegistry.find(providerName)
+                               .map(provider -> provider.getName() + "PlaylistProvider")
+                               .orElseThrow(() -> new IllegalArgumentException("No playlist provider found for: " + providerName));
+    }
 }
@@ -0,0 +1,21 @@
+package com.example.musicGenie.playlist;
+
+import java.util.List;
+
+import com.example.musicGenie.dtos.playlist.PlaylistDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Playlist calls against a provider, nothing here holds a thread while the provider responds.
+ */
+public interface ReactivePlaylistProvider {
+    Flux<PlaylistDto> fetchUserPlaylistsAsync(String accessToken);
+    // one list per listing page, in listing order, so callers can use the first page before the rest arrive
+    Flux<List<PlaylistDto>> fetchUserPlaylistPagesAsync(String accessToken);
+    Mono<PlaylistDto> fetchUserPlaylistAsync(String accessToken, String playlistId);
+    Mono<PlaylistDto> createPlaylistAsync(String accessToken, String playlistName);
+    Mono<Void> addSongsToPlaylistAsync(String accessToken, String playlistId, List<String> songIds);
+    // emits how many songs each insert request added, as the requests complete
+    Flux<Integer> addSongsToPlaylistInChunksAsync(String accessToken, String playlistId, List<String> songIds);
+}
@@ -1,82 +1,167 @@
 package com.example.musicGenie.playlist;
 
-import java.util.Collections;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
 import com.example.musicGenie.dtos.playlist.PlaylistDto;
-import com.example.musicGenie.dtos.song.SongDto;
 import com.example.musicGenie.response.playlist.spotify.SpotifyPlaylistItem;
 import com.example.musicGenie.response.playlist.spotify.SpotifyPlaylistResponse;
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 @Component("spotifyPlaylistProvider")
-public class SpotifyPlaylistProvider implements PlaylistProvider{
+public class SpotifyPlaylistProvider implements ReactivePlaylistProvider {
+
+    private static final int PAGE_LIMIT = 50; // max page size allowed by /me/playlists
+    private static final int ADD_LIMIT = 100; // max URIs per POST /playlists/{id}/tracks
+    private static final int ADD_RETRIES = 3;
+    private static final Duration ADD_RETRY_BACKOFF = Duration.ofMillis(500);
 
     private final WebClient webClient;
+    private final int pageConcurrency;
+    private final int addConcurrency;
 
-    public SpotifyPlaylistProvider(Map<String, WebClient> providerWebClients) {
+    public SpotifyPlaylistProvider(Map<String, WebClient> providerWebClients,
+                                   @Value("${spotify.playlists.page-concurrency:4}") int pageConcurrency,
+                                   @Value("${spotify.playlists.add-concurrency:1}") int addConcurrency) {
         this.webClient = providerWebClients.get("spotify");
+        this.pageConcurrency = Math.max(1, pageConcurrency);
+        this.addConcurrency = Math.max(1, addConcurrency);
     }
+
     @Override
-    public List<PlaylistDto> fetchUserPlaylists(String accessToken) {
-        SpotifyPlaylistResponse response =  webClient.get()
-                        .uri("/me/playlists")
-                        .retrieve()
-                        .bodyToMono(SpotifyPlaylistResponse.class) // map to responseClass
-                        .block();
+    public Flux<PlaylistDto> fetchUserPlaylistsAsync(String accessToken) {
+        return fetchUserPlaylistPagesAsync(accessToken).flatMapIterable(page -> page);
+    }
+
+    @Override
+    public Flux<List<PlaylistDto>> fetchUserPlaylistPagesAsync(String accessToken) {
+        return fetchPlaylistsPage(0).flatMapMany(firstPage -> {
+            Flux<List<PlaylistDto>> first = Flux.just(firstPage.toPlaylistDtos());
+            if (firstPage.getNext() == null || firstPage.itemCount() < PAGE_LIMIT) return first; // single page
+
+            // the first page carries the total, so the remaining offsets can be requested together
+            if (pageConcurrency == 1 || firstPage.getTotal() <= PAGE_LIMIT) {
+                return first.concatWith(fetchRemainingPagesSerially(PAGE_LIMIT));
+            }
+
+            int pageCount = (firstPage.getTotal() + PAGE_LIMIT - 1) / PAGE_LIMIT;
+            return first.concatWith(Flux.range(1, pageCount - 1)
+                                        // flatMapSequential keeps pages in listing order
+                                        .flatMapSequential(page -> fetchPlaylistsPage(page * PAGE_LIMIT), pageConcurrency)
+                                        .map(SpotifyPlaylistResponse::toPlaylistDtos));
+        });
+    }
 
-        return response != null ? response.toPlaylistDtos() : Collections.emptyList();
+    private Flux<List<PlaylistDto>> fetchRemainingPagesSerially(int offset) {
+        return fetchPlaylistsPage(offset).flatMapMany(page -> {
+            Flux<List<PlaylistDto>> playlists = Flux.just(page.toPlaylistDtos());
+            if (page.getNext() == null || page.itemCount() < PAGE_LIMIT) return playlists; // last page reached
+            return playlists.concatWith(Flux.defer(() -> fetchRemainingPagesSerially(offset + PAGE_LIMIT)));
+        });
+    }
+
+    private Mono<SpotifyPlaylistResponse> fetchPlaylistsPage(int offset) {
+        return webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/me/playlists")
+                                .queryParam("limit", PAGE_LIMIT)
+                                .queryParam("offset", offset)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(SpotifyPlaylistResponse.class);
     }
 
     @Override
-    public PlaylistDto fetchUserPlaylist(String accessToken, String playlistId) {
-        SpotifyPlaylistItem response = webClient.get()
-                                                    .uri("/playlists/{playlistId}", playlistId)
-                                                    .retrieve()
-                                                    .bodyToMono(SpotifyPlaylistItem.class)
-                                                    .block();
-
-        return response != null ? response.toDto() : null;
+    public Mono<PlaylistDto> fetchUserPlaylistAsync(String accessToken, String playlistId) {
+        return webClient.get()
+                        .uri("/playlists/{playlistId}", playlistId)
+                        .retrieve()
+                        .bodyToMono(SpotifyPlaylistItem.class)
+                        .map(SpotifyPlaylistItem::toDto);
     }
 
-    public PlaylistDto createPlaylist(String accessToken, String name) {
+    @Override
+    public Mono<PlaylistDto> createPlaylistAsync(String accessToken, String name) {
         Map<String, Object> requestBody = Map.of(
                 "name", name,
                 "public", true
         );
 
         // Spotify requires /me/playlists to create new playlists
-        SpotifyPlaylistItem response = webClient.post()
-                                                .uri("/me/playlists")
-                                                .bodyValue(requestBody)
-                                                .retrieve()
-                                                .bodyToMono(SpotifyPlaylistItem.class)
-                                                .block();
-
-        return response != null ? response.toDto() : null;
+        return webClient.post()
+                        .uri("/me/playlists")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(SpotifyPlaylistItem.class)
+                        .map(SpotifyPlaylistItem::toDto);
     }
 
     @Override
-    public void addSongsToPlaylist(String accessToken, String playlistId, List<SongDto> songs) {
-        if (songs == null || songs.isEmpty()) return;
-
-        // Convert song IDs to Spotify track URIs
-        List<String> uris = songs.stream()
-                                 .map(song -> "spotify:track:" + song.getId())
-                                 .toList();
-
-        Map<String, Object> requestBody = Map.of("uris", uris);
-
-        webClient.post()
-                 .uri("/playlists/{playlistId}/tracks", playlistId)
-                 .bodyValue(requestBody)
-                 .retrieve()
-                 .toBodilessEntity()
-                 .block();
+    public Mono<Void> addSongsToPlaylistAsync(String accessToken, String playlistId, List<String> songIds) {
+        return addSongsToPlaylistInChunksAsync(accessToken, playlistId, songIds).then();
     }
 
+    @Override
+    public Flux<Integer> addSongsToPlaylistInChunksAsync(String accessToken, String playlistId, List<String> songIds) {
+        if (songIds == null || songIds.isEmpty()) return Flux.empty();
+
+        int chunkCount = (songIds.size() + ADD_LIMIT - 1) / ADD_LIMIT;
+        Flux<Integer> chunks = Flux.range(0, chunkCount);
+        // Spotify gives no ordering between concurrent inserts, so only unordered mode overlaps them
+        if (addConcurrency > 1) return chunks.flatMap(chunk -> addChunk(playlistId, songIds, chunk, null), addConcurrency);
+
+        // positions count from the tracks already there, anything appended meanwhile ends up after the new songs
+        return fetchTrackCount(playlistId).flatMapMany(existing -> chunks.concatMap(
+                chunk -> addChunk(playlistId, songIds, chunk, existing + chunk * ADD_LIMIT)));
+    }
+
+    private Mono<Integer> fetchTrackCount(String playlistId) {
+        return webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/playlists/{playlistId}")
+                                .queryParam("fields", "tracks.total")
+                                .build(playlistId))
+                        .retrieve()
+                        .bodyToMono(SpotifyPlaylistItem.class)
+                        .map(item -> item.toDto().tracksCount());
+    }
+
+    // URIs are built per chunk, a failed chunk is retried on its own without resending the others
+    private Mono<Integer> addChunk(String playlistId, List<String> songIds, int chunk, Integer position) {
+        int from = chunk * ADD_LIMIT;
+        List<String> uris = songIds.subList(from, Math.min(from + ADD_LIMIT, songIds.size()))
+                                   .stream()
+                                   .map(id -> "spotify:track:" + id)
+                                   .toList();
+
+        // an explicit position keeps the chunk in place even if the playlist is appended to meanwhile
+        Map<String, Object> requestBody = position != null ? Map.of("uris", uris, "position", position) : Map.of("uris", uris);
+
+        return webClient.post()
+                        .uri("/playlists/{playlistId}/tracks", playlistId)
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .retryWhen(Retry.backoff(ADD_RETRIES, ADD_RETRY_BACKOFF).filter(SpotifyPlaylistProvider::isUnsent))
+                        .thenReturn(uris.size());
+    }
+
+    // a chunk that reached Spotify may have been inserted even when the answer was a 5xx or never came, sending
+    // it again would add its tracks twice, so only calls that never got a connection are retried
+    private static boolean isUnsent(Throwable error) {
+        if (!(error instanceof WebClientRequestException)) return false;
+        for (Throwable cause = error.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof UnknownHostException) return true;
+        }
+        return false;
+    }
 }
@@ -15,6 +15,11 @@ class SpotifyPlaylistItem {
     private SpotifyOwner owner;
     private SpotifyTracks tracks;
     private List<SpotifyImage> images;
+    private String snapshot_id;
+
+    public String getSnapshotId() {
+        return snapshot_id;
+    }
 
     // Convert single playlist to normalized DTO
     public PlaylistDto toDto() {
@@ -23,7 +28,8 @@ class SpotifyPlaylistItem {
                 name,
                 owner != null ? owner.getDisplayName() : null,
                 tracks != null ? tracks.getTotal() : 0,
-                (images != null && !images.isEmpty()) ? images.get(0).getUrl() : null
+                (images != null && !images.isEmpty()) ? images.get(0).getUrl() : null,
+                snapshot_id
         );
     }
 }
@@ -12,6 +12,12 @@ import lombok.Data;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class SpotifyPlaylistResponse {
     private List<SpotifyPlaylistItem> items;
+    private int total;
+    private String next;
+
+    public int itemCount() {
+        return items != null ? items.size() : 0;
+    }
 
     // Mapper to DTOs
     public List<PlaylistDto> toPlaylistDtos() {
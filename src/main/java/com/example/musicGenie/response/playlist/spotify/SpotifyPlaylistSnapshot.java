@@ -0,0 +1,15 @@
+package com.example.musicGenie.response.playlist.spotify;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+// GET /playlists/{id}?fields=snapshot_id, the version of the playlist's track list
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SpotifyPlaylistSnapshot {
+    private String snapshot_id;
+
+    public String getSnapshotId() {
+        return snapshot_id;
+    }
+}
@@ -2,7 +2,6 @@ package com.example.musicGenie.response.song.spotify;
 
 import java.time.Year;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -17,6 +16,7 @@ import lombok.Data;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class SpotifyPlaylistTracksResponse {
     private List<SpotifyPlaylistTrackItem> items;
+    private int total;
 
     public List<SongDto> toSongDtos() {
         if (items == null) return Collections.emptyList();
@@ -34,27 +34,12 @@ public class SpotifyPlaylistTracksResponse {
 
                         // Extract albumName and releaseYear
                         String albumName = track.getAlbum() != null ? track.getAlbum().getName() : null;
-                        Year releaseYear = null;
-                        if (track.getAlbum() != null && track.getAlbum().getReleaseDate() != null) {
-                            try {
-                                String releaseDate = track.getAlbum().getReleaseDate();
-                                if (releaseDate.length() >= 4) {
-                                    releaseYear = Year.of(Integer.parseInt(releaseDate.substring(0, 4)));
-                                }
-                            } catch (Exception ignored) {}
-                        }
+                        Year releaseYear = track.getAlbum() != null
+                                ? SpotifyTracksPageReader.parseYear(track.getAlbum().getReleaseDate())
+                                : null;
 
                         // Extract addedAt from item
-                        YearMonth addedAt = null;
-                        if (item.getAddedAt() != null) {
-                            try {
-                                YearMonth ym = YearMonth.parse(
-                                        item.getAddedAt().substring(0, 7),
-                                        DateTimeFormatter.ofPattern("yyyy-MM")
-                                );
-                                addedAt = ym;
-                            } catch (Exception ignored) {}
-                        }
+                        YearMonth addedAt = SpotifyTracksPageReader.parseYearMonth(item.getAddedAt());
 
                         return SongDto.builder()
                                       .id(track.getId())
@@ -0,0 +1,12 @@
+package com.example.musicGenie.response.song.spotify;
+
+import java.util.List;
+
+import com.example.musicGenie.dtos.song.SongDto;
+
+/**
+ * One decoded page of /playlists/{id}/tracks. {@code itemCount} counts every item Spotify
+ * returned, including removed tracks that produced no song, so paging can rely on it.
+ */
+public record SpotifyTracksPage(int total, int itemCount, List<SongDto> songs) {
+}
@@ -0,0 +1,228 @@
+package com.example.musicGenie.response.song.spotify;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streams a Spotify tracks page straight into {@link SongDto}s, without binding the
+ * item/track/album/artist tree first. Fields the app does not use are skipped unparsed.
+ */
+public final class SpotifyTracksPageReader {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // Year is immutable, so the common range is shared instead of allocated per track
+    private static final int FIRST_CACHED_YEAR = 1900;
+    private static final Year[] YEARS = new Year[201];
+
+    static {
+        for (int i = 0; i < YEARS.length; i++) YEARS[i] = Year.of(FIRST_CACHED_YEAR + i);
+    }
+
+    private SpotifyTracksPageReader() {
+    }
+
+    public static SpotifyTracksPage read(InputStream json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return read(parser);
+        }
+    }
+
+    public static SpotifyTracksPage read(byte[] json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return read(parser);
+        }
+    }
+
+    private static SpotifyTracksPage read(JsonParser parser) throws IOException {
+        int total = 0;
+        int itemCount = 0;
+        List<SongDto> songs = Collections.emptyList();
+
+        expect(parser.nextToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("total".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                total = parser.getIntValue();
+            } else if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+                songs = new ArrayList<>(100);
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    itemCount++;
+                    SongDto song = readItem(parser);
+                    if (song != null) songs.add(song);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new SpotifyTracksPage(total, itemCount, songs);
+    }
+
+    private static SongDto readItem(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+
+        SongDto song = null;
+        YearMonth addedAt = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("added_at".equals(field) && value == JsonToken.VALUE_STRING) {
+                addedAt = parseYearMonth(parser);
+            } else if ("track".equals(field) && value == JsonToken.START_OBJECT) {
+                song = readTrack(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (song != null) song.setAddedAt(addedAt);
+        return song;
+    }
+
+    private static SongDto readTrack(JsonParser parser) throws IOException {
+        SongDto song = new SongDto();
+        song.setArtists(Collections.emptyList());
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> song.setId(parser.getValueAsString());
+                case "name" -> song.setTitle(parser.getValueAsString());
+                case "popularity" -> song.setPopularity(parser.getValueAsInt());
+                case "explicit" -> song.setExplicit(parser.getValueAsBoolean());
+                case "artists" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        song.setArtists(readArtists(parser));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case "album" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        readAlbum(parser, song);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return song;
+    }
+
+    private static List<String> readArtists(JsonParser parser) throws IOException {
+        List<String> artists = new ArrayList<>(2);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String name = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("name".equals(field)) {
+                    name = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            artists.add(name);
+        }
+        return artists;
+    }
+
+    private static void readAlbum(JsonParser parser, SongDto song) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("name".equals(field)) {
+                song.setAlbum(parser.getValueAsString());
+            } else if ("release_date".equals(field) && value == JsonToken.VALUE_STRING) {
+                song.setReleaseYear(parseYear(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    // "2021", "2021-03" or "2021-03-14", read from the parser's buffer without building a String
+    private static Year parseYear(JsonParser parser) throws IOException {
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        if (parser.getTextLength() < 4) return null;
+
+        int year = digits(text, offset, 4);
+        return year < 0 ? null : year(year);
+    }
+
+    // "2023-05-05T12:00:00Z", only year and month are kept
+    private static YearMonth parseYearMonth(JsonParser parser) throws IOException {
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        if (parser.getTextLength() < 7 || text[offset + 4] != '-') return null;
+
+        int year = digits(text, offset, 4);
+        int month = digits(text, offset + 5, 2);
+        if (year < 0 || month < 1 || month > 12) return null;
+        return YearMonth.of(year, month);
+    }
+
+    static Year parseYear(String releaseDate) {
+        if (releaseDate == null || releaseDate.length() < 4) return null;
+        int year = digits(releaseDate, 0, 4);
+        return year < 0 ? null : year(year);
+    }
+
+    static YearMonth parseYearMonth(String timestamp) {
+        if (timestamp == null || timestamp.length() < 7 || timestamp.charAt(4) != '-') return null;
+        int year = digits(timestamp, 0, 4);
+        int month = digits(timestamp, 5, 2);
+        if (year < 0 || month < 1 || month > 12) return null;
+        return YearMonth.of(year, month);
+    }
+
+    private static Year year(int year) {
+        int index = year - FIRST_CACHED_YEAR;
+        return index >= 0 && index < YEARS.length ? YEARS[index] : Year.of(year);
+    }
+
+    private static int digits(CharSequence text, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int digits(char[] text, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = text[i];
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected token " + actual + " in Spotify tracks page, expected " + expected);
+        }
+    }
+}
@@ -1,69 +1,121 @@
 package com.example.musicGenie.services.filter;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 import com.example.musicGenie.dtos.filter.PlaylistFilterRequest;
 import com.example.musicGenie.dtos.filter.PlaylistFilterResponse;
 import com.example.musicGenie.dtos.song.SongDto;
+import com.example.musicGenie.services.playlist.CachedSongsLookup;
 import com.example.musicGenie.services.playlist.PlaylistCacheService;
 import com.example.musicGenie.services.song.SongService;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
-@RequiredArgsConstructor
 public class FilterService {
+    private static final Duration USER_PERMITS_IDLE = Duration.ofMinutes(10);
+    private static final long MAX_USER_PERMITS = 10_000;
+
     private final SongService songService;
     private final PlaylistCacheService playlistCacheService;
-    public PlaylistFilterResponse filterSongs(Long userId,  PlaylistFilterRequest request) {
-        List<String> playlistIds = request.getPlaylistIds();
-        List<SongDto> songs = buildSongPool(request.getProvider(),  userId, playlistIds);
+    private final SongIndexCache songIndexCache;
+    private final Executor songPoolExecutor;
+    private final int maxConcurrentPlaylists;
+    // one semaphore per user, so concurrent filter requests from the same user share the cap
+    private final Cache<Long, Semaphore> userPermits = Caffeine.newBuilder()
+                                                               .expireAfterAccess(USER_PERMITS_IDLE)
+                                                               .maximumSize(MAX_USER_PERMITS)
+                                                               .build();
 
-        Stream<SongDto> stream = songs.stream();
+    public FilterService(SongService songService,
+                         PlaylistCacheService playlistCacheService,
+                         SongIndexCache songIndexCache,
+                         @Qualifier("songPoolExecutor") Executor songPoolExecutor,
+                         @Value("${filter.song-pool.max-concurrency-per-user:4}") int maxConcurrentPlaylists) {
+        this.songService = songService;
+        this.playlistCacheService = playlistCacheService;
+        this.songIndexCache = songIndexCache;
+        this.songPoolExecutor = songPoolExecutor;
+        this.maxConcurrentPlaylists = Math.max(1, maxConcurrentPlaylists);
+    }
 
-        if (request.getArtists() != null && !request.getArtists().isEmpty()) {
-            stream = stream.filter(song -> song.getArtists().stream()
-                                               .anyMatch(a -> request.getArtists().contains(a)));
-        }
+    public PlaylistFilterResponse filterSongs(Long userId,  PlaylistFilterRequest request) {
+        List<String> playlistIds = request.getPlaylistIds();
+        List<SongDto> filteredSongs = songIndex(userId, request.getProvider(), playlistIds).filter(request);
+        UUID uuid = playlistCacheService.cacheFilteredSongs(userId, filteredSongs);
+        return new PlaylistFilterResponse(uuid,filteredSongs);
+    }
 
-        if (request.getAlbums() != null && !request.getAlbums().isEmpty()) {
-            stream = stream.filter(song -> request.getAlbums().contains(song.getAlbum()));
-        }
+    // repeat filters over the same playlists reuse the index until one of the playlists changes
+    private SongIndex songIndex(Long userId, String providerName, List<String> playlistIds) {
+        SongIndexCache.Key key = SongIndexCache.key(userId, providerName, playlistIds);
+        SongIndex index = songIndexCache.get(key);
+        if (index != null) return index;
 
-        if (request.getPopularity() != null) {
-            stream = stream.filter(song -> song.getPopularity() <= request.getPopularity());
-        }
+        List<SongDto> songs = buildSongPool(providerName, userId, playlistIds);
+        // read after the pool is built, our own cache writes while loading must not discard it
+        long builtAt = songIndexCache.generation();
+        index = SongIndex.of(songs);
+        songIndexCache.put(key, index, builtAt);
+        return index;
+    }
 
-        if (request.getExplicit() != null) {
-            stream = stream.filter(song -> request.getExplicit().equals(song.isExplicit()));
-        }
+    public List<SongDto> buildSongPool(String providerName, Long userId , List<String> playlistIds){
+        // one Redis round trip for every cached playlist, only the misses go to the provider
+        CachedSongsLookup cached = playlistCacheService.getCachedSongs(userId, playlistIds);
+        List<String> misses = cached.misses();
+        // stale playlists are filtered as cached, the refresh invalidates the index once it lands
+        songService.refreshStaleSongs(providerName, cached.stale(), userId);
 
-        if (request.getReleaseYear() != null) {
-            stream = stream.filter(song ->
-                    song.getReleaseYear() != null && song.getReleaseYear().equals(request.getReleaseYear())
-            );
+        if (misses.size() <= 1 || maxConcurrentPlaylists == 1) {
+            HashSet<SongDto> songs = new HashSet<>();
+            cached.hits().values().forEach(songs::addAll);
+            for(String playlistId : misses){
+                songs.addAll(songService.loadPlaylistSongs(providerName, playlistId, userId));
+            }
+            return new ArrayList<>(songs);
         }
 
-        if (request.getAddedAt() != null && "spotify".equalsIgnoreCase(request.getProvider())) {
-            stream = stream.filter(song ->
-                    song.getAddedAt() != null && (song.getAddedAt().isBefore(request.getAddedAt())
-                            || song.getAddedAt().equals(request.getAddedAt()))
-            );
+        // resolve missed playlists concurrently, at most maxConcurrentPlaylists in flight across this user's requests
+        Set<SongDto> songs = ConcurrentHashMap.newKeySet();
+        cached.hits().values().forEach(songs::addAll);
+        Semaphore permits = userPermits.get(userId, id -> new Semaphore(maxConcurrentPlaylists));
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        List<CompletableFuture<Void>> pending = new ArrayList<>(misses.size());
+        for (String playlistId : misses) {
+            permits.acquireUninterruptibly();
+            // the request fails anyway, the remaining playlists are not worth loading
+            if (failed.isDone()) {
+                permits.release();
+                break;
+            }
+            pending.add(CompletableFuture.runAsync(
+                    () -> songs.addAll(songService.loadPlaylistSongs(providerName, playlistId, userId)),
+                    songPoolExecutor
+            ).whenComplete((ignored, error) -> {
+                permits.release();
+                if (error != null) failed.completeExceptionally(error);
+            }));
         }
 
-        List<SongDto> filteredSongs = stream.toList();
-        UUID uuid = playlistCacheService.cacheFilteredSongs(userId, filteredSongs);
-        return new PlaylistFilterResponse(uuid,filteredSongs);
-    }
-
-    public List<SongDto> buildSongPool(String providerName, Long userId , List<String> playlistIds){
-        HashSet<SongDto> songs = new HashSet<>();
-        for(String playlistId : playlistIds){
-            songs.addAll(songService.getPlaylistSongs(providerName, playlistId, userId));
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
         }
         return new ArrayList<>(songs);
     }
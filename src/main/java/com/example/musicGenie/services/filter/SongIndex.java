@@ -0,0 +1,132 @@
+package com.example.musicGenie.services.filter;
+
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+import com.example.musicGenie.dtos.filter.PlaylistFilterRequest;
+import com.example.musicGenie.dtos.song.SongDto;
+
+/**
+ * Columnar view of a song pool. Numeric fields are kept in primitive arrays, artists and
+ * albums are dictionary encoded with one posting bitmap per value, so each filter criterion
+ * becomes a bitmap and the request is the AND of them.
+ */
+public final class SongIndex {
+    private static final int NONE = Integer.MIN_VALUE; // missing year / addedAt
+
+    private final SongDto[] songs;
+    private final int[] popularity;
+    private final int[] releaseYear;
+    private final int[] addedAt; // year * 12 + month - 1
+    private final BitSet explicit;
+    private final Map<String, BitSet> artistPostings;
+    private final Map<String, BitSet> albumPostings;
+
+    private SongIndex(SongDto[] songs) {
+        int size = songs.length;
+        this.songs = songs;
+        this.popularity = new int[size];
+        this.releaseYear = new int[size];
+        this.addedAt = new int[size];
+        this.explicit = new BitSet(size);
+        this.artistPostings = new HashMap<>();
+        this.albumPostings = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            SongDto song = songs[i];
+            popularity[i] = song.getPopularity();
+            Year year = song.getReleaseYear();
+            releaseYear[i] = year == null ? NONE : year.getValue();
+            YearMonth added = song.getAddedAt();
+            addedAt[i] = added == null ? NONE : months(added);
+            if (song.isExplicit()) explicit.set(i);
+            if (song.getArtists() != null) {
+                for (String artist : song.getArtists()) post(artistPostings, artist, i);
+            }
+            post(albumPostings, song.getAlbum(), i);
+        }
+    }
+
+    public static SongIndex of(Collection<SongDto> songs) {
+        return new SongIndex(songs.toArray(SongDto[]::new));
+    }
+
+    public int size() {
+        return songs.length;
+    }
+
+    public List<SongDto> filter(PlaylistFilterRequest request) {
+        BitSet matches = new BitSet(songs.length);
+        matches.set(0, songs.length);
+
+        if (request.getArtists() != null && !request.getArtists().isEmpty()) {
+            matches.and(anyOf(artistPostings, request.getArtists()));
+        }
+
+        if (request.getAlbums() != null && !request.getAlbums().isEmpty()) {
+            matches.and(anyOf(albumPostings, request.getAlbums()));
+        }
+
+        if (request.getPopularity() != null) {
+            int max = request.getPopularity();
+            matches.and(where(popularity, value -> value <= max));
+        }
+
+        if (request.getExplicit() != null) {
+            if (request.getExplicit()) {
+                matches.and(explicit);
+            } else {
+                matches.andNot(explicit);
+            }
+        }
+
+        if (request.getReleaseYear() != null) {
+            int year = request.getReleaseYear().getValue();
+            matches.and(where(releaseYear, value -> value == year));
+        }
+
+        if (request.getAddedAt() != null && "spotify".equalsIgnoreCase(request.getProvider())) {
+            int latest = months(request.getAddedAt());
+            matches.and(where(addedAt, value -> value != NONE && value <= latest));
+        }
+
+        List<SongDto> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(songs[i]);
+        }
+        return result;
+    }
+
+    private BitSet anyOf(Map<String, BitSet> postings, List<String> values) {
+        BitSet union = new BitSet(songs.length);
+        for (String value : values) {
+            BitSet posting = postings.get(value);
+            if (posting != null) union.or(posting);
+        }
+        return union;
+    }
+
+    private static BitSet where(int[] column, IntPredicate condition) {
+        BitSet bits = new BitSet(column.length);
+        for (int i = 0; i < column.length; i++) {
+            if (condition.test(column[i])) bits.set(i);
+        }
+        return bits;
+    }
+
+    private static void post(Map<String, BitSet> postings, String value, int position) {
+        if (value == null) return;
+        postings.computeIfAbsent(value, v -> new BitSet()).set(position);
+    }
+
+    private static int months(YearMonth yearMonth) {
+        return yearMonth.getYear() * 12 + yearMonth.getMonthValue() - 1;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.musicGenie.services.filter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.musicGenie.services.playlist.PlaylistCacheService;
+import com.example.musicGenie.services.playlist.PlaylistSongsChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link SongIndex} built for a user's playlist selection, so repeated filters over
+ * the same playlists skip the song pool read entirely. Indexes are not patched in place: an
+ * entry is dropped as soon as any of its playlists' cached songs change, and the next filter
+ * builds it again from the song pool. Entries expire a fixed time after they were built, at
+ * the latest once the songs they were built from are due for a refresh, and the cache is
+ * bounded by the total number of songs indexed.
+ */
+@Component
+public class SongIndexCache {
+    private final Cache<Key, Entry> cache;
+
+    // bumped on every change so an index built while its playlists changed is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    public SongIndexCache(@Value("${filter.index.max-songs:1000000}") long maxSongs,
+                          @Value("${filter.index.ttl:10m}") Duration ttl) {
+        // counted from the build, an index in steady use would otherwise outlive the songs' soft TTL
+        Duration expireAfterWrite = ttl.compareTo(PlaylistCacheService.SONGS_SOFT_TTL) > 0 ? PlaylistCacheService.SONGS_SOFT_TTL : ttl;
+        this.cache = Caffeine.newBuilder()
+                             .maximumWeight(maxSongs)
+                             .weigher((Key key, Entry entry) -> entry.index().size() + 1)
+                             .expireAfterWrite(expireAfterWrite)
+                             .build();
+    }
+
+    public static Key key(Long userId, String provider, List<String> playlistIds) {
+        return new Key(userId, provider, new TreeSet<>(playlistIds));
+    }
+
+    public SongIndex get(Key key) {
+        Entry entry = cache.getIfPresent(key);
+        return entry != null ? entry.index() : null;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    // stores the index unless one of the source playlists changed since builtAt was read
+    public void put(Key key, SongIndex index, long builtAt) {
+        Set<String> sourceKeys = new TreeSet<>();
+        for (String playlistId : key.playlistIds()) {
+            sourceKeys.add(PlaylistCacheService.playlistSongsKey(key.userId(), playlistId));
+        }
+        cache.put(key, new Entry(index, sourceKeys));
+        if (generation.get() != builtAt) {
+            cache.invalidate(key);
+        }
+    }
+
+    @EventListener
+    public void onPlaylistSongsChanged(PlaylistSongsChangedEvent event) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(entry -> entry.sourceKeys().contains(event.cacheKey()));
+    }
+
+    public record Key(Long userId, String provider, Set<String> playlistIds) {
+    }
+
+    private record Entry(SongIndex index, Set<String> sourceKeys) {
+    }
+}
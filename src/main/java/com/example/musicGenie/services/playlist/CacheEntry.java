@@ -0,0 +1,10 @@
+package com.example.musicGenie.services.playlist;
+
+/**
+ * A cached value plus whether it outlived its soft TTL. Stale values are still served,
+ * the caller refreshes them in the background until the hard TTL removes them.
+ */
+public record CacheEntry<T>(
+        T value,
+        boolean stale
+) {}
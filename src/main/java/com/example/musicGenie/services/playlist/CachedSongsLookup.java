@@ -0,0 +1,21 @@
+package com.example.musicGenie.services.playlist;
+
+import java.util.List;
+import java.util.Map;
+
+import com.example.musicGenie.dtos.song.SongDto;
+
+/**
+ * Result of a batched song cache read: songs per cached playlist, the playlists that still
+ * have to be loaded from the provider, and the cached playlists past their soft TTL that
+ * are served as they are but should be refreshed in the background.
+ */
+public record CachedSongsLookup(
+        Map<String, List<SongDto>> hits,
+        List<String> misses,
+        List<String> stale
+) {
+    public CachedSongsLookup(Map<String, List<SongDto>> hits, List<String> misses) {
+        this(hits, misses, List.of());
+    }
+}
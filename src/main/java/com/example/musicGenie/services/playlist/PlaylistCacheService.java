@@ -1,20 +1,29 @@
 package com.example.musicGenie.services.playlist;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import com.example.musicGenie.dtos.playlist.PlaylistDto;
 import com.example.musicGenie.dtos.song.SongDto;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.example.musicGenie.services.playlist.codec.SongCacheCodec;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 @Service
 @RequiredArgsConstructor
@@ -23,82 +32,265 @@ public class PlaylistCacheService {
 
     private final RedisTemplate<String, Object> redisTemplate;
 
+    // song lists are stored as raw codec bytes, not through the JSON value serializer
+    private final RedisTemplate<String, byte[]> songCacheRedisTemplate;
+
+    // non-blocking counterparts, used by the reactive request path
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+
+    private final ReactiveRedisTemplate<String, byte[]> reactiveSongCacheRedisTemplate;
+
+    private final SongCacheCodec songCacheCodec;
+
+    private final SongListL1Cache songListL1Cache;
+
+    private final SharedSongCache sharedSongCache;
+
+    // past the soft TTL entries are served stale and refreshed in the background, the hard TTL removes them
+    public static final Duration SONGS_SOFT_TTL = Duration.ofMinutes(30);
+    static final Duration SONGS_TTL = Duration.ofHours(2);
+    private static final Duration PLAYLISTS_SOFT_TTL = Duration.ofMinutes(30);
+    private static final Duration PLAYLISTS_TTL = Duration.ofHours(2);
+    private static final Duration FILTERED_TTL = Duration.ofMinutes(30);
+    private static final Duration PLAYLISTS_STAGING_TTL = Duration.ofMinutes(5);
+    // single playlists are not refreshed in the background, so they only live as long as a listing stays fresh
+    private static final Duration PLAYLIST_TTL = PLAYLISTS_SOFT_TTL;
+
     private static final String PLAYLIST_CACHE_KEY = "user:playlists:";
     private static final String SONGS_CACHE_KEY = "user:songs:";
     private static final String FILTERED_CACHE_KEY = "user:filtered:";
+    // per-user song keys holding this prefix point at a snapshot in the shared song cache
+    private static final String SNAPSHOT_REF_PREFIX = "snapshot:";
+    private static final byte[] SNAPSHOT_REF = SNAPSHOT_REF_PREFIX.getBytes(StandardCharsets.UTF_8);
+
+    private static final String FETCH_LEASE_KEY = "lock:songs:fetch:";
+    private static final String FETCHED_SONGS_KEY = "songs:fetched:";
+
+    // long enough for every node waiting on a lease to pick the songs up, the per-user caches keep them after that
+    private static final Duration FETCHED_SONGS_TTL = Duration.ofMinutes(1);
+
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
 
     // ---- FILTERED SONGS ----
+    // ID lists got their own key suffix, the song lists once stored under ":songs" cannot be told apart from them
     private String filteredSongsKey(Long userId, String filterId) {
-        return FILTERED_CACHE_KEY + userId + ":" + filterId + ":songs";
+        return FILTERED_CACHE_KEY + userId + ":" + filterId + ":ids";
     }
 
+    // filter results only keep the track IDs, the song metadata already lives in the playlist caches
     public UUID cacheFilteredSongs(Long userId, List<SongDto> songs) {
         UUID uuid = UUID.randomUUID();
         String filterId = uuid.toString();
         String key = filteredSongsKey(userId, filterId);
-        try {
-            // Convert list to JSON string
-            String json = objectMapper.writeValueAsString(songs);
-            redisTemplate.opsForValue().set(key, json, Duration.ofMinutes(30));
-        } catch (
-                JsonProcessingException e) {
-            System.out.println("Error serializing filtered songs list: " + e.getMessage());
-            throw new RuntimeException("Failed to serialize filtered songs list", e);
-        }
+        songCacheRedisTemplate.opsForValue().set(key, encodeSongIds(songs), FILTERED_TTL);
         return uuid;
     }
 
-    public List<SongDto> getCachedFilteredSongs(Long userId, String filterId) {
+    public Mono<List<String>> getCachedFilteredSongIdsAsync(Long userId, String filterId) {
         String key = filteredSongsKey(userId, filterId);
-        String json = (String) redisTemplate.opsForValue().get(key);
-        if (json == null) return null;
-        try {
-            return objectMapper.readValue(json, new TypeReference<List<SongDto>>() {});
-        } catch (
-                JsonProcessingException e) {
-            System.out.println("Error serializing filtered songs : " + e.getMessage());
-            throw new RuntimeException(e);
-        }
+        return reactiveSongCacheRedisTemplate.opsForValue().get(key).map(this::decodeSongIds);
     }
 
-    public void evictFilteredSongs(Long userId, String filterId) {
-        String key = filteredSongsKey(userId, filterId);
-        redisTemplate.delete(key);
+    public Mono<Void> evictFilteredSongsAsync(Long userId, String filterId) {
+        return reactiveRedisTemplate.delete(filteredSongsKey(userId, filterId)).then();
     }
 
 
     // ---- SONGS ----
-    private String playlistSongsKey(Long userId, String playlistId) {
+    public static String playlistSongsKey(Long userId, String playlistId) {
         return SONGS_CACHE_KEY + userId + ":" + playlistId + ":songs";
     }
 
-    private String playlistMetaKey(Long userId, String playlistId) {
-        return PLAYLIST_CACHE_KEY + userId + ":" + playlistId + ":metadata";
+    public static String playlistMetaKey(Long userId) {
+        return PLAYLIST_CACHE_KEY + userId + ":metadata";
+    }
+
+    // a playlist fetched on its own, kept out of the listing hash so it never passes for a full listing
+    public static String playlistItemKey(Long userId, String playlistId) {
+        return PLAYLIST_CACHE_KEY + userId + ":playlist:" + playlistId;
+    }
+
+    // full list under the user's key, for providers without playlist snapshots
+    public Mono<Void> cacheSongsAsync(Long userId, String playlistId, List<SongDto> songs) {
+        return cacheSongsAsync(userId, playlistId, null, songs);
     }
 
-    public void cacheSongs(Long userId, String playlistId, List<SongDto> songs) {
+    // with a snapshot the user's key only points at the shared copy, see cacheSharedSongsAsync
+    public Mono<Void> cacheSongsAsync(Long userId, String playlistId, String snapshotId, List<SongDto> songs) {
         String key = playlistSongsKey(userId, playlistId);
+        return reactiveSongCacheRedisTemplate.opsForValue()
+                                             .set(key, userSongsValue(snapshotId, songs), SONGS_TTL)
+                                             .doOnSuccess(stored -> {
+                                                 songListL1Cache.put(key, songs);
+                                                 songListL1Cache.publishInvalidation(key);
+                                             })
+                                             .then();
+    }
+
+    public Mono<Void> cacheSharedSongsAsync(String playlistId, String snapshotId, List<SongDto> songs) {
+        return sharedSongCache.putAsync(playlistId, snapshotId, songs);
+    }
+
+    // songs another user already cached for this exact playlist version, empty when not cached
+    public Mono<List<SongDto>> getSharedSongsAsync(String playlistId, String snapshotId) {
+        return sharedSongCache.getAsync(playlistId, snapshotId);
+    }
+
+    // called when the provider reports the same snapshot again, so unchanged playlists stay cached
+    public Mono<Void> renewSharedSongsAsync(String playlistId, String snapshotId, List<SongDto> songs) {
+        return sharedSongCache.renewAsync(playlistId, snapshotId, songs);
+    }
+
+    // GET and PTTL go out together, the remaining TTL tells how old the entry is
+    public Mono<CacheEntry<List<SongDto>>> getCachedSongsEntryAsync(Long userId, String playlistId) {
+        String key = playlistSongsKey(userId, playlistId);
+        // a local copy is as stale as the Redis entry it was read from
+        CacheEntry<List<SongDto>> local = songListL1Cache.getEntry(key);
+        if (local != null) return Mono.just(local);
+
+        return Mono.zip(reactiveSongCacheRedisTemplate.opsForValue().get(key),
+                           reactiveSongCacheRedisTemplate.getExpire(key).defaultIfEmpty(Duration.ZERO))
+                   .flatMap(cached -> {
+                       byte[] bytes = cached.getT1();
+                       Duration remaining = cached.getT2();
+                       boolean stale = isStale(remaining, SONGS_TTL, SONGS_SOFT_TTL);
+                       String snapshotId = snapshotRef(bytes);
+                       Mono<List<SongDto>> songs = snapshotId != null
+                               ? sharedSongCache.getAsync(playlistId, snapshotId)
+                               : Mono.just(decodeSongs(bytes));
+                       return songs.map(resolved -> new CacheEntry<>(
+                               songListL1Cache.put(key, resolved, songsFreshFor(remaining)), stale));
+                   });
+    }
+
+    // reads every playlist with a single MGET instead of one GET per playlist
+    public CachedSongsLookup getCachedSongs(Long userId, Collection<String> playlistIds) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(playlistIds));
+        if (ids.isEmpty()) return new CachedSongsLookup(Map.of(), List.of());
+
+        Map<String, List<SongDto>> hits = new HashMap<>();
+        List<String> stale = new ArrayList<>();
+        List<String> remoteIds = new ArrayList<>();
+        List<String> remoteKeys = new ArrayList<>();
+        for (String playlistId : ids) {
+            String key = playlistSongsKey(userId, playlistId);
+            CacheEntry<List<SongDto>> local = songListL1Cache.getEntry(key);
+            if (local != null) {
+                hits.put(playlistId, local.value());
+                if (local.stale()) stale.add(playlistId);
+            } else {
+                remoteIds.add(playlistId);
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty()) return new CachedSongsLookup(hits, List.of(), stale);
+
+        List<Object> replies = multiGetWithTtl(remoteKeys);
+        @SuppressWarnings("unchecked")
+        List<byte[]> values = !replies.isEmpty() ? (List<byte[]>) replies.get(0) : null;
+
+        List<String> misses = new ArrayList<>();
+        Map<String, Duration> remainingTtls = new HashMap<>();
+        Map<String, String> snapshots = new HashMap<>();
+        Map<String, String> snapshotKeys = new HashMap<>();
+        for (int i = 0; i < remoteIds.size(); i++) {
+            byte[] bytes = values != null ? values.get(i) : null;
+            String snapshotId = bytes != null ? snapshotRef(bytes) : null;
+            if (bytes == null) {
+                misses.add(remoteIds.get(i));
+                continue;
+            }
+            Duration remaining = replies.size() > i + 1 && replies.get(i + 1) instanceof Long millis
+                    ? Duration.ofMillis(millis) : Duration.ZERO;
+            if (isStale(remaining, SONGS_TTL, SONGS_SOFT_TTL)) stale.add(remoteIds.get(i));
+            if (snapshotId != null) {
+                snapshots.put(remoteIds.get(i), snapshotId);
+                snapshotKeys.put(remoteIds.get(i), remoteKeys.get(i));
+                remainingTtls.put(remoteIds.get(i), remaining);
+            } else {
+                hits.put(remoteIds.get(i), songListL1Cache.put(remoteKeys.get(i), decodeSongs(bytes), songsFreshFor(remaining)));
+            }
+        }
+
+        // snapshot pointers resolve with two more MGETs for all of them together
+        Map<String, List<SongDto>> shared = sharedSongCache.getAll(snapshots);
+        for (String playlistId : snapshots.keySet()) {
+            List<SongDto> songs = shared.get(playlistId);
+            if (songs == null) {
+                misses.add(playlistId);
+                stale.remove(playlistId);
+            } else {
+                hits.put(playlistId, songListL1Cache.put(snapshotKeys.get(playlistId), songs,
+                        songsFreshFor(remainingTtls.get(playlistId))));
+            }
+        }
+        return new CachedSongsLookup(hits, misses, stale);
+    }
+
+    // MGET and a PTTL per key in one pipeline, still a single round trip: the values first, then the TTLs
+    private List<Object> multiGetWithTtl(List<String> keys) {
+        byte[][] rawKeys = keys.stream().map(StringRedisSerializer.UTF_8::serialize).toArray(byte[][]::new);
+        return songCacheRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().mGet(rawKeys);
+            for (byte[] rawKey : rawKeys) connection.keyCommands().pTtl(rawKey);
+            return null;
+        });
+    }
+
+    private static boolean isStale(Duration remaining, Duration hardTtl, Duration softTtl) {
+        // negative when the key has no TTL, never written that way but not worth refreshing either
+        return !remaining.isNegative() && remaining.compareTo(hardTtl.minus(softTtl)) < 0;
+    }
+
+    // how long a song list read with this much TTL left stays fresh in the in-process cache
+    private static Duration songsFreshFor(Duration remaining) {
+        return remaining.isNegative() ? SONGS_SOFT_TTL : remaining.minus(SONGS_TTL.minus(SONGS_SOFT_TTL));
+    }
+
+    private byte[] encodeSongs(List<SongDto> songs, String description) {
         try {
-            // Convert list to JSON string
-            String json = objectMapper.writeValueAsString(songs);
-            redisTemplate.opsForValue().set(key, json, Duration.ofMinutes(30));
-        } catch (
-                JsonProcessingException e) {
-                System.out.println("Error serializing songs list: " + e.getMessage());
-            throw new RuntimeException("Failed to serialize songs list", e);
+            return songCacheCodec.encode(songs);
+        } catch (RuntimeException e) {
+            System.out.println("Error serializing " + description + ": " + e.getMessage());
+            throw new RuntimeException("Failed to serialize " + description, e);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    public List<SongDto> getCachedSongs(Long userId, String playlistId) {
-        String key = playlistSongsKey(userId, playlistId);
-        String json = (String) redisTemplate.opsForValue().get(key);
-        if (json == null) return null;
+    private byte[] userSongsValue(String snapshotId, List<SongDto> songs) {
+        if (snapshotId == null) return encodeSongs(songs, "songs list");
+        return (SNAPSHOT_REF_PREFIX + snapshotId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String snapshotRef(byte[] bytes) {
+        if (bytes.length <= SNAPSHOT_REF.length) return null;
+        for (int i = 0; i < SNAPSHOT_REF.length; i++) {
+            if (bytes[i] != SNAPSHOT_REF[i]) return null;
+        }
+        return new String(bytes, SNAPSHOT_REF.length, bytes.length - SNAPSHOT_REF.length, StandardCharsets.UTF_8);
+    }
+
+    // newline separated track IDs, provider IDs never contain whitespace
+    private static byte[] encodeSongIds(List<SongDto> songs) {
+        StringBuilder ids = new StringBuilder(songs.size() * 23);
+        for (SongDto song : songs) {
+            if (ids.length() > 0) ids.append('\n');
+            ids.append(song.getId());
+        }
+        return ids.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<String> decodeSongIds(byte[] bytes) {
+        if (bytes.length == 0) return List.of();
+        return List.of(new String(bytes, StandardCharsets.UTF_8).split("\n"));
+    }
+
+    private List<SongDto> decodeSongs(byte[] bytes) {
         try {
-            return objectMapper.readValue(json, new TypeReference<List<SongDto>>() {});
-        } catch (
-                JsonProcessingException e) {
-            System.out.println("Error serializing songs : " + e.getMessage());
+            return songCacheCodec.decode(bytes);
+        } catch (RuntimeException e) {
+            System.out.println("Error deserializing songs : " + e.getMessage());
             throw new RuntimeException(e);
         }
     }
@@ -106,53 +298,107 @@ public class PlaylistCacheService {
     public void evictSongs(Long userId, String playlistId) {
         String key = playlistSongsKey(userId, playlistId);
         redisTemplate.delete(key);
+        songListL1Cache.invalidate(key);
     }
 
-    // ---- PLAYLIST METADATA ----
+    // ---- FETCH LEASE ----
+    // one node at a time pages a playlist through the provider, the others wait for its hand-off.
+    // The scope limits who may receive the hand-off, see PlaylistFetchCoalescer#fetchScope
 
-    public void cachePlaylistsMetaData(Long userId, List<PlaylistDto> playlists) {
-        for(PlaylistDto playlist: playlists){
-            String key = playlistMetaKey(userId, playlist.id());
-            redisTemplate.opsForValue().set(key, playlist, Duration.ofMinutes(30));
-        }
+    private String fetchLeaseKey(String provider, String playlistId, String scope) {
+        return FETCH_LEASE_KEY + provider + ":" + playlistId + ":" + scope;
     }
 
-    public void cachePlaylistMetaData(Long userId, PlaylistDto playlist) {
-            String key = playlistMetaKey(userId, playlist.id());
-            redisTemplate.opsForValue().set(key, playlist, Duration.ofMinutes(30));
+    private String fetchedSongsKey(String provider, String playlistId, String scope) {
+        return FETCHED_SONGS_KEY + provider + ":" + playlistId + ":" + scope + ":songs";
     }
 
+    public Mono<Boolean> tryAcquireFetchLeaseAsync(String provider, String playlistId, String scope,
+                                                   String owner, Duration ttl) {
+        String key = fetchLeaseKey(provider, playlistId, scope);
+        return reactiveSongCacheRedisTemplate.opsForValue()
+                                             .setIfAbsent(key, owner.getBytes(StandardCharsets.UTF_8), ttl)
+                                             .map(Boolean.TRUE::equals);
+    }
 
-    public List<PlaylistDto> getCachedPlaylistsMetaData(Long userId) {
-        String pattern = PLAYLIST_CACHE_KEY + userId + ":*"; // scan all user playlists
-        List<PlaylistDto> results = new ArrayList<>();
+    // only the owner may release, a lease that expired and was taken over stays with its new holder
+    public Mono<Void> releaseFetchLeaseAsync(String provider, String playlistId, String scope, String owner) {
+        return reactiveSongCacheRedisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(fetchLeaseKey(provider, playlistId, scope)),
+                                                     List.of(owner.getBytes(StandardCharsets.UTF_8)))
+                                             .then();
+    }
 
-        // use scan instead of keys (keys is blocking in prod)
-        try (Cursor<byte[]> cursor = redisTemplate.getConnectionFactory()
-                                                  .getConnection()
-                                                  .scan(ScanOptions.scanOptions().match(pattern).build())) {
-            while (cursor.hasNext()) {
-                String key = new String(cursor.next());
-                Object raw = redisTemplate.opsForValue().get(key);
-                if (raw != null) {
-                    results.add(objectMapper.convertValue(raw, new TypeReference<PlaylistDto>() {}));
-                }
-            }
+    public Mono<Void> shareFetchedSongsAsync(String provider, String playlistId, String scope, List<SongDto> songs) {
+        return reactiveSongCacheRedisTemplate.opsForValue()
+                                             .set(fetchedSongsKey(provider, playlistId, scope),
+                                                     encodeSongs(songs, "fetched songs"), FETCHED_SONGS_TTL)
+                                             .then();
+    }
+
+    public Mono<List<SongDto>> getFetchedSongsAsync(String provider, String playlistId, String scope) {
+        return reactiveSongCacheRedisTemplate.opsForValue()
+                                             .get(fetchedSongsKey(provider, playlistId, scope))
+                                             .map(this::decodeSongs);
+    }
+
+    // ---- PLAYLIST METADATA ----
+    // one hash per user (field = playlistId), so listing is a single HGETALL with one TTL
+
+    // a listing fetched page by page is written to its own staging hash as the pages arrive and swapped in
+    // whole once the last one is written, readers never see a partial listing and an aborted fetch just expires
+    public static String playlistStagingKey(Long userId) {
+        return playlistMetaKey(userId) + ":staging:" + UUID.randomUUID();
+    }
+
+    public Mono<Void> stagePlaylistsPageAsync(String stagingKey, List<PlaylistDto> page) {
+        if (page.isEmpty()) return Mono.empty();
+        Map<String, PlaylistDto> entries = new HashMap<>();
+        for (PlaylistDto playlist : page) {
+            entries.put(playlist.id(), playlist);
         }
+        return reactiveRedisTemplate.opsForHash().putAll(stagingKey, entries)
+                                    .then(reactiveRedisTemplate.expire(stagingKey, PLAYLISTS_STAGING_TTL))
+                                    .then();
+    }
 
-        return results.isEmpty() ? null : results;
+    public Mono<Void> commitStagedPlaylistsAsync(Long userId, String stagingKey) {
+        String key = playlistMetaKey(userId);
+        // nothing was staged for an empty listing, RENAME would fail on the missing key
+        return reactiveRedisTemplate.hasKey(stagingKey)
+                                    .flatMap(staged -> staged
+                                            ? reactiveRedisTemplate.rename(stagingKey, key)
+                                                                   .then(reactiveRedisTemplate.expire(key, PLAYLISTS_TTL))
+                                            : reactiveRedisTemplate.delete(key))
+                                    .then();
     }
 
-    public void evictPlaylistMetaData(Long userId, String playlistId){
-        String key = playlistMetaKey(userId, playlistId);
-        redisTemplate.delete(key);
+    public Mono<Void> cachePlaylistMetaDataAsync(Long userId, PlaylistDto playlist) {
+        return reactiveRedisTemplate.opsForValue()
+                                    .set(playlistItemKey(userId, playlist.id()), playlist, PLAYLIST_TTL)
+                                    .then();
+    }
+
+    // completes empty when nothing is cached
+    public Mono<CacheEntry<List<PlaylistDto>>> getCachedPlaylistsMetaDataEntryAsync(Long userId) {
+        String key = playlistMetaKey(userId);
+        Mono<List<PlaylistDto>> playlists = reactiveRedisTemplate.opsForHash().values(key)
+                                                                 .map(value -> objectMapper.convertValue(value, new TypeReference<PlaylistDto>() {}))
+                                                                 .collectList()
+                                                                 .filter(results -> !results.isEmpty());
+        return Mono.zip(playlists, reactiveRedisTemplate.getExpire(key).defaultIfEmpty(Duration.ZERO))
+                   .map(cached -> new CacheEntry<>(cached.getT1(), isStale(cached.getT2(), PLAYLISTS_TTL, PLAYLISTS_SOFT_TTL)));
     }
 
-    public PlaylistDto getCachedPlaylistMetaData(Long userId, String playlistId) {
-        String key = playlistMetaKey(userId, playlistId);
-        Object raw = redisTemplate.opsForValue().get(key);
-        if (raw == null) return null;
+    public void evictPlaylistMetaData(Long userId, String playlistId){
+        redisTemplate.opsForHash().delete(playlistMetaKey(userId), playlistId);
+        redisTemplate.delete(playlistItemKey(userId, playlistId));
+    }
 
-        return objectMapper.convertValue(raw, new TypeReference<PlaylistDto>() {});
+    // a playlist fetched on its own is newer than the listing entry, which may be served stale
+    public Mono<PlaylistDto> getCachedPlaylistMetaDataAsync(Long userId, String playlistId) {
+        return reactiveRedisTemplate.opsForValue().get(playlistItemKey(userId, playlistId))
+                                    .switchIfEmpty(Mono.defer(() -> reactiveRedisTemplate.opsForHash()
+                                                                                         .get(playlistMetaKey(userId), playlistId)))
+                                    .map(raw -> objectMapper.convertValue(raw, new TypeReference<PlaylistDto>() {}));
     }
 }
@@ -0,0 +1,127 @@
+package com.example.musicGenie.services.playlist;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.example.musicGenie.config.webclient.DetachedAccessToken;
+import com.example.musicGenie.dtos.playlist.CreatePlaylistRequest;
+import com.example.musicGenie.dtos.playlist.PlaylistDto;
+import com.example.musicGenie.dtos.playlist.PlaylistJobDto;
+import com.example.musicGenie.dtos.playlist.PlaylistJobStatus;
+import com.example.musicGenie.playlist.PlaylistProviderFactory;
+import com.example.musicGenie.playlist.ReactivePlaylistProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Creates playlists from filter results in the background. Submitting only records the job and
+ * queues it, so the request returns at once; a worker from playlistJobExecutor then creates the
+ * playlist, inserts the songs chunk by chunk and records progress after every chunk.
+ */
+@Service
+@Slf4j
+public class PlaylistJobService {
+    // shown to the client, provider errors carry upstream URLs and stay in the log
+    private static final String JOB_FAILED = "Playlist creation failed, please try again";
+
+    private final PlaylistService playlistService;
+    private final PlaylistCacheService playlistCacheService;
+    private final PlaylistProviderFactory providerFactory;
+    private final PlaylistJobStore jobStore;
+    private final Executor playlistJobExecutor;
+    private final Duration timeout;
+
+    public PlaylistJobService(PlaylistService playlistService,
+                              PlaylistCacheService playlistCacheService,
+                              PlaylistProviderFactory providerFactory,
+                              PlaylistJobStore jobStore,
+                              @Qualifier("playlistJobExecutor") Executor playlistJobExecutor,
+                              @Value("${playlists.jobs.timeout:10m}") Duration timeout) {
+        this.playlistService = playlistService;
+        this.playlistCacheService = playlistCacheService;
+        this.providerFactory = providerFactory;
+        this.jobStore = jobStore;
+        this.playlistJobExecutor = playlistJobExecutor;
+        this.timeout = timeout;
+    }
+
+    // the access token is captured from the session, the job cannot reach the request once it runs
+    public Mono<PlaylistJobDto> submit(String providerName, OAuth2AccessToken accessToken, Long userId,
+                                       CreatePlaylistRequest request) {
+        String filterId = request.filterId();
+        return playlistCacheService.getCachedFilteredSongIdsAsync(userId, filterId)
+                                   .filter(songIds -> !songIds.isEmpty())
+                                   .switchIfEmpty(Mono.error(() ->
+                                           new IllegalStateException("No filtered songs found for filterId " + filterId)))
+                                   .flatMap(songIds -> {
+                                       PlaylistJobDto job = PlaylistJobDto.builder()
+                                                                          .id(UUID.randomUUID().toString())
+                                                                          .status(PlaylistJobStatus.QUEUED)
+                                                                          .totalSongs(songIds.size())
+                                                                          .build();
+                                       return jobStore.saveAsync(userId, job)
+                                                      .then(Mono.fromCallable(() -> {
+                                                          playlistJobExecutor.execute(() ->
+                                                                  run(providerName, accessToken, userId, request, job, songIds));
+                                                          return job;
+                                                      }))
+                                                      // rejected by a full queue, drop the record before failing
+                                                      .onErrorResume(e -> jobStore.deleteAsync(userId, job.id()).then(Mono.error(e)));
+                                   });
+    }
+
+    public Mono<PlaylistJobDto> getJob(Long userId, String jobId) {
+        return jobStore.getAsync(userId, jobId);
+    }
+
+    private void run(String providerName, OAuth2AccessToken accessToken, Long userId, CreatePlaylistRequest request,
+                     PlaylistJobDto queued, List<String> songIds) {
+        AtomicReference<PlaylistJobDto> job = new AtomicReference<>(queued.toBuilder().status(PlaylistJobStatus.RUNNING).build());
+        try {
+            PlaylistDto playlist = createPlaylist(providerName, accessToken.getTokenValue(), userId, request, songIds, job)
+                    .contextWrite(DetachedAccessToken.with(accessToken))
+                    .block(timeout);
+            save(userId, job.updateAndGet(current -> current.toBuilder()
+                                                            .status(PlaylistJobStatus.COMPLETED)
+                                                            .playlist(playlist)
+                                                            .build()));
+        } catch (RuntimeException e) {
+            log.warn("Playlist job {} for user {} failed", queued.id(), userId, e);
+            save(userId, job.updateAndGet(current -> current.toBuilder()
+                                                            .status(PlaylistJobStatus.FAILED)
+                                                            .error(JOB_FAILED)
+                                                            .build()));
+        }
+    }
+
+    private Mono<PlaylistDto> createPlaylist(String providerName, String accessToken, Long userId,
+                                             CreatePlaylistRequest request, List<String> songIds,
+                                             AtomicReference<PlaylistJobDto> job) {
+        ReactivePlaylistProvider provider = providerFactory.getReactiveProvider(providerName);
+        return jobStore.saveAsync(userId, job.get())
+                       .then(provider.createPlaylistAsync(accessToken, request.name()))
+                       .flatMap(newPlaylist -> provider
+                               .addSongsToPlaylistInChunksAsync(accessToken, newPlaylist.id(), songIds)
+                               .concatMap(added -> jobStore.saveAsync(userId, job.updateAndGet(current -> current
+                                       .toBuilder()
+                                       .addedSongs(current.addedSongs() + added)
+                                       .build())))
+                               .then(playlistCacheService.evictFilteredSongsAsync(userId, request.filterId()))
+                               .then(Mono.defer(() -> playlistService.getPlaylist(providerName, accessToken, userId, newPlaylist.id()))));
+    }
+
+    private void save(Long userId, PlaylistJobDto job) {
+        try {
+            jobStore.saveAsync(userId, job).block(timeout);
+        } catch (RuntimeException e) {
+            log.warn("Failed to record the final status of playlist job {}", job.id(), e);
+        }
+    }
+}
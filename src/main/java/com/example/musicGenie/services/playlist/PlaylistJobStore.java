@@ -0,0 +1,47 @@
+package com.example.musicGenie.services.playlist;
+
+import java.time.Duration;
+
+import com.example.musicGenie.dtos.playlist.PlaylistJobDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+// job status lives in Redis so any node can answer a poll, keyed by user so users only see their own jobs
+@Component
+public class PlaylistJobStore {
+    private static final String JOB_KEY = "user:playlist-jobs:";
+
+    private final ObjectMapper objectMapper;
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final Duration ttl;
+
+    public PlaylistJobStore(ObjectMapper objectMapper,
+                            ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                            @Value("${playlists.jobs.ttl:1h}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.ttl = ttl;
+    }
+
+    private static String jobKey(Long userId, String jobId) {
+        return JOB_KEY + userId + ":" + jobId;
+    }
+
+    public Mono<Void> saveAsync(Long userId, PlaylistJobDto job) {
+        return reactiveRedisTemplate.opsForValue().set(jobKey(userId, job.id()), job, ttl).then();
+    }
+
+    // completes empty for unknown, expired or other users' jobs
+    public Mono<PlaylistJobDto> getAsync(Long userId, String jobId) {
+        return reactiveRedisTemplate.opsForValue().get(jobKey(userId, jobId))
+                                    .map(raw -> objectMapper.convertValue(raw, new TypeReference<PlaylistJobDto>() {}));
+    }
+
+    public Mono<Void> deleteAsync(Long userId, String jobId) {
+        return reactiveRedisTemplate.delete(jobKey(userId, jobId)).then();
+    }
+}
@@ -2,88 +2,91 @@ package com.example.musicGenie.services.playlist;
 
 import java.util.List;
 
+import com.example.musicGenie.config.webclient.RequestBoundContext;
 import com.example.musicGenie.dtos.playlist.CreatePlaylistRequest;
 import com.example.musicGenie.dtos.playlist.PlaylistDto;
-import com.example.musicGenie.dtos.song.SongDto;
-import com.example.musicGenie.playlist.PlaylistProvider;
 import com.example.musicGenie.playlist.PlaylistProviderFactory;
+import com.example.musicGenie.playlist.ReactivePlaylistProvider;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+// non-blocking: every provider and cache call is chained, no thread waits on Spotify or Redis
 @Service
 @RequiredArgsConstructor
 public class PlaylistService {
     private final PlaylistCacheService playlistCacheService;
     private final PlaylistProviderFactory providerFactory;
+    private final StaleCacheRefresher staleCacheRefresher;
 
-    public List<PlaylistDto> getUserPlaylists(String providerName, String accessToken, Long userId, boolean forceRefresh) {
-        PlaylistProvider provider = providerFactory.getProvider(providerName);
-
-        // try cache first
-        if (!forceRefresh) {
-            List<PlaylistDto> cached = playlistCacheService.getCachedPlaylistsMetaData(userId);
-            if (cached != null) {
-                return cached;
-            }
-        }
-
-        // fetch from provider
-//        PlaylistProvider provider = providerFactory.getProvider(providerName);
-        List<PlaylistDto> playlists = provider.fetchUserPlaylists(accessToken);
-
-        // cache result
-        playlistCacheService.cachePlaylistsMetaData(userId, playlists);
-
-        return playlists;
+    public Mono<List<PlaylistDto>> getUserPlaylists(String providerName, String accessToken, Long userId, boolean forceRefresh) {
+        return streamUserPlaylists(providerName, accessToken, userId, forceRefresh).collectList();
     }
 
-    public PlaylistDto getPlaylist(String providerName, String accessToken, Long userId, String playlistId){
-        PlaylistProvider provider = providerFactory.getProvider(providerName);
-        PlaylistDto cached = playlistCacheService.getCachedPlaylistMetaData(userId, playlistId);
-        if (cached != null) {
-            return cached;
-        }
-
-        // fetch from provider
-//        PlaylistProvider provider = providerFactory.getProvider(providerName);
-        PlaylistDto playlist = provider.fetchUserPlaylist(accessToken, playlistId);
+    // emits each listing page as soon as it is fetched, a cached listing is emitted at once
+    public Flux<PlaylistDto> streamUserPlaylists(String providerName, String accessToken, Long userId, boolean forceRefresh) {
+        ReactivePlaylistProvider provider = providerFactory.getReactiveProvider(providerName);
+
+        // fetch from provider and cache result
+        Flux<PlaylistDto> fetched = Flux.defer(() -> fetchAndCachePlaylists(provider, accessToken, userId));
+
+        // try cache first, a stale listing is returned as is and refreshed in the background
+        if (forceRefresh) return fetched;
+        OAuth2AccessToken callerToken = staleCacheRefresher.captureAccessToken();
+        return RequestBoundContext.pin(playlistCacheService.getCachedPlaylistsMetaDataEntryAsync(userId)
+                                   .doOnNext(cached -> {
+                                       if (cached.stale()) staleCacheRefresher.refresh(
+                                               PlaylistCacheService.playlistMetaKey(userId), callerToken, fetched::then);
+                                   })
+                                   .flatMapIterable(CacheEntry::value)
+                                   .switchIfEmpty(fetched));
+    }
 
-        // cache result
-        playlistCacheService.cachePlaylistMetaData(userId, playlist);
+    // each page is staged in Redis before it is emitted, the listing replaces the cached one after the last page
+    private Flux<PlaylistDto> fetchAndCachePlaylists(ReactivePlaylistProvider provider, String accessToken, Long userId) {
+        String stagingKey = PlaylistCacheService.playlistStagingKey(userId);
+        return provider.fetchUserPlaylistPagesAsync(accessToken)
+                       .concatMap(page -> playlistCacheService.stagePlaylistsPageAsync(stagingKey, page)
+                                                              .thenMany(Flux.fromIterable(page)))
+                       .concatWith(Mono.defer(() -> playlistCacheService.commitStagedPlaylistsAsync(userId, stagingKey))
+                                       .then(Mono.empty()));
+    }
 
-        return playlist;
+    public Mono<PlaylistDto> getPlaylist(String providerName, String accessToken, Long userId, String playlistId){
+        ReactivePlaylistProvider provider = providerFactory.getReactiveProvider(providerName);
 
+        return RequestBoundContext.pin(playlistCacheService.getCachedPlaylistMetaDataAsync(userId, playlistId)
+                                   .switchIfEmpty(Mono.defer(() -> provider.fetchUserPlaylistAsync(accessToken, playlistId)
+                                                                           .flatMap(playlist -> playlistCacheService
+                                                                                   .cachePlaylistMetaDataAsync(userId, playlist)
+                                                                                   .thenReturn(playlist)))));
     }
 
-    public PlaylistDto createPlaylistFromFilter(
+    public Mono<PlaylistDto> createPlaylistFromFilter(
             String providerName,
             String accessToken,
             Long userId,
             CreatePlaylistRequest request) {
 
-        // get filtered songs from cache
+        // get filtered track IDs from cache
         String filterId = request.filterId();
-        List<SongDto> songs = playlistCacheService.getCachedFilteredSongs(userId, filterId);
-        if (songs == null || songs.isEmpty()) {
-            throw new IllegalStateException("No filtered songs found for filterId " + filterId);
-        }
-
-        PlaylistProvider provider = providerFactory.getProvider(providerName);
-
-        // create new playlist on provider
-        PlaylistDto newPlaylist = provider.createPlaylist(
-                accessToken,
-                request.name()
-        );
-
-        // add songs
-        provider.addSongsToPlaylist(accessToken, newPlaylist.id(), songs);
-
-        // evict cached filter list
-        playlistCacheService.evictFilteredSongs(userId, request.filterId());
-
-        return getPlaylist("spotify", accessToken, userId, newPlaylist.id()); // fetch full details
+        return RequestBoundContext.pin(playlistCacheService.getCachedFilteredSongIdsAsync(userId, filterId)
+                                   .filter(songIds -> !songIds.isEmpty())
+                                   .switchIfEmpty(Mono.error(() ->
+                                           new IllegalStateException("No filtered songs found for filterId " + filterId)))
+                                   .flatMap(songIds -> {
+                                       ReactivePlaylistProvider provider = providerFactory.getReactiveProvider(providerName);
+
+                                       // create new playlist on provider, add songs, then evict cached filter list
+                                       return provider.createPlaylistAsync(accessToken, request.name())
+                                                      .flatMap(newPlaylist -> provider
+                                                              .addSongsToPlaylistAsync(accessToken, newPlaylist.id(), songIds)
+                                                              .then(playlistCacheService.evictFilteredSongsAsync(userId, filterId))
+                                                              .then(Mono.defer(() -> getPlaylist("spotify", accessToken, userId, newPlaylist.id())))); // fetch full details
+                                   }));
     }
 
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package com.example.musicGenie.services.playlist;
+
+/**
+ * Published when the cached songs under {@code cacheKey} were rewritten or evicted,
+ * on this node or, via the invalidation channel, on another one.
+ */
+public record PlaylistSongsChangedEvent(String cacheKey) {
+}
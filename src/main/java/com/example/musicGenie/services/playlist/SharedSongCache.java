@@ -0,0 +1,180 @@
+package com.example.musicGenie.services.playlist;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.example.musicGenie.services.playlist.codec.SongCacheCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Song storage shared by every user. A playlist snapshot is stored once as its track IDs with
+ * their addedAt, and each track's metadata once by track ID, so Redis memory follows distinct
+ * content instead of users times playlists. Per-user song keys only point at a snapshot here.
+ */
+@Component
+public class SharedSongCache {
+    private static final String PLAYLIST_KEY = "songs:playlist:";
+    private static final String TRACK_KEY = "songs:track:";
+
+    private final RedisTemplate<String, byte[]> songCacheRedisTemplate;
+    private final ReactiveRedisTemplate<String, byte[]> reactiveSongCacheRedisTemplate;
+    private final SongCacheCodec songCacheCodec;
+    private final Duration ttl;
+
+    public SharedSongCache(RedisTemplate<String, byte[]> songCacheRedisTemplate,
+                           ReactiveRedisTemplate<String, byte[]> reactiveSongCacheRedisTemplate,
+                           SongCacheCodec songCacheCodec,
+                           @Value("${cache.songs.shared.ttl:6h}") Duration ttl) {
+        this.songCacheRedisTemplate = songCacheRedisTemplate;
+        this.reactiveSongCacheRedisTemplate = reactiveSongCacheRedisTemplate;
+        this.songCacheCodec = songCacheCodec;
+        // per-user pointers must expire first, otherwise they would point at nothing
+        this.ttl = ttl.compareTo(PlaylistCacheService.SONGS_TTL) < 0 ? PlaylistCacheService.SONGS_TTL : ttl;
+    }
+
+    static String playlistKey(String playlistId, String snapshotId) {
+        return PLAYLIST_KEY + playlistId + ":" + snapshotId;
+    }
+
+    static String trackKey(String trackId) {
+        return TRACK_KEY + trackId;
+    }
+
+    // ---- WRITE ----
+
+    // tracks first so a reader never sees a snapshot without its tracks
+    public Mono<Void> putAsync(String playlistId, String snapshotId, List<SongDto> songs) {
+        Map<String, byte[]> values = encode(playlistId, snapshotId, songs);
+        String playlistKey = playlistKey(playlistId, snapshotId);
+        byte[] entries = values.remove(playlistKey);
+        return Flux.fromIterable(values.entrySet())
+                   .flatMap(value -> reactiveSongCacheRedisTemplate.opsForValue().set(value.getKey(), value.getValue(), ttl))
+                   .then(reactiveSongCacheRedisTemplate.opsForValue().set(playlistKey, entries, ttl))
+                   .then();
+    }
+
+    // an unchanged snapshot keeps its entries alive, so it is never paged from the provider again
+    public Mono<Void> renewAsync(String playlistId, String snapshotId, List<SongDto> songs) {
+        return Flux.fromIterable(renewedKeys(playlistId, snapshotId, songs))
+                   .flatMap(key -> reactiveSongCacheRedisTemplate.expire(key, ttl))
+                   .then();
+    }
+
+    // ---- READ ----
+
+    // empty unless the snapshot and every one of its tracks are still cached
+    public Mono<List<SongDto>> getAsync(String playlistId, String snapshotId) {
+        return reactiveSongCacheRedisTemplate.opsForValue()
+                                             .get(playlistKey(playlistId, snapshotId))
+                                             .flatMap(entries -> {
+                                                 List<SongDto> skeleton = songCacheCodec.decode(entries);
+                                                 List<String> trackKeys = trackKeys(skeleton);
+                                                 if (trackKeys.isEmpty()) return Mono.just(List.<SongDto>of());
+                                                 return reactiveSongCacheRedisTemplate.opsForValue()
+                                                                                      .multiGet(trackKeys)
+                                                                                      .mapNotNull(tracks -> assemble(skeleton,
+                                                                                              decodeTracks(trackKeys, tracks)));
+                                             });
+    }
+
+    // playlistId -> snapshotId in, playlistId -> songs out for every snapshot still complete; two MGETs in total
+    public Map<String, List<SongDto>> getAll(Map<String, String> snapshots) {
+        if (snapshots.isEmpty()) return Map.of();
+
+        List<String> playlistIds = new ArrayList<>(snapshots.keySet());
+        List<String> playlistKeys = new ArrayList<>(playlistIds.size());
+        for (String playlistId : playlistIds) {
+            playlistKeys.add(playlistKey(playlistId, snapshots.get(playlistId)));
+        }
+        List<byte[]> entries = songCacheRedisTemplate.opsForValue().multiGet(playlistKeys);
+
+        Map<String, List<SongDto>> skeletons = new LinkedHashMap<>();
+        List<String> trackKeys = new ArrayList<>();
+        for (int i = 0; i < playlistIds.size(); i++) {
+            byte[] bytes = entries != null ? entries.get(i) : null;
+            if (bytes == null) continue;
+            List<SongDto> skeleton = songCacheCodec.decode(bytes);
+            skeletons.put(playlistIds.get(i), skeleton);
+            trackKeys.addAll(trackKeys(skeleton));
+        }
+        if (skeletons.isEmpty()) return Map.of();
+
+        List<String> distinctKeys = trackKeys.stream().distinct().toList();
+        Map<String, SongDto> tracks = distinctKeys.isEmpty() ? Map.of()
+                : decodeTracks(distinctKeys, songCacheRedisTemplate.opsForValue().multiGet(distinctKeys));
+
+        Map<String, List<SongDto>> hits = new HashMap<>();
+        skeletons.forEach((playlistId, skeleton) -> {
+            List<SongDto> songs = assemble(skeleton, tracks);
+            if (songs != null) hits.put(playlistId, songs);
+        });
+        return hits;
+    }
+
+    // ---- ENCODING ----
+
+    private Map<String, byte[]> encode(String playlistId, String snapshotId, List<SongDto> songs) {
+        Map<String, byte[]> values = new LinkedHashMap<>();
+        List<SongDto> skeleton = new ArrayList<>(songs.size());
+        for (SongDto song : songs) {
+            skeleton.add(SongDto.builder().id(song.getId()).addedAt(song.getAddedAt()).build());
+            values.putIfAbsent(trackKey(song.getId()), songCacheCodec.encode(List.of(withAddedAt(song, null))));
+        }
+        values.put(playlistKey(playlistId, snapshotId), songCacheCodec.encode(skeleton));
+        return values;
+    }
+
+    private static List<String> renewedKeys(String playlistId, String snapshotId, List<SongDto> songs) {
+        List<String> keys = new ArrayList<>(songs.size() + 1);
+        keys.add(playlistKey(playlistId, snapshotId));
+        for (SongDto song : songs) {
+            keys.add(trackKey(song.getId()));
+        }
+        return keys;
+    }
+
+    private static List<String> trackKeys(List<SongDto> skeleton) {
+        List<String> keys = new ArrayList<>(skeleton.size());
+        for (SongDto entry : skeleton) {
+            keys.add(trackKey(entry.getId()));
+        }
+        return keys;
+    }
+
+    private Map<String, SongDto> decodeTracks(List<String> trackKeys, List<byte[]> values) {
+        Map<String, SongDto> tracks = new HashMap<>();
+        for (int i = 0; i < trackKeys.size(); i++) {
+            byte[] bytes = values != null ? values.get(i) : null;
+            if (bytes == null) continue;
+            List<SongDto> decoded = songCacheCodec.decode(bytes);
+            if (!decoded.isEmpty()) tracks.put(trackKeys.get(i), decoded.get(0));
+        }
+        return tracks;
+    }
+
+    private static List<SongDto> assemble(List<SongDto> skeleton, Map<String, SongDto> tracks) {
+        List<SongDto> songs = new ArrayList<>(skeleton.size());
+        for (SongDto entry : skeleton) {
+            SongDto track = tracks.get(trackKey(entry.getId()));
+            if (track == null) return null; // a track expired or was evicted, treat the snapshot as a miss
+            songs.add(withAddedAt(track, entry.getAddedAt()));
+        }
+        return songs;
+    }
+
+    private static SongDto withAddedAt(SongDto track, YearMonth addedAt) {
+        return new SongDto(track.getId(), track.getTitle(), track.getArtists(), track.getAlbum(),
+                track.getPopularity(), track.getReleaseYear(), track.isExplicit(), addedAt);
+    }
+}
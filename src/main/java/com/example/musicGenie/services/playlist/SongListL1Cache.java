@@ -0,0 +1,104 @@
+package com.example.musicGenie.services.playlist;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process cache of deserialized playlist song lists, keyed by their Redis key.
+ * Sits in front of Redis so repeat filters skip the network hop and the JSON parse.
+ * Writes and evictions are broadcast on a Redis channel so other nodes drop their copy,
+ * and every change is re-published locally as a {@link PlaylistSongsChangedEvent}.
+ * Each copy remembers when its Redis entry passes the soft TTL, so local hits report staleness too.
+ */
+@Component
+@Slf4j
+public class SongListL1Cache implements MessageListener {
+    public static final String INVALIDATION_CHANNEL = "cache:songs:invalidate";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache<String, Entry> cache;
+
+    public SongListL1Cache(ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${cache.songs.l1.max-songs:500000}") long maxSongs,
+                           @Value("${cache.songs.l1.ttl:5m}") Duration ttl) {
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.eventPublisher = eventPublisher;
+        // never outlive the soft TTL, past it the Redis entry is due a refresh anyway
+        Duration expireAfterWrite = ttl.compareTo(PlaylistCacheService.SONGS_SOFT_TTL) > 0 ? PlaylistCacheService.SONGS_SOFT_TTL : ttl;
+        this.cache = Caffeine.newBuilder()
+                             .maximumWeight(maxSongs)
+                             .weigher((String key, Entry entry) -> entry.songs().size() + 1)
+                             .expireAfterWrite(expireAfterWrite)
+                             .build();
+    }
+
+    public List<SongDto> get(String key) {
+        Entry entry = cache.getIfPresent(key);
+        return entry != null ? entry.songs() : null;
+    }
+
+    // null when not cached, stale once the Redis entry it was read from passed the soft TTL
+    public CacheEntry<List<SongDto>> getEntry(String key) {
+        Entry entry = cache.getIfPresent(key);
+        return entry != null ? new CacheEntry<>(entry.songs(), System.nanoTime() - entry.staleAt() >= 0) : null;
+    }
+
+    // for a list just written to Redis, fresh for the whole soft TTL
+    public List<SongDto> put(String key, List<SongDto> songs) {
+        return put(key, songs, PlaylistCacheService.SONGS_SOFT_TTL);
+    }
+
+    // for a list read from Redis, freshFor is what was left of its soft TTL, zero or less when already stale
+    public List<SongDto> put(String key, List<SongDto> songs, Duration freshFor) {
+        List<SongDto> immutable = List.copyOf(songs);
+        cache.put(key, new Entry(immutable, System.nanoTime() + freshFor.toNanos()));
+        return immutable;
+    }
+
+    // drops the local copy and tells the other nodes to do the same
+    public void invalidate(String key) {
+        cache.invalidate(key);
+        publishInvalidation(key);
+    }
+
+    // used after a local write: this node keeps the fresh list, the others drop their stale one.
+    // Fire and forget, so it is safe from reactive callbacks running on Redis I/O threads.
+    public void publishInvalidation(String key) {
+        eventPublisher.publishEvent(new PlaylistSongsChangedEvent(key));
+        reactiveStringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + " " + key)
+                                   .subscribe(null, e -> log.warn("Failed to publish song cache invalidation for key: {}", key, e));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(' ');
+        if (separator < 0) return;
+
+        String sender = body.substring(0, separator);
+        if (nodeId.equals(sender)) return; // our own write, the local copy is already current
+
+        String key = body.substring(separator + 1);
+        cache.invalidate(key);
+        eventPublisher.publishEvent(new PlaylistSongsChangedEvent(key));
+    }
+
+    private record Entry(List<SongDto> songs, long staleAt) {
+    }
+}
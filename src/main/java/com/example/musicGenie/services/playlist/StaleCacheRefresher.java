@@ -0,0 +1,73 @@
+package com.example.musicGenie.services.playlist;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import com.example.musicGenie.config.webclient.DetachedAccessToken;
+import com.example.musicGenie.services.session.SessionService;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+
+/**
+ * Refreshes cache entries past their soft TTL off the request path. At most one refresh per key
+ * is queued or running at a time, and the work runs on the bounded cacheRefreshExecutor.
+ */
+@Component
+@Slf4j
+public class StaleCacheRefresher {
+    private final SessionService sessionService;
+    private final Executor cacheRefreshExecutor;
+    private final Duration timeout;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public StaleCacheRefresher(SessionService sessionService,
+                               @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+                               @Value("${cache.refresh.timeout:60s}") Duration timeout) {
+        this.sessionService = sessionService;
+        this.cacheRefreshExecutor = cacheRefreshExecutor;
+        this.timeout = timeout;
+    }
+
+    // call on the request thread, the session is only reachable while the request is live
+    public OAuth2AccessToken captureAccessToken() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) return null;
+
+        HttpSession session = servletAttributes.getRequest().getSession(false);
+        return session != null ? sessionService.getOAuth2AccessToken(session) : null;
+    }
+
+    // false when the refresh was not queued: no token, one already pending for the key, or the pool is full
+    public boolean refresh(String key, OAuth2AccessToken accessToken, Supplier<? extends Mono<?>> work) {
+        if (accessToken == null || !pending.add(key)) return false;
+
+        try {
+            cacheRefreshExecutor.execute(() -> {
+                try {
+                    work.get().contextWrite(DetachedAccessToken.with(accessToken)).block(timeout);
+                } catch (RuntimeException e) {
+                    log.warn("Background refresh of {} failed, serving the stale entry until the next attempt", key, e);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            pending.remove(key);
+            log.debug("Refresh queue full, skipping background refresh of {}", key);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.musicGenie.services.playlist.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.example.musicGenie.dtos.song.SongDto;
+
+/**
+ * Columnar binary layout for song lists.
+ *
+ * <pre>
+ * header : 'M' 'G' version flags                     (flags bit 0 = deflated payload)
+ *          [varint uncompressed length]              (only when deflated)
+ * payload: varint count
+ *          varint dictSize, dictSize strings         (artist and album names, stored once)
+ *          count ids, count titles                   (strings)
+ *          count album refs                          (varint, dictionary index + 1, 0 = null)
+ *          count artist lists                        (varint size + 1, 0 = null, then refs)
+ *          count popularity                          (zigzag varint)
+ *          count release years                       (zigzag varint + 1, 0 = null)
+ *          count addedAt                             (zigzag varint of year * 12 + month - 1, + 1, 0 = null)
+ *          explicit                                  (bitset, (count + 7) / 8 bytes)
+ * strings: varint byte length + 1 (0 = null), UTF-8 bytes
+ * </pre>
+ */
+public class CompactSongListCodec implements SongListCodec {
+    static final byte MAGIC_0 = 'M';
+    static final byte MAGIC_1 = 'G';
+    static final byte VERSION = 1;
+    private static final int FLAG_DEFLATE = 1;
+    private static final int HEADER_SIZE = 4;
+
+    private final boolean compress;
+    private final int compressionThreshold;
+
+    public CompactSongListCodec(boolean compress, int compressionThreshold) {
+        this.compress = compress;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public static boolean isCompact(byte[] bytes) {
+        return bytes.length >= HEADER_SIZE && bytes[0] == MAGIC_0 && bytes[1] == MAGIC_1;
+    }
+
+    @Override
+    public byte[] encode(List<SongDto> songs) {
+        int count = songs.size();
+        ByteWriter out = new ByteWriter(count * 40 + 16);
+
+        // dictionary-encode artist and album names, they repeat heavily within a playlist
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        for (SongDto song : songs) {
+            intern(song.getAlbum(), dictionary, entries);
+            if (song.getArtists() != null) {
+                for (String artist : song.getArtists()) intern(artist, dictionary, entries);
+            }
+        }
+
+        out.writeVarint(count);
+        out.writeVarint(entries.size());
+        for (String entry : entries) out.writeString(entry);
+
+        for (SongDto song : songs) out.writeString(song.getId());
+        for (SongDto song : songs) out.writeString(song.getTitle());
+        for (SongDto song : songs) out.writeVarint(reference(song.getAlbum(), dictionary));
+        for (SongDto song : songs) {
+            List<String> artists = song.getArtists();
+            if (artists == null) {
+                out.writeVarint(0);
+                continue;
+            }
+            out.writeVarint(artists.size() + 1);
+            for (String artist : artists) out.writeVarint(reference(artist, dictionary));
+        }
+        for (SongDto song : songs) out.writeVarint(zigzag(song.getPopularity()));
+        for (SongDto song : songs) {
+            Year year = song.getReleaseYear();
+            out.writeVarint(year == null ? 0 : zigzag(year.getValue()) + 1);
+        }
+        for (SongDto song : songs) {
+            YearMonth addedAt = song.getAddedAt();
+            out.writeVarint(addedAt == null ? 0 : zigzag(addedAt.getYear() * 12 + addedAt.getMonthValue() - 1) + 1);
+        }
+        byte[] explicit = new byte[(count + 7) / 8];
+        for (int i = 0; i < count; i++) {
+            if (songs.get(i).isExplicit()) explicit[i >>> 3] |= (byte) (1 << (i & 7));
+        }
+        out.writeBytes(explicit, 0, explicit.length);
+
+        return withHeader(out);
+    }
+
+    @Override
+    public List<SongDto> decode(byte[] bytes) {
+        if (!isCompact(bytes)) {
+            throw new IllegalArgumentException("Not a compact song list");
+        }
+        if (bytes[2] != VERSION) {
+            throw new IllegalStateException("Unsupported compact song list version: " + bytes[2]);
+        }
+        ByteReader in = (bytes[3] & FLAG_DEFLATE) != 0 ? inflate(bytes) : new ByteReader(bytes, HEADER_SIZE);
+
+        int count = in.readVarint();
+        String[] dictionary = new String[in.readVarint()];
+        for (int i = 0; i < dictionary.length; i++) dictionary[i] = in.readString();
+
+        SongDto[] songs = new SongDto[count];
+        for (int i = 0; i < count; i++) {
+            songs[i] = new SongDto();
+            songs[i].setId(in.readString());
+        }
+        for (int i = 0; i < count; i++) songs[i].setTitle(in.readString());
+        for (int i = 0; i < count; i++) songs[i].setAlbum(lookup(in.readVarint(), dictionary));
+        for (int i = 0; i < count; i++) {
+            int size = in.readVarint();
+            if (size == 0) continue;
+            List<String> artists = new ArrayList<>(size - 1);
+            for (int a = 1; a < size; a++) artists.add(lookup(in.readVarint(), dictionary));
+            songs[i].setArtists(artists);
+        }
+        for (int i = 0; i < count; i++) songs[i].setPopularity(unzigzag(in.readVarint()));
+        for (int i = 0; i < count; i++) {
+            int year = in.readVarint();
+            if (year != 0) songs[i].setReleaseYear(Year.of(unzigzag(year - 1)));
+        }
+        for (int i = 0; i < count; i++) {
+            int months = in.readVarint();
+            if (months != 0) {
+                int packed = unzigzag(months - 1);
+                songs[i].setAddedAt(YearMonth.of(Math.floorDiv(packed, 12), Math.floorMod(packed, 12) + 1));
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            songs[i].setExplicit((in.buffer[in.position + (i >>> 3)] & (1 << (i & 7))) != 0);
+        }
+
+        return new ArrayList<>(Arrays.asList(songs));
+    }
+
+    private byte[] withHeader(ByteWriter payload) {
+        if (compress && payload.size >= compressionThreshold) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(payload.buffer, 0, payload.size);
+                deflater.finish();
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.size / 2 + 16);
+                byte[] chunk = new byte[8192];
+                while (!deflater.finished()) {
+                    int written = deflater.deflate(chunk);
+                    compressed.write(chunk, 0, written);
+                }
+
+                ByteWriter out = new ByteWriter(compressed.size() + HEADER_SIZE + 5);
+                out.writeBytes(new byte[]{MAGIC_0, MAGIC_1, VERSION, FLAG_DEFLATE}, 0, HEADER_SIZE);
+                out.writeVarint(payload.size);
+                byte[] body = compressed.toByteArray();
+                out.writeBytes(body, 0, body.length);
+                return out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        byte[] result = new byte[payload.size + HEADER_SIZE];
+        result[0] = MAGIC_0;
+        result[1] = MAGIC_1;
+        result[2] = VERSION;
+        result[3] = 0;
+        System.arraycopy(payload.buffer, 0, result, HEADER_SIZE, payload.size);
+        return result;
+    }
+
+    private static ByteReader inflate(byte[] bytes) {
+        ByteReader header = new ByteReader(bytes, HEADER_SIZE);
+        byte[] payload = new byte[header.readVarint()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, header.position, bytes.length - header.position);
+            int read = 0;
+            while (read < payload.length && !inflater.finished()) {
+                int n = inflater.inflate(payload, read, payload.length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                read += n;
+            }
+            if (read != payload.length) {
+                throw new IllegalStateException("Truncated compact song list");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compact song list", e);
+        } finally {
+            inflater.end();
+        }
+        return new ByteReader(payload, 0);
+    }
+
+    private static void intern(String value, Map<String, Integer> dictionary, List<String> entries) {
+        if (value != null && !dictionary.containsKey(value)) {
+            dictionary.put(value, entries.size());
+            entries.add(value);
+        }
+    }
+
+    private static int reference(String value, Map<String, Integer> dictionary) {
+        return value == null ? 0 : dictionary.get(value) + 1;
+    }
+
+    private static String lookup(int reference, String[] dictionary) {
+        return reference == 0 ? null : dictionary[reference - 1];
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class ByteWriter {
+        private byte[] buffer;
+        private int size;
+
+        ByteWriter(int capacity) {
+            this.buffer = new byte[Math.max(capacity, 16)];
+        }
+
+        void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length + 1);
+            writeBytes(utf8, 0, utf8.length);
+        }
+
+        void writeBytes(byte[] bytes, int offset, int length) {
+            ensure(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class ByteReader {
+        private final byte[] buffer;
+        private int position;
+
+        ByteReader(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        String readString() {
+            int length = readVarint();
+            if (length == 0) return null;
+            String value = new String(buffer, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.musicGenie.services.playlist.codec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Plain JSON array of songs. Also reads the legacy format, where the JSON array was stored
+ * as a string and then JSON-encoded a second time by the generic Redis serializer.
+ */
+public class JsonSongListCodec implements SongListCodec {
+    private static final TypeReference<List<SongDto>> SONG_LIST = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    public JsonSongListCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] encode(List<SongDto> songs) {
+        try {
+            return objectMapper.writeValueAsBytes(songs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize songs list", e);
+        }
+    }
+
+    @Override
+    public List<SongDto> decode(byte[] bytes) {
+        try {
+            if (firstToken(bytes) == '"') { // legacy double-encoded value
+                String json = objectMapper.readValue(bytes, String.class);
+                return objectMapper.readValue(json, SONG_LIST);
+            }
+            return objectMapper.readValue(bytes, SONG_LIST);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to deserialize songs list", e);
+        }
+    }
+
+    private static byte firstToken(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') return b;
+        }
+        return 0;
+    }
+}
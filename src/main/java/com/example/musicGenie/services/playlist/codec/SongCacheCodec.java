@@ -0,0 +1,42 @@
+package com.example.musicGenie.services.playlist.codec;
+
+import java.util.List;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Codec used by the song caches. Writes with the configured format and reads any format
+ * it recognises, so switching formats or upgrading from the old JSON strings needs no flush.
+ */
+@Component
+public class SongCacheCodec implements SongListCodec {
+    private final JsonSongListCodec jsonCodec;
+    private final CompactSongListCodec compactCodec;
+    private final SongListCodec writer;
+
+    public SongCacheCodec(ObjectMapper objectMapper,
+                          @Value("${cache.songs.codec:compact}") String format,
+                          @Value("${cache.songs.compression.enabled:true}") boolean compress,
+                          @Value("${cache.songs.compression.threshold-bytes:1024}") int compressionThreshold) {
+        this.jsonCodec = new JsonSongListCodec(objectMapper);
+        this.compactCodec = new CompactSongListCodec(compress, compressionThreshold);
+        this.writer = switch (format) {
+            case "compact" -> compactCodec;
+            case "json" -> jsonCodec;
+            default -> throw new IllegalArgumentException("Unknown song cache codec: " + format);
+        };
+    }
+
+    @Override
+    public byte[] encode(List<SongDto> songs) {
+        return writer.encode(songs);
+    }
+
+    @Override
+    public List<SongDto> decode(byte[] bytes) {
+        return CompactSongListCodec.isCompact(bytes) ? compactCodec.decode(bytes) : jsonCodec.decode(bytes);
+    }
+}
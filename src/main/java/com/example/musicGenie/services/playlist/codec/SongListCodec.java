@@ -0,0 +1,13 @@
+package com.example.musicGenie.services.playlist.codec;
+
+import java.util.List;
+
+import com.example.musicGenie.dtos.song.SongDto;
+
+/**
+ * Serialized form of a cached song list as stored in Redis.
+ */
+public interface SongListCodec {
+    byte[] encode(List<SongDto> songs);
+    List<SongDto> decode(byte[] bytes);
+}
@@ -0,0 +1,105 @@
+package com.example.musicGenie.services.provider;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.example.musicGenie.models.Provider;
+import com.example.musicGenie.repos.ProviderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * The providers table held in memory. It is tiny and only changes when a provider is added, so it
+ * is loaded once into an immutable map that {@link #reload()} swaps whole. A name that is not in the
+ * map reloads it, at most once per interval, so a provider added since is still found without
+ * letting unknown names reach the database on every call. Reloads take a {@link ReentrantLock} rather
+ * than a monitor, the repository call would otherwise pin a virtual thread to its carrier.
+ */
+@Component
+@Slf4j
+public class ProviderRegistry {
+
+    private final ProviderRepository providerRepository;
+    private final long missReloadIntervalNanos;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile Map<String, Provider> providers = Map.of();
+    private volatile long loadedAt;
+
+    public ProviderRegistry(ProviderRepository providerRepository,
+                            @Value("${providers.registry.miss-reload-interval:30s}") Duration missReloadInterval) {
+        this.providerRepository = providerRepository;
+        this.missReloadIntervalNanos = missReloadInterval.toNanos();
+        this.loadedAt = System.nanoTime() - missReloadIntervalNanos;
+    }
+
+    // a database that is not up yet only delays the load until the first lookup
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            reload();
+        } catch (DataAccessException e) {
+            log.warn("Could not preload providers, they will be loaded on first use", e);
+        }
+    }
+
+    public void reload() {
+        reloadLock.lock();
+        try {
+            providers = providerRepository.findAll()
+                                          .stream()
+                                          .collect(Collectors.toUnmodifiableMap(provider -> key(provider.getName()),
+                                                  Function.identity()));
+            loadedAt = System.nanoTime();
+            log.info("Loaded providers: {}", providers.keySet());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // a copy, the entities in the map are shared by every caller
+    public Optional<Provider> find(String name) {
+        if (name == null) return Optional.empty();
+        Provider provider = providers.get(key(name));
+        if (provider == null && reloadAfterMiss()) provider = providers.get(key(name));
+        return Optional.ofNullable(provider).map(ProviderRegistry::copy);
+    }
+
+    public Provider get(String name) {
+        return find(name).orElseThrow(() -> new IllegalStateException("Provider not found: " + name));
+    }
+
+    // single flight, callers that missed while another reload ran read its result instead of loading again
+    private boolean reloadAfterMiss() {
+        long seen = loadedAt;
+        reloadLock.lock();
+        try {
+            if (loadedAt != seen) return true;
+            if (System.nanoTime() - loadedAt < missReloadIntervalNanos) return false;
+            reload();
+            return true;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static Provider copy(Provider provider) {
+        return Provider.builder()
+                       .id(provider.getId())
+                       .name(provider.getName())
+                       .displayName(provider.getDisplayName())
+                       .build();
+    }
+}
@@ -1,33 +1,27 @@
 package com.example.musicGenie.services.provider;
 
 import com.example.musicGenie.models.Provider;
-import com.example.musicGenie.repos.ProviderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+// lookups are served by the in-memory registry, none of them reach the database
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProviderService {
 
-    private final ProviderRepository providerRepository;
+    private final ProviderRegistry providerRegistry;
 
-    @Transactional(readOnly = true)
     public Provider getByName(String name) {
-        return providerRepository.findByName(name)
-                                 .orElseThrow(() -> new IllegalStateException("Provider not found: " + name));
+        return providerRegistry.get(name);
     }
 
-    @Transactional(readOnly = true)
     public boolean exists(String name) {
-        return providerRepository.findByName(name).isPresent();
+        return providerRegistry.find(name).isPresent();
     }
 
-    @Transactional(readOnly = true)
     public Long getIdByName(String name) {
-        return providerRepository.findIdByName(name)
-                                 .orElseThrow(() -> new IllegalStateException("Provider not found: " + name));
+        return providerRegistry.get(name).getId();
     }
-}
\ No newline at end of file
+}
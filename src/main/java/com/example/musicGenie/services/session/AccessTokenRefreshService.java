@@ -0,0 +1,48 @@
+package com.example.musicGenie.services.session;
+
+import java.time.Instant;
+
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AuthorizationException;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccessTokenRefreshService {
+    private final SessionService sessionService;
+    private final OAuth2AuthorizedClientManager authorizedClientManager;
+
+    // the session's token for work that runs after the request, refreshed first if it expired, null if it cannot be
+    public OAuth2AccessToken getValidAccessToken(HttpSession session, String provider, Long userId) {
+        OAuth2AccessToken accessToken = sessionService.getOAuth2AccessToken(session);
+        if (accessToken == null || !sessionService.isAccessTokenExpired(session)) return accessToken;
+        return refreshAccessToken(provider, userId);
+    }
+
+    // the client manager refreshes with the stored refresh token and saves the new token to the session, null if it cannot
+    private OAuth2AccessToken refreshAccessToken(String provider, Long userId) {
+        Authentication principal = SecurityContextHolder.getContext().getAuthentication();
+        OAuth2AuthorizeRequest.Builder authorizeRequest = OAuth2AuthorizeRequest.withClientRegistrationId(provider);
+        authorizeRequest = principal != null ? authorizeRequest.principal(principal) : authorizeRequest.principal(String.valueOf(userId));
+        try {
+            OAuth2AuthorizedClient client = authorizedClientManager.authorize(authorizeRequest.build());
+            // without a refresh token the manager hands back the expired client as it was
+            OAuth2AccessToken refreshed = client != null ? client.getAccessToken() : null;
+            return refreshed != null && refreshed.getExpiresAt() != null && refreshed.getExpiresAt().isAfter(Instant.now())
+                    ? refreshed : null;
+        } catch (OAuth2AuthorizationException e) {
+            // refresh token revoked or rejected, the user has to sign in again
+            log.debug("Could not refresh access token for user: {} provider: {}", userId, provider, e);
+            return null;
+        }
+    }
+}
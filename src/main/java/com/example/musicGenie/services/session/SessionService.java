@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.token.TokenService;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -48,6 +49,13 @@ public class SessionService {
     }
 
 
+    // the session's token on its own, for provider calls that run after the request finished
+    public OAuth2AccessToken getOAuth2AccessToken(HttpSession session) {
+        String accessToken = getAccessToken(session);
+        if (accessToken == null) return null;
+        return new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, accessToken, null, getAccessTokenExpiry(session));
+    }
+
     public boolean isAccessTokenExpired(HttpSession session) {
         Instant expiry = getAccessTokenExpiry(session);
         return expiry != null && Instant.now().isAfter(expiry);
@@ -0,0 +1,114 @@
+package com.example.musicGenie.services.song;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.example.musicGenie.services.playlist.PlaylistCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lets concurrent cache misses share one piece of work instead of each paging the playlist
+ * through the provider. Callers on this node join the in-flight future for their key; across
+ * nodes a short Redis lease picks one fetcher and the others wait for the songs it hands off.
+ * Fetches are only shared within a {@link #fetchScope scope} that proves read access.
+ */
+@Component
+@Slf4j
+public class PlaylistFetchCoalescer {
+    private final PlaylistCacheService playlistCacheService;
+    private final Duration leaseTtl;
+    private final Duration pollInterval;
+    private final ConcurrentHashMap<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    public PlaylistFetchCoalescer(PlaylistCacheService playlistCacheService,
+                                  @Value("${cache.songs.fetch-lease.ttl:30s}") Duration leaseTtl,
+                                  @Value("${cache.songs.fetch-lease.poll-interval:100ms}") Duration pollInterval) {
+        this.playlistCacheService = playlistCacheService;
+        this.leaseTtl = leaseTtl;
+        this.pollInterval = pollInterval;
+    }
+
+    // ---- IN-PROCESS ----
+
+    // runs work once per key at a time, callers arriving meanwhile get the same result
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> joinAsync(String key, Supplier<Mono<T>> work) {
+        return Mono.deferContextual(context -> {
+            CompletableFuture<T> flight = new CompletableFuture<>();
+            CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, flight);
+            if (existing != null) return Mono.fromFuture(existing, true);
+
+            // subscribed on its own so the work still finishes for the others if this caller cancels,
+            // with the caller's context so provider calls keep their credentials. Deferred, so a supplier
+            // that throws fails the flight and frees the key like any other error
+            Mono.defer(work)
+                .contextWrite(context)
+                .doFinally(signal -> inFlight.remove(key, flight))
+                .subscribe(flight::complete, flight::completeExceptionally, () -> flight.complete(null));
+            return Mono.fromFuture(flight, true);
+        });
+    }
+
+    // ---- ACROSS NODES ----
+
+    // A fetched track list may only reach callers who can read the playlist. With a snapshot the caller
+    // just read it with its own token, so everyone holding that snapshot shares one fetch; without one
+    // nothing was checked and the fetch is only shared with the same user
+    public static String fetchScope(Long userId, String snapshotId) {
+        return snapshotId != null ? "snapshot:" + snapshotId : "user:" + userId;
+    }
+
+    public Mono<List<SongDto>> fetchAsync(String provider, String playlistId, String scope,
+                                          Supplier<Mono<List<SongDto>>> loader) {
+        return joinAsync(fetchKey(provider, playlistId, scope), () -> {
+            String owner = UUID.randomUUID().toString();
+            long deadline = System.nanoTime() + leaseTtl.toNanos();
+            return fetchUnderLeaseAsync(provider, playlistId, scope, loader, owner, deadline)
+                    .onErrorResume(DataAccessException.class, e -> {
+                        log.warn("Fetch lease unavailable for playlist {}, fetching without it", playlistId, e);
+                        return loader.get();
+                    });
+        });
+    }
+
+    private Mono<List<SongDto>> fetchUnderLeaseAsync(String provider, String playlistId, String scope,
+                                                     Supplier<Mono<List<SongDto>>> loader,
+                                                     String owner, long deadline) {
+        return playlistCacheService.getFetchedSongsAsync(provider, playlistId, scope)
+                                   .switchIfEmpty(Mono.defer(() -> playlistCacheService
+                                           .tryAcquireFetchLeaseAsync(provider, playlistId, scope, owner, leaseTtl)
+                                           .flatMap(acquired -> {
+                                               if (acquired) return fetchAndShareAsync(provider, playlistId, scope, loader, owner);
+                                               if (System.nanoTime() > deadline) return loader.get();
+                                               return Mono.delay(pollInterval)
+                                                          .then(Mono.defer(() -> fetchUnderLeaseAsync(
+                                                                  provider, playlistId, scope, loader, owner, deadline)));
+                                           })));
+    }
+
+    private Mono<List<SongDto>> fetchAndShareAsync(String provider, String playlistId, String scope,
+                                                   Supplier<Mono<List<SongDto>>> loader, String owner) {
+        return loader.get()
+                     .flatMap(songs -> playlistCacheService.shareFetchedSongsAsync(provider, playlistId, scope, songs)
+                                                           .onErrorResume(e -> {
+                                                               log.warn("Failed to share fetched songs for playlist {}", playlistId, e);
+                                                               return Mono.empty();
+                                                           })
+                                                           .thenReturn(songs))
+                     .doFinally(signal -> playlistCacheService.releaseFetchLeaseAsync(provider, playlistId, scope, owner)
+                                                              .subscribe(null, e -> log.warn("Failed to release fetch lease for playlist {}", playlistId, e)));
+    }
+
+    private static String fetchKey(String provider, String playlistId, String scope) {
+        return "fetch:" + provider + ":" + playlistId + ":" + scope;
+    }
+}
@@ -1,32 +1,90 @@
 package com.example.musicGenie.services.song;
 
 import java.util.List;
+import java.util.Optional;
 
+import com.example.musicGenie.config.webclient.RequestBoundContext;
 import com.example.musicGenie.dtos.song.SongDto;
+import com.example.musicGenie.services.playlist.CacheEntry;
 import com.example.musicGenie.services.playlist.PlaylistCacheService;
-import com.example.musicGenie.song.SongProvider;
+import com.example.musicGenie.services.playlist.StaleCacheRefresher;
+import com.example.musicGenie.song.ReactiveSongProvider;
 import com.example.musicGenie.song.SongProviderFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 @Service
 @RequiredArgsConstructor
 public class SongService {
     private final SongProviderFactory providerFactory;
     private final PlaylistCacheService playlistCacheService;
+    private final PlaylistFetchCoalescer fetchCoalescer;
+    private final StaleCacheRefresher staleCacheRefresher;
 
-    public List<SongDto> getPlaylistSongs(String providerName, String playlistId, Long userId) {
-        SongProvider provider = providerFactory.getProvider(providerName);
+    // non-blocking: cache read, provider fetch and cache write all stay off the request thread
+    public Mono<List<SongDto>> getPlaylistSongs(String providerName, String playlistId, Long userId) {
+        ReactiveSongProvider provider = providerFactory.getReactiveProvider(providerName);
+        OAuth2AccessToken accessToken = staleCacheRefresher.captureAccessToken();
+        String key = PlaylistCacheService.playlistSongsKey(userId, playlistId);
 
-        List<SongDto> cached = playlistCacheService.getCachedSongs(userId, playlistId);
-        if (cached != null) {
-            return cached;
+        // stale songs are returned right away and refreshed in the background, only a hard miss waits
+        return RequestBoundContext.pin(playlistCacheService.getCachedSongsEntryAsync(userId, playlistId)
+                                   .doOnNext(cached -> {
+                                       if (cached.stale()) staleCacheRefresher.refresh(key, accessToken,
+                                               () -> fetchAndCacheAsync(provider, providerName, playlistId, userId));
+                                   })
+                                   .map(CacheEntry::value)
+                                   .switchIfEmpty(Mono.defer(() -> fetchAndCacheAsync(provider, providerName, playlistId, userId))));
+    }
+
+    // queues background refreshes for cached entries a batched read found past their soft TTL, call on the request thread
+    public void refreshStaleSongs(String providerName, List<String> playlistIds, Long userId) {
+        if (playlistIds.isEmpty()) return;
+        ReactiveSongProvider provider = providerFactory.getReactiveProvider(providerName);
+        OAuth2AccessToken accessToken = staleCacheRefresher.captureAccessToken();
+        for (String playlistId : playlistIds) {
+            staleCacheRefresher.refresh(PlaylistCacheService.playlistSongsKey(userId, playlistId), accessToken,
+                    () -> fetchAndCacheAsync(provider, providerName, playlistId, userId));
         }
+    }
 
-        List<SongDto> songs = provider.fetchPlaylistSongs(playlistId);
+    // Skips the cache read, for callers that already know the playlist missed (e.g. after a batched lookup).
+    // Blocks the calling thread, the filter builds its song pool on the request thread or a song-pool worker
+    public List<SongDto> loadPlaylistSongs(String providerName, String playlistId, Long userId) {
+        ReactiveSongProvider provider = providerFactory.getReactiveProvider(providerName);
+        List<SongDto> songs = RequestBoundContext.pin(fetchAndCacheAsync(provider, providerName, playlistId, userId)).block();
+        return songs != null ? songs : List.of();
+    }
 
-        playlistCacheService.cacheSongs(userId, playlistId, songs);
+    // misses for the same user and playlist share one fetch and one cache write
+    private Mono<List<SongDto>> fetchAndCacheAsync(ReactiveSongProvider provider, String providerName,
+                                                   String playlistId, Long userId) {
+        return fetchCoalescer.joinAsync(
+                PlaylistCacheService.playlistSongsKey(userId, playlistId),
+                () -> provider.fetchPlaylistSnapshotAsync(playlistId)
+                              .map(Optional::of)
+                              .defaultIfEmpty(Optional.empty())
+                              .flatMap(snapshot -> loadSongsAsync(provider, providerName, playlistId, userId, snapshot.orElse(null))
+                                      .flatMap(songs -> playlistCacheService
+                                              .cacheSongsAsync(userId, playlistId, snapshot.orElse(null), songs)
+                                              .thenReturn(songs))));
+    }
 
-        return  songs;
+    // another user's copy of the same playlist version when there is one, otherwise one coalesced fetch
+    private Mono<List<SongDto>> loadSongsAsync(ReactiveSongProvider provider, String providerName,
+                                               String playlistId, Long userId, String snapshotId) {
+        Mono<List<SongDto>> fetched = fetchCoalescer.fetchAsync(providerName, playlistId,
+                PlaylistFetchCoalescer.fetchScope(userId, snapshotId),
+                () -> provider.fetchPlaylistSongsAsync(playlistId)
+                              .collectList()
+                              .flatMap(songs -> snapshotId == null ? Mono.just(songs)
+                                      : playlistCacheService.cacheSharedSongsAsync(playlistId, snapshotId, songs).thenReturn(songs)));
+        if (snapshotId == null) return fetched;
+        return playlistCacheService.getSharedSongsAsync(playlistId, snapshotId)
+                                   .flatMap(songs -> playlistCacheService.renewSharedSongsAsync(playlistId, snapshotId, songs)
+                                                                         .thenReturn(songs))
+                                   .switchIfEmpty(fetched);
     }
 }
@@ -0,0 +1,15 @@
+package com.example.musicGenie.song;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Songs are fetched without blocking, emitted page by page as they arrive.
+ */
+public interface ReactiveSongProvider {
+    Flux<SongDto> fetchPlaylistSongsAsync(String playlistId);
+
+    // empty when the provider has no playlist versions
+    Mono<String> fetchPlaylistSnapshotAsync(String playlistId);
+}
@@ -2,21 +2,32 @@ package com.example.musicGenie.song;
 
 import java.util.Map;
 
+import com.example.musicGenie.services.provider.ProviderRegistry;
 import org.springframework.stereotype.Component;
 
 @Component
 public class SongProviderFactory {
-    private final Map<String, SongProvider> providers;
+    private final Map<String, ReactiveSongProvider> reactiveProviders;
+    private final ProviderRegistry providerRegistry;
 
-    public SongProviderFactory(Map<String, SongProvider> providers) {
-        this.providers = providers;
+    public SongProviderFactory(Map<String, ReactiveSongProvider> reactiveProviders,
+                               ProviderRegistry providerRegistry) {
+        this.reactiveProviders = reactiveProviders;
+        this.providerRegistry = providerRegistry;
     }
 
-    public SongProvider getProvider(String providerName) {
-        SongProvider provider = providers.get(providerName + "SongProvider");
+    public ReactiveSongProvider getReactiveProvider(String providerName) {
+        ReactiveSongProvider provider = reactiveProviders.get(beanName(providerName));
         if (provider == null) {
             throw new IllegalArgumentException("No song provider found for: " + providerName);
         }
         return provider;
     }
+
+    // only providers in the registry are served, under their registered name
+    private String beanName(String providerName) {
+        return providerRegistry.find(providerName)
+                               .map(provider -> provider.getName() + "SongProvider")
+                               .orElseThrow(() -> new IllegalArgumentException("No song provider found for: " + providerName));
+    }
 }
@@ -1,48 +1,94 @@
 package com.example.musicGenie.song;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Map;
 
 import com.example.musicGenie.dtos.song.SongDto;
-import com.example.musicGenie.response.song.spotify.SpotifyPlaylistTracksResponse;
+import com.example.musicGenie.response.playlist.spotify.SpotifyPlaylistSnapshot;
+import com.example.musicGenie.response.song.spotify.SpotifyTracksPage;
+import com.example.musicGenie.response.song.spotify.SpotifyTracksPageReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Component("spotifySongProvider")
-public class SpotifySongProvider implements SongProvider{
+public class SpotifySongProvider implements ReactiveSongProvider {
+    private static final int PAGE_LIMIT = 100; // max page size allowed by /playlists/{id}/tracks
+
     private final WebClient webClient;
+    private final int pageConcurrency;
 
-    public SpotifySongProvider(Map<String, WebClient> providerWebClients) {
+    public SpotifySongProvider(Map<String, WebClient> providerWebClients,
+                               @Value("${spotify.songs.page-concurrency:4}") int pageConcurrency) {
         this.webClient = providerWebClients.get("spotify");
+        this.pageConcurrency = Math.max(1, pageConcurrency);
     }
 
 
     @Override
-    public List<SongDto> fetchPlaylistSongs(String playlistId) {
-        List<SongDto> allSongs = new ArrayList<>();
-        int limit = 100;
-        int offset = 0;
-        while(true){
-            final int currentOffset = offset; // make a final copy for lambda
-            SpotifyPlaylistTracksResponse response = webClient.get()
-                                                              .uri(uriBuilder -> uriBuilder
-                                                                      .path("/playlists/{playlistId}/tracks")
-                                                                      .queryParam("limit", limit)
-                                                                      .queryParam("offset", currentOffset)
-                                                                      .build(playlistId))
-                                                              .retrieve()
-                                                              .bodyToMono(SpotifyPlaylistTracksResponse.class)
-                                                              .block();
-
-            if (response == null || response.getItems().isEmpty()) break;
-            allSongs.addAll(response.toSongDtos());
-
-            if (response.getItems().size() < limit) break; // last page reached
-            offset += limit;
-        }
+    public Flux<SongDto> fetchPlaylistSongsAsync(String playlistId) {
+        return fetchPage(playlistId, 0).flatMapMany(firstPage -> {
+            Flux<SongDto> first = Flux.fromIterable(firstPage.songs());
+            if (firstPage.itemCount() < PAGE_LIMIT) return first; // single page playlist
+
+            // parallel mode needs the total to know the remaining offsets up front
+            if (pageConcurrency == 1 || firstPage.total() <= PAGE_LIMIT) {
+                return first.concatWith(fetchRemainingSerially(playlistId, PAGE_LIMIT));
+            }
+
+            int pageCount = (firstPage.total() + PAGE_LIMIT - 1) / PAGE_LIMIT;
+            return first.concatWith(Flux.range(1, pageCount - 1)
+                                        // flatMapSequential keeps pages in playlist order
+                                        .flatMapSequential(page -> fetchPage(playlistId, page * PAGE_LIMIT),
+                                                pageConcurrency)
+                                        .flatMapIterable(SpotifyTracksPage::songs));
+        });
+    }
+
+    // one small request, it also checks the caller may read the playlist before shared songs are served
+    @Override
+    public Mono<String> fetchPlaylistSnapshotAsync(String playlistId) {
+        return webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/playlists/{playlistId}")
+                                .queryParam("fields", "snapshot_id")
+                                .build(playlistId))
+                        .retrieve()
+                        .bodyToMono(SpotifyPlaylistSnapshot.class)
+                        .mapNotNull(SpotifyPlaylistSnapshot::getSnapshotId);
+    }
+
+    private Flux<SongDto> fetchRemainingSerially(String playlistId, int offset) {
+        return fetchPage(playlistId, offset).flatMapMany(page -> {
+            Flux<SongDto> songs = Flux.fromIterable(page.songs());
+            if (page.itemCount() < PAGE_LIMIT) return songs; // last page reached
+            return songs.concatWith(Flux.defer(() -> fetchRemainingSerially(playlistId, offset + PAGE_LIMIT)));
+        });
+    }
 
+    // the body is streamed into SongDtos, no SpotifyPlaylistTracksResponse tree is bound
+    private Mono<SpotifyTracksPage> fetchPage(String playlistId, int offset) {
+        return webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/playlists/{playlistId}/tracks")
+                                .queryParam("limit", PAGE_LIMIT)
+                                .queryParam("offset", offset)
+                                .build(playlistId))
+                        .retrieve()
+                        .bodyToMono(DataBuffer.class)
+                        .map(SpotifySongProvider::readPage);
+    }
 
-        return allSongs;
+    private static SpotifyTracksPage readPage(DataBuffer body) {
+        try (InputStream json = body.asInputStream(true)) {
+            return SpotifyTracksPageReader.read(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read Spotify tracks page", e);
+        }
     }
 }
@@ -0,0 +1,157 @@
+package com.example.musicGenie.auth;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import com.example.musicGenie.services.provider.ProviderService;
+import com.example.musicGenie.services.security.TokenEncryptionService;
+import com.example.musicGenie.services.session.SessionService;
+import com.example.musicGenie.services.user.UserService;
+import com.example.musicGenie.services.userProvider.UserProviderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SessionBasedAuthorizedClientRepository Tests")
+class SessionBasedAuthorizedClientRepositoryTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ProviderService providerService;
+
+    @Mock
+    private UserProviderService userProviderService;
+
+    @Mock
+    private TokenEncryptionService encryptionService;
+
+    @Mock
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    private final SessionService sessionService = new SessionService();
+    private final MockHttpSession session = new MockHttpSession();
+    private SessionBasedAuthorizedClientRepository repository;
+
+    private static final Long USER_ID = 1L;
+    private static final Long PROVIDER_ID = 2L;
+    private static final String SPOTIFY = "spotify";
+
+    @BeforeEach
+    void setUp() {
+        repository = new SessionBasedAuthorizedClientRepository(sessionService, userService, providerService,
+                userProviderService, encryptionService, clientRegistrationRepository,
+                new AuthorizedClientCache(Duration.ofMinutes(1), 100));
+
+        sessionService.createUserSession(session, USER_ID, "access-1", Instant.now().plusSeconds(3600));
+        lenient().when(providerService.getIdByName(SPOTIFY)).thenReturn(PROVIDER_ID);
+        lenient().when(userProviderService.getRefreshTokenDirect(USER_ID, PROVIDER_ID)).thenReturn("refresh-token");
+        lenient().when(userService.getEmailById(USER_ID)).thenReturn("user@example.com");
+        lenient().when(clientRegistrationRepository.findByRegistrationId(SPOTIFY)).thenReturn(registration());
+        lenient().when(encryptionService.encrypt(anyString())).thenReturn("encrypted");
+    }
+
+    @Test
+    @DisplayName("loadAuthorizedClient - Should build the client once for every call of a request")
+    void loadAuthorizedClient_ShouldBuildOncePerRequest() {
+        MockHttpServletRequest request = request();
+
+        OAuth2AuthorizedClient first = repository.loadAuthorizedClient(SPOTIFY, null, request);
+        for (int i = 0; i < 49; i++) repository.loadAuthorizedClient(SPOTIFY, null, request);
+
+        assertThat(first.getAccessToken().getTokenValue()).isEqualTo("access-1");
+        assertThat(first.getRefreshToken().getTokenValue()).isEqualTo("refresh-token");
+        verify(providerService, times(1)).getIdByName(SPOTIFY);
+        verify(userProviderService, times(1)).getRefreshTokenDirect(USER_ID, PROVIDER_ID);
+        verify(userService, times(1)).getEmailById(USER_ID);
+    }
+
+    @Test
+    @DisplayName("loadAuthorizedClient - Should reuse the client across requests until the session token changes")
+    void loadAuthorizedClient_ShouldReloadForNewAccessToken() {
+        repository.loadAuthorizedClient(SPOTIFY, null, request());
+        repository.loadAuthorizedClient(SPOTIFY, null, request());
+        verify(userProviderService, times(1)).getRefreshTokenDirect(USER_ID, PROVIDER_ID);
+
+        // refreshed on another node, which only shows in the shared session
+        sessionService.updateAccessToken(session, "access-2", Instant.now().plusSeconds(3600));
+        OAuth2AuthorizedClient reloaded = repository.loadAuthorizedClient(SPOTIFY, null, request());
+
+        assertThat(reloaded.getAccessToken().getTokenValue()).isEqualTo("access-2");
+        verify(userProviderService, times(2)).getRefreshTokenDirect(USER_ID, PROVIDER_ID);
+    }
+
+    @Test
+    @DisplayName("saveAuthorizedClient - Should drop the cached client so the next load reads the new tokens")
+    void saveAuthorizedClient_ShouldInvalidateCachedClient() {
+        MockHttpServletRequest request = request();
+        OAuth2AuthorizedClient cached = repository.loadAuthorizedClient(SPOTIFY, null, request);
+
+        repository.saveAuthorizedClient(cached, null, request, new MockHttpServletResponse());
+        repository.loadAuthorizedClient(SPOTIFY, null, request);
+
+        verify(userProviderService, times(2)).getRefreshTokenDirect(USER_ID, PROVIDER_ID);
+    }
+
+    @Test
+    @DisplayName("removeAuthorizedClient - Should drop the cached client")
+    void removeAuthorizedClient_ShouldInvalidateCachedClient() {
+        repository.loadAuthorizedClient(SPOTIFY, null, request());
+
+        repository.removeAuthorizedClient(SPOTIFY, null, request(), new MockHttpServletResponse());
+        MockHttpSession newSession = new MockHttpSession();
+        sessionService.createUserSession(newSession, USER_ID, "access-1", Instant.now().plusSeconds(3600));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(newSession);
+        repository.loadAuthorizedClient(SPOTIFY, null, request);
+
+        verify(userProviderService).deleteRefreshToken(USER_ID, PROVIDER_ID);
+        verify(userProviderService, times(2)).getRefreshTokenDirect(USER_ID, PROVIDER_ID);
+    }
+
+    @Test
+    @DisplayName("loadAuthorizedClient - Should not cache a missing client")
+    void loadAuthorizedClient_ShouldNotCacheMissingClient() {
+        when(userProviderService.getRefreshTokenDirect(USER_ID, PROVIDER_ID)).thenReturn(null);
+
+        assertThat((OAuth2AuthorizedClient) repository.loadAuthorizedClient(SPOTIFY, null, request())).isNull();
+        assertThat((OAuth2AuthorizedClient) repository.loadAuthorizedClient(SPOTIFY, null, request())).isNull();
+
+        verify(userProviderService, times(2)).getRefreshTokenDirect(USER_ID, PROVIDER_ID);
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        return request;
+    }
+
+    private static ClientRegistration registration() {
+        return ClientRegistration.withRegistrationId(SPOTIFY)
+                                 .clientId("client-id")
+                                 .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                                 .redirectUri("http://localhost/login/oauth2/code/spotify")
+                                 .authorizationUri("https://accounts.spotify.com/authorize")
+                                 .tokenUri("https://accounts.spotify.com/api/token")
+                                 .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.musicGenie.config.webclient;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("ConnectionPoolMonitor Tests")
+class ConnectionPoolMonitorTest {
+
+    private final ConnectionPoolMonitor monitor = new ConnectionPoolMonitor("test-provider");
+
+    @AfterEach
+    void tearDown() {
+        monitor.close();
+    }
+
+    @Test
+    @DisplayName("registerMetrics - Should sum the gauges of every registered pool")
+    void registerMetrics_ShouldSumPools() {
+        monitor.registerMetrics("test-provider", "a", new InetSocketAddress("localhost", 443), pool(3, 2, 1));
+        monitor.registerMetrics("test-provider", "b", new InetSocketAddress("localhost", 8443), pool(1, 1, 0));
+
+        assertThat(monitor.getActiveConnections()).isEqualTo(4);
+        assertThat(monitor.getIdleConnections()).isEqualTo(3);
+        assertThat(monitor.getPendingAcquires()).isEqualTo(1);
+        assertThat(monitor.getMaxConnections()).isEqualTo(100);
+
+        monitor.deRegisterMetrics("test-provider", "b", new InetSocketAddress("localhost", 8443));
+        assertThat(monitor.getActiveConnections()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("instrument - Should time every acquire and reset the max once read")
+    void instrument_ShouldTimeAcquires() {
+        ConnectionProvider pool = (config, observer, remoteAddress, resolverGroup) -> Mono.just(mock(Connection.class));
+        ConnectionProvider instrumented = monitor.instrument(pool);
+
+        instrumented.acquire(null, null, null, null).block();
+        instrumented.acquire(null, null, null, null).block();
+
+        assertThat(monitor.getAcquireCount()).isEqualTo(2);
+        assertThat(monitor.getAcquireTimeMaxMillis()).isPositive();
+        assertThat(monitor.getAcquireTimeMaxMillis()).isZero();
+    }
+
+    @Test
+    @DisplayName("register - Should export the monitor over JMX")
+    void register_ShouldExportOverJmx() throws Exception {
+        monitor.register();
+
+        ObjectName name = new ObjectName("com.example.musicGenie:type=ConnectionPool,name=\"test-provider\"");
+        assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "AcquireCount")).isEqualTo(0L);
+    }
+
+    private static ConnectionPoolMetrics pool(int acquired, int idle, int pending) {
+        return new ConnectionPoolMetrics() {
+            public int acquiredSize() { return acquired; }
+            public int allocatedSize() { return acquired + idle; }
+            public int idleSize() { return idle; }
+            public int pendingAcquireSize() { return pending; }
+            public int maxAllocatedSize() { return 50; }
+            public int maxPendingAcquireSize() { return 500; }
+        };
+    }
+}
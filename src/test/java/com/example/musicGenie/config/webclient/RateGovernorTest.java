@@ -0,0 +1,138 @@
+package com.example.musicGenie.config.webclient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateGovernor Tests")
+class RateGovernorTest {
+
+    private static final double APP_RATE = 1_000;
+
+    private RateGovernor governor;
+    private final Deque<Supplier<Mono<ClientResponse>>> answers = new ArrayDeque<>();
+    private final List<ClientRequest> sent = new ArrayList<>();
+
+    private final ExchangeFunction upstream = request -> {
+        sent.add(request);
+        return answers.isEmpty() ? Mono.just(response(HttpStatus.OK)) : answers.poll().get();
+    };
+
+    @BeforeEach
+    void setUp() {
+        governor = new RateGovernor(APP_RATE, APP_RATE, 0.25, 3, Duration.ofMillis(1), Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("filter - Should retry a 429 once its Retry-After has passed and slow the app down")
+    void filter_ShouldRetryThrottledCall() {
+        answers.add(() -> Mono.just(throttled("0")));
+
+        ClientResponse response = governor.filter(request(HttpMethod.GET), upstream).block();
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sent).hasSize(2);
+        assertThat(governor.appRate()).isLessThan(APP_RATE);
+    }
+
+    @Test
+    @DisplayName("filter - Should pass a 429 on when its Retry-After exceeds the maximum back-off")
+    void filter_ShouldNotWaitOutLongRetryAfter() {
+        answers.add(() -> Mono.just(throttled("60")));
+
+        ClientResponse response = governor.filter(request(HttpMethod.GET), upstream).block();
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(sent).hasSize(1);
+        assertThat(governor.pausedFor()).isLessThanOrEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("filter - Should hold other calls for at most the maximum back-off after a long Retry-After")
+    void filter_ShouldCapPauseForOtherCalls() {
+        answers.add(() -> Mono.just(throttled("60")));
+        governor.filter(request(HttpMethod.GET), upstream).block();
+
+        long started = System.nanoTime();
+        ClientResponse response = governor.filter(request(HttpMethod.GET), upstream).block(Duration.ofSeconds(10));
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("filter - Should give up after the configured number of retries")
+    void filter_ShouldStopAfterMaxRetries() {
+        for (int i = 0; i < 10; i++) answers.add(() -> Mono.just(throttled("0")));
+
+        ClientResponse response = governor.filter(request(HttpMethod.POST), upstream).block();
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(sent).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("filter - Should retry server errors and connection failures on reads only")
+    void filter_ShouldRetryServerErrorsOnReads() {
+        answers.add(() -> Mono.just(response(HttpStatus.SERVICE_UNAVAILABLE)));
+        answers.add(() -> Mono.error(new WebClientRequestException(new IOException("reset"),
+                HttpMethod.GET, URI.create("https://api.spotify.com/v1/me"), new HttpHeaders())));
+
+        assertThat(governor.filter(request(HttpMethod.GET), upstream).block().statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sent).hasSize(3);
+
+        sent.clear();
+        answers.add(() -> Mono.just(response(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        assertThat(governor.filter(request(HttpMethod.POST), upstream).block().statusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(sent).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("filter - Should treat calls on a detached token as background work")
+    void filter_ShouldRunDetachedCalls() {
+        ClientResponse response = governor.filter(request(HttpMethod.GET), upstream)
+                                          .contextWrite(DetachedAccessToken.with(new OAuth2AccessToken(
+                                                  OAuth2AccessToken.TokenType.BEARER, "token", Instant.now(), Instant.now().plusSeconds(60))))
+                                          .block();
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sent).hasSize(1);
+    }
+
+    private static ClientRequest request(HttpMethod method) {
+        return ClientRequest.create(method, URI.create("https://api.spotify.com/v1/me/playlists"))
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                            .build();
+    }
+
+    private static ClientResponse response(HttpStatus status) {
+        return ClientResponse.create(status).build();
+    }
+
+    private static ClientResponse throttled(String retryAfter) {
+        return ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, retryAfter).build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.musicGenie.config.webclient;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction.authentication;
+import static org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction.httpServletRequest;
+import static org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction.httpServletResponse;
+
+@DisplayName("RequestBoundContext Tests")
+class RequestBoundContextTest {
+
+    private final MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+    private final MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+    private final TestingAuthenticationToken user = new TestingAuthenticationToken("user", null);
+    private final AtomicReference<ClientRequest> sent = new AtomicReference<>();
+
+    private final ExchangeFunction upstream = request -> {
+        sent.set(request);
+        return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+    };
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest, servletResponse));
+        SecurityContextHolder.getContext().setAuthentication(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("filter - Should hand the request thread's request to a call sent from another thread")
+    void filter_ShouldCarryRequestAcrossThreads() {
+        // subscribed here, sent from a scheduler thread as after a Redis hop
+        RequestBoundContext.pin(Mono.just("key")
+                                    .publishOn(Schedulers.boundedElastic())
+                                    .flatMap(key -> RequestBoundContext.filter().filter(request(), upstream)))
+                           .block();
+
+        Map<String, Object> expected = new HashMap<>();
+        httpServletRequest(servletRequest).accept(expected);
+        httpServletResponse(servletResponse).accept(expected);
+        authentication(user).accept(expected);
+        assertThat(sent.get().attributes()).containsAllEntriesOf(expected);
+    }
+
+    @Test
+    @DisplayName("filter - Should leave calls outside a request untouched")
+    void filter_ShouldPassThroughWithoutRequest() {
+        RequestContextHolder.resetRequestAttributes();
+        ClientRequest request = request();
+
+        RequestBoundContext.pin(RequestBoundContext.filter().filter(request, upstream)).block();
+
+        assertThat(sent.get()).isSameAs(request);
+    }
+
+    private static ClientRequest request() {
+        return ClientRequest.create(HttpMethod.GET, URI.create("https://api.spotify.com/v1/me")).build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.musicGenie.config.webclient;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TokenBucket Tests")
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("acquire - Should queue interactive callers once the burst is spent")
+    void acquire_ShouldQueueInteractiveCallers() {
+        TokenBucket bucket = new TokenBucket(10, 0.25, 0);
+
+        for (int i = 0; i < 10; i++) assertThat(bucket.acquire(false, 0)).isZero();
+
+        assertThat(bucket.acquire(false, 0)).isEqualTo(SECOND / 10);
+        assertThat(bucket.acquire(false, 0)).isEqualTo(2 * SECOND / 10);
+    }
+
+    @Test
+    @DisplayName("acquire - Should keep the reserve for interactive callers")
+    void acquire_ShouldKeepReserveFromBackgroundCallers() {
+        TokenBucket bucket = new TokenBucket(10, 0.25, 0);
+
+        int background = 0;
+        while (bucket.acquire(true, 0) == 0) background++;
+
+        assertThat(background).isEqualTo(7);
+        assertThat(bucket.acquire(false, 0)).isZero();
+        assertThat(bucket.acquire(true, SECOND)).isZero();
+    }
+
+    @Test
+    @DisplayName("throttled - Should halve the rate and recover it with successful calls")
+    void throttled_ShouldHalveRateAndRecover() {
+        TokenBucket bucket = new TokenBucket(10, 0.25, 0);
+
+        bucket.throttled(0);
+        assertThat(bucket.rate()).isEqualTo(5);
+
+        for (int i = 0; i < 100; i++) bucket.succeeded();
+        assertThat(bucket.rate()).isEqualTo(10);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.musicGenie.controller.playlist;
 
+import java.time.Instant;
 import java.time.Year;
 import java.time.YearMonth;
 import java.util.Arrays;
@@ -7,7 +8,11 @@ import java.util.List;
 
 import com.example.musicGenie.dtos.playlist.CreatePlaylistRequest;
 import com.example.musicGenie.dtos.playlist.PlaylistDto;
+import com.example.musicGenie.dtos.playlist.PlaylistJobDto;
+import com.example.musicGenie.dtos.playlist.PlaylistJobStatus;
+import com.example.musicGenie.services.playlist.PlaylistJobService;
 import com.example.musicGenie.services.playlist.PlaylistService;
+import com.example.musicGenie.services.session.AccessTokenRefreshService;
 import com.example.musicGenie.services.session.SessionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,15 +22,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -42,9 +56,15 @@ public class PlaylistControllerTest {
     @MockitoBean
     private PlaylistService playlistService;
 
+    @MockitoBean
+    private PlaylistJobService playlistJobService;
+
     @MockitoBean
     private SessionService sessionService;
 
+    @MockitoBean
+    private AccessTokenRefreshService accessTokenRefreshService;
+
     String provider = "spotify";
     String accessToken = "valid-token";
     Long userId = 1L;
@@ -81,12 +101,15 @@ public class PlaylistControllerTest {
 
         // Mock playlist service
         when(playlistService.getUserPlaylists(provider, accessToken, userId, false))
-                .thenReturn(expectedPlaylists);
+                .thenReturn(Mono.just(expectedPlaylists));
 
         // When & Then
-        mockMvc.perform(get("/api/playlists/{provider}", provider)
+        MvcResult result = mockMvc.perform(get("/api/playlists/{provider}", provider)
                        .session(session)
                        .contentType(MediaType.APPLICATION_JSON))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                .andExpect(status().isOk())
                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                .andExpect(jsonPath("$").isArray())
@@ -121,13 +144,16 @@ public class PlaylistControllerTest {
 
         // Mock playlist service with forceRefresh = true
         when(playlistService.getUserPlaylists(provider, accessToken, userId, true))
-                .thenReturn(expectedPlaylists);
+                .thenReturn(Mono.just(expectedPlaylists));
 
         // When & Then
-        mockMvc.perform(get("/api/playlists/{provider}", provider)
+        MvcResult result = mockMvc.perform(get("/api/playlists/{provider}", provider)
                        .param("forceRefresh", "true")
                        .session(session)
                        .contentType(MediaType.APPLICATION_JSON))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                .andExpect(status().isOk())
                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                .andExpect(jsonPath("$").isArray())
@@ -142,9 +168,12 @@ public class PlaylistControllerTest {
         when(sessionService.getUserId(session)).thenReturn(userId);
 
         // When & Then
-        mockMvc.perform(get("/api/playlists/{provider}", provider)
+        MvcResult result = mockMvc.perform(get("/api/playlists/{provider}", provider)
                        .session(session)
                        .contentType(MediaType.APPLICATION_JSON))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                .andExpect(status().isUnauthorized())
                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                .andExpect(jsonPath("$").isArray())
@@ -172,13 +201,16 @@ public class PlaylistControllerTest {
 
         // Mock playlist service
         when(playlistService.createPlaylistFromFilter(provider, accessToken, userId, request))
-                .thenReturn(createdPlaylist);
+                .thenReturn(Mono.just(createdPlaylist));
 
         // When & Then
-        mockMvc.perform(post("/api/playlists/{provider}", provider)
+        MvcResult result = mockMvc.perform(post("/api/playlists/{provider}", provider)
                        .session(session)
                        .contentType(MediaType.APPLICATION_JSON)
                        .content(objectMapper.writeValueAsString(request)))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                .andExpect(status().isOk())
                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                .andExpect(jsonPath("$.id").value("new-playlist-123"))
@@ -200,10 +232,13 @@ public class PlaylistControllerTest {
         when(sessionService.getUserId(session)).thenReturn(userId);
 
         // When & Then
-        mockMvc.perform(post("/api/playlists/{provider}", provider)
+        MvcResult result = mockMvc.perform(post("/api/playlists/{provider}", provider)
                        .session(session)
                        .contentType(MediaType.APPLICATION_JSON)
                        .content(objectMapper.writeValueAsString(request)))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                .andExpect(status().isUnauthorized());
     }
 
@@ -219,10 +254,13 @@ public class PlaylistControllerTest {
         when(sessionService.getUserId(session)).thenReturn(null);
 
         // When & Then
-        mockMvc.perform(post("/api/playlists/{provider}", provider)
+        MvcResult result = mockMvc.perform(post("/api/playlists/{provider}", provider)
                        .session(session)
                        .contentType(MediaType.APPLICATION_JSON)
                        .content(objectMapper.writeValueAsString(request)))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                .andExpect(status().isUnauthorized());
     }
 
@@ -238,10 +276,124 @@ public class PlaylistControllerTest {
         when(sessionService.getUserId(session)).thenReturn(null);
 
         // When & Then
-        mockMvc.perform(post("/api/playlists/{provider}", provider)
+        MvcResult result = mockMvc.perform(post("/api/playlists/{provider}", provider)
+                       .session(session)
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content(objectMapper.writeValueAsString(request)))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void createPlaylistJob_WithValidSession_ReturnsAcceptedWithJobLocation() throws Exception {
+        CreatePlaylistRequest request = CreatePlaylistRequest.builder()
+                                                             .filterId("filter123")
+                                                             .name("New Playlist")
+                                                             .build();
+        OAuth2AccessToken token = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, accessToken, null, null);
+        PlaylistJobDto job = PlaylistJobDto.builder()
+                                           .id("job-1")
+                                           .status(PlaylistJobStatus.QUEUED)
+                                           .totalSongs(250)
+                                           .build();
+
+        when(sessionService.getUserId(session)).thenReturn(userId);
+        when(accessTokenRefreshService.getValidAccessToken(session, provider, userId)).thenReturn(token);
+        when(playlistJobService.submit(provider, token, userId, request)).thenReturn(Mono.just(job));
+
+        MvcResult result = mockMvc.perform(post("/api/playlists/{provider}/jobs", provider)
+                       .session(session)
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content(objectMapper.writeValueAsString(request)))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isAccepted())
+               .andExpect(header().string("Location", "/api/playlists/jobs/job-1"))
+               .andExpect(jsonPath("$.status").value("QUEUED"))
+               .andExpect(jsonPath("$.totalSongs").value(250));
+    }
+
+    @Test
+    void createPlaylistJob_WithExpiredToken_QueuesJobWithRefreshedToken() throws Exception {
+        CreatePlaylistRequest request = CreatePlaylistRequest.builder()
+                                                             .filterId("filter123")
+                                                             .name("New Playlist")
+                                                             .build();
+        OAuth2AccessToken refreshed = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "refreshed-token",
+                Instant.now(), Instant.now().plusSeconds(3600));
+        PlaylistJobDto job = PlaylistJobDto.builder().id("job-1").status(PlaylistJobStatus.QUEUED).build();
+
+        when(sessionService.getUserId(session)).thenReturn(userId);
+        when(accessTokenRefreshService.getValidAccessToken(session, provider, userId)).thenReturn(refreshed);
+        when(playlistJobService.submit(provider, refreshed, userId, request)).thenReturn(Mono.just(job));
+
+        MvcResult result = mockMvc.perform(post("/api/playlists/{provider}/jobs", provider)
+                       .session(session)
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content(objectMapper.writeValueAsString(request)))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void createPlaylistJob_WhenExpiredTokenCannotBeRefreshed_ReturnsUnauthorized() throws Exception {
+        CreatePlaylistRequest request = CreatePlaylistRequest.builder()
+                                                             .filterId("filter123")
+                                                             .name("New Playlist")
+                                                             .build();
+        when(sessionService.getUserId(session)).thenReturn(userId);
+        when(accessTokenRefreshService.getValidAccessToken(session, provider, userId)).thenReturn(null);
+
+        MvcResult result = mockMvc.perform(post("/api/playlists/{provider}/jobs", provider)
                        .session(session)
                        .contentType(MediaType.APPLICATION_JSON)
                        .content(objectMapper.writeValueAsString(request)))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(playlistJobService);
+    }
+
+    @Test
+    void getPlaylistJob_WhenUnknown_ReturnsNotFound() throws Exception {
+        when(sessionService.getUserId(session)).thenReturn(userId);
+        when(playlistJobService.getJob(userId, "missing")).thenReturn(Mono.empty());
+
+        MvcResult result = mockMvc.perform(get("/api/playlists/jobs/{jobId}", "missing")
+                       .session(session))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void streamUserPlaylists_WithValidSession_WritesOnePlaylistPerLine() throws Exception {
+        PlaylistDto first = PlaylistDto.builder().id("playlist1").name("My Favorites").build();
+        PlaylistDto second = PlaylistDto.builder().id("playlist2").name("Workout Mix").build();
+
+        when(sessionService.getAccessToken(session)).thenReturn(accessToken);
+        when(sessionService.getUserId(session)).thenReturn(userId);
+        when(playlistService.streamUserPlaylists(provider, accessToken, userId, false))
+                .thenReturn(Flux.just(first, second));
+
+        MvcResult result = mockMvc.perform(get("/api/playlists/{provider}/stream", provider)
+                       .session(session)
+                       .accept(MediaType.APPLICATION_NDJSON))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isOk())
+               .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+
+        String[] lines = result.getResponse().getContentAsString().trim().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[1], PlaylistDto.class).id()).isEqualTo("playlist2");
     }
-}
\ No newline at end of file
+}
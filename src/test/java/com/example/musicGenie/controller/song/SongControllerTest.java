@@ -22,11 +22,15 @@ import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -91,13 +95,16 @@ public class SongControllerTest {
 
         // Mock song service
         when(songService.getPlaylistSongs(provider, playlistId, userId))
-                .thenReturn(expectedSongs);
+                .thenReturn(Mono.just(expectedSongs));
 
 // When & Then
-        mockMvc.perform(get("/api/songs/{provider}", provider)
+        MvcResult result = mockMvc.perform(get("/api/songs/{provider}", provider)
                        .param("playlistId", playlistId)
                        .session(session)
                        .contentType(MediaType.APPLICATION_JSON))
+                       .andExpect(request().asyncStarted())
+                       .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                .andExpect(status().isOk())
                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                .andExpect(jsonPath("$").isArray())
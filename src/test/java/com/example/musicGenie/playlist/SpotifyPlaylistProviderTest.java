@@ -0,0 +1,208 @@
+package com.example.musicGenie.playlist;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.example.musicGenie.dtos.playlist.PlaylistDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SpotifyPlaylistProvider Tests")
+class SpotifyPlaylistProviderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+
+    private final List<String> songIds = IntStream.range(0, 250).mapToObj(i -> "id" + i).toList();
+
+    private static final int EXISTING_TRACKS = 7;
+
+    @Test
+    @DisplayName("addSongsToPlaylistAsync - Should send 100-track chunks in order after the existing tracks")
+    void addSongsToPlaylist_ShouldChunkInOrder() {
+        SpotifyPlaylistProvider provider = provider(request -> answer(HttpStatus.CREATED), 1);
+
+        provider.addSongsToPlaylistAsync("token", "pl1", songIds).block();
+
+        assertThat(requests).hasSize(3);
+        assertThat(requests).extracting(body -> body.get("position").asInt()).containsExactly(7, 107, 207);
+        assertThat(requests).extracting(body -> body.get("uris").size()).containsExactly(100, 100, 50);
+        assertThat(requests.get(2).get("uris").get(49).asText()).isEqualTo("spotify:track:id249");
+    }
+
+    @Test
+    @DisplayName("addSongsToPlaylistInChunksAsync - Should report how many songs each request added")
+    void addSongsToPlaylistInChunks_ShouldReportProgress() {
+        SpotifyPlaylistProvider provider = provider(request -> answer(HttpStatus.CREATED), 1);
+
+        List<Integer> added = provider.addSongsToPlaylistInChunksAsync("token", "pl1", songIds).collectList().block();
+
+        assertThat(added).containsExactly(100, 100, 50);
+    }
+
+    @Test
+    @DisplayName("addSongsToPlaylistAsync - Should retry only the chunk that could not connect")
+    void addSongsToPlaylist_ShouldRetryUnsentChunk() {
+        AtomicInteger calls = new AtomicInteger();
+        SpotifyPlaylistProvider provider = provider(request -> calls.incrementAndGet() == 2
+                ? Mono.error(requestFailure(request, new ConnectException("Connection refused")))
+                : answer(HttpStatus.CREATED), 1);
+
+        provider.addSongsToPlaylistAsync("token", "pl1", songIds).block();
+
+        assertThat(requests).extracting(body -> body.get("position").asInt()).containsExactly(7, 107, 107, 207);
+    }
+
+    @Test
+    @DisplayName("addSongsToPlaylistAsync - Should not resend a chunk Spotify may already have inserted")
+    void addSongsToPlaylist_ShouldNotRetryAfterSending() {
+        SpotifyPlaylistProvider failing = provider(request -> answer(HttpStatus.SERVICE_UNAVAILABLE), 1);
+
+        assertThatThrownBy(() -> failing.addSongsToPlaylistAsync("token", "pl1", songIds).block())
+                .isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+        assertThat(requests).hasSize(1);
+
+        requests.clear();
+        SpotifyPlaylistProvider timingOut = provider(request ->
+                Mono.error(requestFailure(request, new IOException("Response timed out"))), 1);
+
+        assertThatThrownBy(() -> timingOut.addSongsToPlaylistAsync("token", "pl1", songIds).block())
+                .isInstanceOf(WebClientRequestException.class);
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("addSongsToPlaylistAsync - Should fail without retrying on a client error")
+    void addSongsToPlaylist_ShouldNotRetryClientError() {
+        SpotifyPlaylistProvider provider = provider(request -> answer(HttpStatus.BAD_REQUEST), 1);
+
+        assertThatThrownBy(() -> provider.addSongsToPlaylistAsync("token", "pl1", songIds).block())
+                .isInstanceOf(WebClientResponseException.BadRequest.class);
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("addSongsToPlaylistAsync - Should append every chunk without positions in unordered mode")
+    void addSongsToPlaylist_ShouldAppend_WhenConcurrent() {
+        SpotifyPlaylistProvider provider = provider(request -> answer(HttpStatus.CREATED), 4);
+
+        provider.addSongsToPlaylistAsync("token", "pl1", songIds).block();
+
+        assertThat(requests).hasSize(3);
+        assertThat(requests).allSatisfy(body -> assertThat(body.has("position")).isFalse());
+    }
+
+    @Test
+    @DisplayName("fetchUserPlaylistPagesAsync - Should request every remaining page after the first, in listing order")
+    void fetchUserPlaylistPages_ShouldFetchAllPagesInOrder() {
+        List<String> urls = new CopyOnWriteArrayList<>();
+        WebClient webClient = WebClient.builder()
+                                       .exchangeFunction(request -> {
+                                           urls.add(request.url().toString());
+                                           int offset = Integer.parseInt(request.url().getQuery().replaceAll(".*offset=(\\d+).*", "$1"));
+                                           return Mono.just(playlistsPage(offset, 120));
+                                       })
+                                       .build();
+        SpotifyPlaylistProvider provider = new SpotifyPlaylistProvider(Map.of("spotify", webClient), 4, 1);
+
+        List<List<PlaylistDto>> pages = provider.fetchUserPlaylistPagesAsync("token").collectList().block();
+
+        assertThat(pages).extracting(List::size).containsExactly(50, 50, 20);
+        assertThat(pages.get(2).get(19).id()).isEqualTo("pl119");
+        assertThat(urls).hasSize(3).allSatisfy(url -> assertThat(url).contains("limit=50"));
+    }
+
+    @Test
+    @DisplayName("fetchUserPlaylistPagesAsync - Should stop after the first page when there is no next page")
+    void fetchUserPlaylistPages_ShouldStop_WhenSinglePage() {
+        AtomicInteger calls = new AtomicInteger();
+        WebClient webClient = WebClient.builder()
+                                       .exchangeFunction(request -> {
+                                           calls.incrementAndGet();
+                                           return Mono.just(playlistsPage(0, 3));
+                                       })
+                                       .build();
+        SpotifyPlaylistProvider provider = new SpotifyPlaylistProvider(Map.of("spotify", webClient), 4, 1);
+
+        List<PlaylistDto> playlists = provider.fetchUserPlaylistsAsync("token").collectList().block();
+
+        assertThat(playlists).hasSize(3);
+        assertThat(calls).hasValue(1);
+    }
+
+    // a /me/playlists page of a library holding total playlists named pl0..pl{total-1}
+    private static ClientResponse playlistsPage(int offset, int total) {
+        int end = Math.min(offset + 50, total);
+        String items = IntStream.range(offset, end)
+                                .mapToObj(i -> "{\"id\":\"pl" + i + "\",\"name\":\"Playlist " + i + "\"}")
+                                .collect(Collectors.joining(","));
+        String next = end < total ? "\"https://api.spotify.com/v1/me/playlists?offset=" + end + "\"" : "null";
+        return ClientResponse.create(HttpStatus.OK)
+                             .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                             .body("{\"items\":[" + items + "],\"total\":" + total + ",\"next\":" + next + "}")
+                             .build();
+    }
+
+    // the playlist already holds EXISTING_TRACKS, only the bodies of the inserts are recorded
+    private SpotifyPlaylistProvider provider(Function<ClientRequest, Mono<ClientResponse>> answer,
+                                             int addConcurrency) {
+        WebClient webClient = WebClient.builder()
+                                       .exchangeFunction(request -> request.method() == HttpMethod.GET
+                                               ? Mono.just(ClientResponse.create(HttpStatus.OK)
+                                                                         .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                                                         .body("{\"tracks\":{\"total\":" + EXISTING_TRACKS + "}}")
+                                                                         .build())
+                                               : record(request).then(Mono.defer(() -> answer.apply(request))))
+                                       .build();
+        return new SpotifyPlaylistProvider(Map.of("spotify", webClient), 4, addConcurrency);
+    }
+
+    private static Mono<ClientResponse> answer(HttpStatus status) {
+        return Mono.just(ClientResponse.create(status).build());
+    }
+
+    private static WebClientRequestException requestFailure(ClientRequest request, Exception cause) {
+        return new WebClientRequestException(cause, request.method(), request.url(), new HttpHeaders());
+    }
+
+    private Mono<Void> record(ClientRequest request) {
+        MockClientHttpRequest written = new MockClientHttpRequest(request.method(), request.url());
+        return request.writeTo(written, ExchangeStrategies.withDefaults())
+                      .then(Mono.defer(written::getBodyAsString))
+                      .doOnNext(json -> requests.add(readTree(json)))
+                      .then();
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.musicGenie.response.song.spotify;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.List;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SpotifyTracksPageReader Tests")
+class SpotifyTracksPageReaderTest {
+
+    private static final String PAGE = """
+            {
+              "href": "https://api.spotify.com/v1/playlists/abc/tracks",
+              "items": [
+                {
+                  "added_at": "2023-05-05T12:00:00Z",
+                  "is_local": false,
+                  "track": {
+                    "album": {"name": "Album A", "release_date": "2021-03-14", "images": [{"url": "x"}]},
+                    "artists": [{"id": "a1", "name": "Artist 1"}, {"id": "a2", "name": "Artist 2"}],
+                    "available_markets": ["EG", "US"],
+                    "explicit": true,
+                    "id": "track1",
+                    "name": "Song One",
+                    "popularity": 73,
+                    "duration_ms": 201000
+                  }
+                },
+                {"added_at": null, "track": null},
+                {
+                  "added_at": "garbage",
+                  "track": {"id": "track2", "name": "Song Two", "album": {"name": null, "release_date": "19xx"}}
+                }
+              ],
+              "limit": 100,
+              "next": null,
+              "offset": 0,
+              "total": 3
+            }
+            """;
+
+    @Test
+    @DisplayName("read - Should map tracks straight to songs and count removed tracks as items")
+    void read_ShouldMapTracks() throws Exception {
+        SpotifyTracksPage page = SpotifyTracksPageReader.read(PAGE.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(page.total()).isEqualTo(3);
+        assertThat(page.itemCount()).isEqualTo(3);
+        assertThat(page.songs()).hasSize(2);
+
+        SongDto first = page.songs().get(0);
+        assertThat(first.getId()).isEqualTo("track1");
+        assertThat(first.getTitle()).isEqualTo("Song One");
+        assertThat(first.getArtists()).containsExactly("Artist 1", "Artist 2");
+        assertThat(first.getAlbum()).isEqualTo("Album A");
+        assertThat(first.getPopularity()).isEqualTo(73);
+        assertThat(first.isExplicit()).isTrue();
+        assertThat(first.getReleaseYear()).isEqualTo(Year.of(2021));
+        assertThat(first.getAddedAt()).isEqualTo(YearMonth.of(2023, 5));
+
+        SongDto second = page.songs().get(1);
+        assertThat(second.getArtists()).isEmpty();
+        assertThat(second.getAlbum()).isNull();
+        assertThat(second.getReleaseYear()).isNull();
+        assertThat(second.getAddedAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("read - Should produce the same songs as binding the response tree")
+    void read_ShouldMatchTreeMapping() throws Exception {
+        List<SongDto> expected = new ObjectMapper().readValue(PAGE, SpotifyPlaylistTracksResponse.class).toSongDtos();
+
+        List<SongDto> songs = SpotifyTracksPageReader.read(PAGE.getBytes(StandardCharsets.UTF_8)).songs();
+
+        assertThat(songs).usingRecursiveFieldByFieldElementComparator().isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("read - Should reject bodies that are not a page object")
+    void read_ShouldRejectNonObjects() {
+        assertThatThrownBy(() -> SpotifyTracksPageReader.read("[]".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IOException.class);
+    }
+}
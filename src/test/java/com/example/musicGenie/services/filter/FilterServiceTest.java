@@ -3,23 +3,33 @@ package com.example.musicGenie.services.filter;
 import com.example.musicGenie.dtos.filter.PlaylistFilterRequest;
 import com.example.musicGenie.dtos.filter.PlaylistFilterResponse;
 import com.example.musicGenie.dtos.song.SongDto;
+import com.example.musicGenie.services.playlist.CachedSongsLookup;
 import com.example.musicGenie.services.playlist.PlaylistCacheService;
+import com.example.musicGenie.services.playlist.PlaylistSongsChangedEvent;
 import com.example.musicGenie.services.song.SongService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.Year;
 import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -33,7 +43,8 @@ class FilterServiceTest {
     @Mock
     private PlaylistCacheService playlistCacheService;
 
-    @InjectMocks
+    private SongIndexCache songIndexCache;
+
     private FilterService filterService;
 
     private static final Long TEST_USER_ID = 1L;
@@ -48,6 +59,9 @@ class FilterServiceTest {
 
     @BeforeEach
     void setUp() {
+        songIndexCache = new SongIndexCache(10_000, Duration.ofMinutes(10));
+        filterService = new FilterService(songService, playlistCacheService, songIndexCache, Runnable::run, 4);
+
         song1 = SongDto.builder()
                        .id("1")
                        .album("Album A")
@@ -80,6 +94,9 @@ class FilterServiceTest {
 
         cachedId = UUID.randomUUID();
         lenient().when(playlistCacheService.cacheFilteredSongs(anyLong(), anyList())).thenReturn(cachedId);
+        // nothing cached by default, every playlist goes to the provider
+        lenient().when(playlistCacheService.getCachedSongs(anyLong(), anyCollection()))
+                 .thenAnswer(inv -> new CachedSongsLookup(Map.of(), List.copyOf(inv.<Collection<String>>getArgument(1))));
     }
 
     @Test
@@ -90,7 +107,7 @@ class FilterServiceTest {
                                                              .provider(PROVIDER)
                                                              .build();
 
-        when(songService.getPlaylistSongs(PROVIDER, TEST_PLAYLIST_ID, TEST_USER_ID))
+        when(songService.loadPlaylistSongs(PROVIDER, TEST_PLAYLIST_ID, TEST_USER_ID))
                 .thenReturn(List.of(song1, song2, song3));
 
         PlaylistFilterResponse response = filterService.filterSongs(TEST_USER_ID, request);
@@ -109,7 +126,7 @@ class FilterServiceTest {
                                                              .artists(List.of("Artist1"))
                                                              .build();
 
-        when(songService.getPlaylistSongs(PROVIDER, TEST_PLAYLIST_ID, TEST_USER_ID))
+        when(songService.loadPlaylistSongs(PROVIDER, TEST_PLAYLIST_ID, TEST_USER_ID))
                 .thenReturn(List.of(song1, song2, song3));
 
         PlaylistFilterResponse response = filterService.filterSongs(TEST_USER_ID, request);
@@ -126,7 +143,7 @@ class FilterServiceTest {
                                                              .albums(List.of("Album B"))
                                                              .build();
 
-        when(songService.getPlaylistSongs(anyString(), anyString(), anyLong()))
+        when(songService.loadPlaylistSongs(anyString(), anyString(), anyLong()))
                 .thenReturn(List.of(song1, song2));
 
         PlaylistFilterResponse response = filterService.filterSongs(TEST_USER_ID, request);
@@ -143,7 +160,7 @@ class FilterServiceTest {
                                                              .popularity(50)
                                                              .build();
 
-        when(songService.getPlaylistSongs(anyString(), anyString(), anyLong()))
+        when(songService.loadPlaylistSongs(anyString(), anyString(), anyLong()))
                 .thenReturn(List.of(song1, song2, song3));
 
         PlaylistFilterResponse response = filterService.filterSongs(TEST_USER_ID, request);
@@ -160,7 +177,7 @@ class FilterServiceTest {
                                                              .explicit(false)
                                                              .build();
 
-        when(songService.getPlaylistSongs(anyString(), anyString(), anyLong()))
+        when(songService.loadPlaylistSongs(anyString(), anyString(), anyLong()))
                 .thenReturn(List.of(song1, song2, song3));
 
         PlaylistFilterResponse response = filterService.filterSongs(TEST_USER_ID, request);
@@ -177,7 +194,7 @@ class FilterServiceTest {
                                                              .releaseYear(Year.of(2020))
                                                              .build();
 
-        when(songService.getPlaylistSongs(anyString(), anyString(), anyLong()))
+        when(songService.loadPlaylistSongs(anyString(), anyString(), anyLong()))
                 .thenReturn(List.of(song1, song2, song3));
 
         PlaylistFilterResponse response = filterService.filterSongs(TEST_USER_ID, request);
@@ -194,7 +211,7 @@ class FilterServiceTest {
                                                              .addedAt(YearMonth.from(LocalDate.of(2021, 1, 1)))
                                                              .build();
 
-        when(songService.getPlaylistSongs(anyString(), anyString(), anyLong()))
+        when(songService.loadPlaylistSongs(anyString(), anyString(), anyLong()))
                 .thenReturn(List.of(song1, song2, song3));
 
         PlaylistFilterResponse response = filterService.filterSongs(TEST_USER_ID, request);
@@ -205,11 +222,131 @@ class FilterServiceTest {
     @Test
     @DisplayName("buildSongPool - Should collect songs from multiple playlists without duplicates")
     void buildSongPool_ShouldReturnUniqueSongs() {
-        when(songService.getPlaylistSongs(PROVIDER, "p1", TEST_USER_ID)).thenReturn(List.of(song1, song2));
-        when(songService.getPlaylistSongs(PROVIDER, "p2", TEST_USER_ID)).thenReturn(List.of(song2, song3));
+        when(songService.loadPlaylistSongs(PROVIDER, "p1", TEST_USER_ID)).thenReturn(List.of(song1, song2));
+        when(songService.loadPlaylistSongs(PROVIDER, "p2", TEST_USER_ID)).thenReturn(List.of(song2, song3));
+
+        List<SongDto> result = filterService.buildSongPool(PROVIDER, TEST_USER_ID, List.of("p1", "p2"));
+
+        assertThat(result).containsExactlyInAnyOrder(song1, song2, song3);
+    }
+
+    @Test
+    @DisplayName("buildSongPool - Should merge playlists resolved on worker threads")
+    void buildSongPool_ShouldMergePlaylistsResolvedConcurrently() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            filterService = new FilterService(songService, playlistCacheService, songIndexCache, executor, 2);
+            when(songService.loadPlaylistSongs(PROVIDER, "p1", TEST_USER_ID)).thenReturn(List.of(song1, song2));
+            when(songService.loadPlaylistSongs(PROVIDER, "p2", TEST_USER_ID)).thenReturn(List.of(song2));
+            when(songService.loadPlaylistSongs(PROVIDER, "p3", TEST_USER_ID)).thenReturn(List.of(song3, song1));
+
+            List<SongDto> result = filterService.buildSongPool(PROVIDER, TEST_USER_ID, List.of("p1", "p2", "p3"));
+
+            assertThat(result).containsExactlyInAnyOrder(song1, song2, song3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("buildSongPool - Should cap playlist loads per user across concurrent requests")
+    void buildSongPool_ShouldShareCapAcrossRequestsOfOneUser() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        ExecutorService requests = Executors.newFixedThreadPool(2);
+        try {
+            filterService = new FilterService(songService, playlistCacheService, songIndexCache, executor, 2);
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            when(songService.loadPlaylistSongs(eq(PROVIDER), anyString(), eq(TEST_USER_ID))).thenAnswer(inv -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                inFlight.decrementAndGet();
+                return List.of(song1);
+            });
+
+            Future<List<SongDto>> first = requests.submit(
+                    () -> filterService.buildSongPool(PROVIDER, TEST_USER_ID, List.of("p1", "p2", "p3", "p4")));
+            Future<List<SongDto>> second = requests.submit(
+                    () -> filterService.buildSongPool(PROVIDER, TEST_USER_ID, List.of("p5", "p6", "p7", "p8")));
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).containsExactly(song1);
+            assertThat(second.get(5, TimeUnit.SECONDS)).containsExactly(song1);
+            assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+        } finally {
+            requests.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("buildSongPool - Should stop loading playlists once one of them fails")
+    void buildSongPool_ShouldStopSubmitting_AfterFailure() {
+        filterService = new FilterService(songService, playlistCacheService, songIndexCache, Runnable::run, 2);
+        when(songService.loadPlaylistSongs(PROVIDER, "p1", TEST_USER_ID)).thenThrow(new IllegalStateException("provider down"));
+
+        assertThatThrownBy(() -> filterService.buildSongPool(PROVIDER, TEST_USER_ID, List.of("p1", "p2", "p3")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("provider down");
+        verify(songService, times(1)).loadPlaylistSongs(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("buildSongPool - Should only load playlists missing from the cache")
+    void buildSongPool_ShouldOnlyLoadCacheMisses() {
+        when(playlistCacheService.getCachedSongs(TEST_USER_ID, List.of("p1", "p2")))
+                .thenReturn(new CachedSongsLookup(Map.of("p1", List.of(song1, song2)), List.of("p2")));
+        when(songService.loadPlaylistSongs(PROVIDER, "p2", TEST_USER_ID)).thenReturn(List.of(song2, song3));
 
         List<SongDto> result = filterService.buildSongPool(PROVIDER, TEST_USER_ID, List.of("p1", "p2"));
 
         assertThat(result).containsExactlyInAnyOrder(song1, song2, song3);
+        verify(songService, never()).loadPlaylistSongs(PROVIDER, "p1", TEST_USER_ID);
+    }
+
+    @Test
+    @DisplayName("buildSongPool - Should use stale cached songs and queue their refresh")
+    void buildSongPool_ShouldRefreshStaleHits() {
+        when(playlistCacheService.getCachedSongs(TEST_USER_ID, List.of("p1", "p2")))
+                .thenReturn(new CachedSongsLookup(Map.of("p1", List.of(song1), "p2", List.of(song2)), List.of(), List.of("p2")));
+
+        List<SongDto> result = filterService.buildSongPool(PROVIDER, TEST_USER_ID, List.of("p1", "p2"));
+
+        assertThat(result).containsExactlyInAnyOrder(song1, song2);
+        verify(songService).refreshStaleSongs(PROVIDER, List.of("p2"), TEST_USER_ID);
+        verify(songService, never()).loadPlaylistSongs(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("filterSongs - Should reuse the song index for repeat filters over the same playlists")
+    void filterSongs_ShouldReuseIndex_ForSamePlaylists() {
+        when(songService.loadPlaylistSongs(PROVIDER, TEST_PLAYLIST_ID, TEST_USER_ID))
+                .thenReturn(List.of(song1, song2, song3));
+        PlaylistFilterRequest byYear = PlaylistFilterRequest.builder().playlistIds(List.of(TEST_PLAYLIST_ID))
+                                                            .provider(PROVIDER).releaseYear(Year.of(2020)).build();
+        PlaylistFilterRequest byPopularity = PlaylistFilterRequest.builder().playlistIds(List.of(TEST_PLAYLIST_ID))
+                                                                  .provider(PROVIDER).popularity(40).build();
+
+        filterService.filterSongs(TEST_USER_ID, byYear);
+        PlaylistFilterResponse response = filterService.filterSongs(TEST_USER_ID, byPopularity);
+
+        assertThat(response.getSongs()).containsExactly(song3);
+        verify(playlistCacheService, times(1)).getCachedSongs(anyLong(), anyCollection());
+        verify(songService, times(1)).loadPlaylistSongs(PROVIDER, TEST_PLAYLIST_ID, TEST_USER_ID);
+    }
+
+    @Test
+    @DisplayName("filterSongs - Should rebuild the song index after a playlist's cached songs change")
+    void filterSongs_ShouldRebuildIndex_WhenPlaylistChanges() {
+        when(songService.loadPlaylistSongs(PROVIDER, TEST_PLAYLIST_ID, TEST_USER_ID))
+                .thenReturn(List.of(song1), List.of(song1, song3));
+        PlaylistFilterRequest request = PlaylistFilterRequest.builder().playlistIds(List.of(TEST_PLAYLIST_ID))
+                                                             .provider(PROVIDER).releaseYear(Year.of(2020)).build();
+
+        filterService.filterSongs(TEST_USER_ID, request);
+        songIndexCache.onPlaylistSongsChanged(new PlaylistSongsChangedEvent(
+                PlaylistCacheService.playlistSongsKey(TEST_USER_ID, TEST_PLAYLIST_ID)));
+        PlaylistFilterResponse response = filterService.filterSongs(TEST_USER_ID, request);
+
+        assertThat(response.getSongs()).containsExactly(song1, song3);
     }
 }
@@ -0,0 +1,56 @@
+package com.example.musicGenie.services.filter;
+
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.List;
+
+import com.example.musicGenie.dtos.filter.PlaylistFilterRequest;
+import com.example.musicGenie.dtos.song.SongDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SongIndex Tests")
+class SongIndexTest {
+
+    private final SongDto song1 = SongDto.builder().id("1").album("Album A").artists(List.of("Artist1", "Artist2"))
+                                         .popularity(50).explicit(true).releaseYear(Year.of(2020))
+                                         .addedAt(YearMonth.of(2021, 1)).build();
+    private final SongDto song2 = SongDto.builder().id("2").album("Album B").artists(List.of("Artist2"))
+                                         .popularity(80).releaseYear(Year.of(2020))
+                                         .addedAt(YearMonth.of(2022, 5)).build();
+    // deezer style song, no artists, year or addedAt
+    private final SongDto song3 = SongDto.builder().id("3").album("Album A").popularity(10).build();
+
+    private final SongIndex index = SongIndex.of(List.of(song1, song2, song3));
+
+    @Test
+    @DisplayName("filter - Should AND every criterion and keep pool order")
+    void filter_ShouldCombineCriteria() {
+        PlaylistFilterRequest request = PlaylistFilterRequest.builder()
+                                                             .provider("spotify")
+                                                             .artists(List.of("Artist2", "Unknown"))
+                                                             .popularity(80)
+                                                             .releaseYear(Year.of(2020))
+                                                             .addedAt(YearMonth.of(2022, 5))
+                                                             .build();
+
+        assertThat(index.filter(request)).containsExactly(song1, song2);
+
+        request.setExplicit(false);
+        assertThat(index.filter(request)).containsExactly(song2);
+    }
+
+    @Test
+    @DisplayName("filter - Should exclude songs with missing fields from field criteria")
+    void filter_ShouldSkipMissingFields() {
+        PlaylistFilterRequest byYear = PlaylistFilterRequest.builder().releaseYear(Year.of(2020)).build();
+        PlaylistFilterRequest byAlbum = PlaylistFilterRequest.builder().albums(List.of("Album A")).build();
+        PlaylistFilterRequest byArtist = PlaylistFilterRequest.builder().artists(List.of("Nobody")).build();
+
+        assertThat(index.filter(byYear)).containsExactly(song1, song2);
+        assertThat(index.filter(byAlbum)).containsExactly(song1, song3);
+        assertThat(index.filter(byArtist)).isEmpty();
+    }
+}
@@ -3,23 +3,35 @@ package com.example.musicGenie.services.playlist;
 import com.example.musicGenie.dtos.playlist.PlaylistDto;
 import com.example.musicGenie.dtos.song.SongDto;
 import com.example.musicGenie.services.playlist.PlaylistCacheService;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.example.musicGenie.services.playlist.codec.SongCacheCodec;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Year;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -35,15 +47,51 @@ class PlaylistCacheServiceTest {
     @Mock
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Mock
+    private RedisTemplate<String, byte[]> songCacheRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> songValueOperations;
+
+    @Mock
+    private ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+
+    @Mock
+    private ReactiveRedisTemplate<String, byte[]> reactiveSongCacheRedisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, byte[]> reactiveSongValueOperations;
+
+    @Mock
+    private SongCacheCodec songCacheCodec;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
-    @InjectMocks
+    @Mock
+    private ReactiveValueOperations<String, Object> reactiveValueOperations;
+
+    @Mock
+    private ReactiveHashOperations<String, Object, Object> reactiveHashOperations;
+
+    @Mock
+    private SongListL1Cache songListL1Cache;
+
+    @Mock
+    private SharedSongCache sharedSongCache;
+
     private PlaylistCacheService playlistCacheService;
 
     private static final Long USER_ID = 1L;
     private static final String PLAYLIST_ID = "playlist-123";
     private static final String FILTER_ID = "filter-123";
+    private static final byte[] ENCODED = {1, 2, 3};
+    private static final long FRESH = Duration.ofHours(2).toMillis();
+    private static final String METADATA_KEY = "user:playlists:" + USER_ID + ":metadata";
+    private static final String PLAYLIST_KEY = "user:playlists:" + USER_ID + ":playlist:" + PLAYLIST_ID;
 
     private SongDto testSong;
     private List<SongDto> songList;
@@ -68,72 +116,290 @@ class PlaylistCacheServiceTest {
                                   .owner("Tester123")
                                   .tracksCount(42)
                                   .imageUrl("https://example.com/cover.jpg")
+                                  .snapshotId("snap1")
                                   .build();
+        playlistCacheService = new PlaylistCacheService(objectMapper, redisTemplate, songCacheRedisTemplate,
+                reactiveRedisTemplate, reactiveSongCacheRedisTemplate, songCacheCodec, songListL1Cache, sharedSongCache);
+        lenient().when(songCacheRedisTemplate.opsForValue()).thenReturn(songValueOperations);
+        lenient().when(reactiveSongCacheRedisTemplate.opsForValue()).thenReturn(reactiveSongValueOperations);
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
         lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(reactiveRedisTemplate.opsForValue()).thenReturn(reactiveValueOperations);
+        lenient().when(reactiveRedisTemplate.<Object, Object>opsForHash()).thenReturn(reactiveHashOperations);
+        lenient().when(songListL1Cache.get(anyString())).thenReturn(null); // in-process cache starts cold
+        lenient().when(songListL1Cache.put(anyString(), anyList())).thenAnswer(inv -> inv.getArgument(1));
+        lenient().when(songListL1Cache.put(anyString(), anyList(), any(Duration.class))).thenAnswer(inv -> inv.getArgument(1));
+        // freshly written unless a test says otherwise
+        lenient().when(reactiveSongCacheRedisTemplate.getExpire(anyString())).thenReturn(Mono.just(Duration.ofHours(2)));
     }
 
     // ---- FILTERED SONGS ----
 
     @Test
-    @DisplayName("cacheFilteredSongs - Should serialize and cache songs")
-    void cacheFilteredSongs_ShouldSerializeAndCacheSongs() throws Exception {
-        when(objectMapper.writeValueAsString(songList)).thenReturn("json");
+    @DisplayName("cacheFilteredSongs - Should cache only the song IDs")
+    void cacheFilteredSongs_ShouldCacheSongIds() {
+        SongDto other = SongDto.builder().id("song-2").build();
 
-        playlistCacheService.cacheFilteredSongs(USER_ID, songList);
+        playlistCacheService.cacheFilteredSongs(USER_ID, List.of(testSong, other));
 
-        verify(valueOperations).set(startsWith("user:filtered:" + USER_ID), eq("json"), any());
+        verify(songValueOperations).set(startsWith("user:filtered:" + USER_ID),
+                eq((testSong.getId() + "\nsong-2").getBytes(StandardCharsets.UTF_8)), any());
+        verifyNoInteractions(songCacheCodec);
     }
 
     @Test
-    @DisplayName("getCachedFilteredSongs - Should return deserialized songs when found")
-    void getCachedFilteredSongs_ShouldReturnSongs_WhenFound() throws Exception {
-        when(valueOperations.get("user:filtered:" + USER_ID + ":" + FILTER_ID + ":songs")).thenReturn("json");
-        when(objectMapper.readValue(eq("json"), any(TypeReference.class))).thenReturn(songList);
+    @DisplayName("getCachedFilteredSongIdsAsync - Should return song IDs when found")
+    void getCachedFilteredSongIdsAsync_ShouldReturnIds_WhenFound() {
+        when(reactiveSongValueOperations.get("user:filtered:" + USER_ID + ":" + FILTER_ID + ":ids"))
+                .thenReturn(Mono.just((testSong.getId() + "\nsong-2").getBytes(StandardCharsets.UTF_8)));
 
-        List<SongDto> result = playlistCacheService.getCachedFilteredSongs(USER_ID, FILTER_ID);
+        List<String> result = playlistCacheService.getCachedFilteredSongIdsAsync(USER_ID, FILTER_ID).block();
 
-        assertThat(result).containsExactly(testSong);
+        assertThat(result).containsExactly(testSong.getId(), "song-2");
     }
 
     @Test
-    @DisplayName("getCachedFilteredSongs - Should return null when not found")
-    void getCachedFilteredSongs_ShouldReturnNull_WhenNotFound() {
-        when(valueOperations.get(anyString())).thenReturn(null);
+    @DisplayName("getCachedFilteredSongIdsAsync - Should read IDs that look like a compact song list header")
+    void getCachedFilteredSongIdsAsync_ShouldReadIdsStartingWithMagic() {
+        when(reactiveSongValueOperations.get("user:filtered:" + USER_ID + ":" + FILTER_ID + ":ids"))
+                .thenReturn(Mono.just("MG4Vn0xd9dOsgfaQxUyW2O\nsong-2".getBytes(StandardCharsets.UTF_8)));
 
-        List<SongDto> result = playlistCacheService.getCachedFilteredSongs(USER_ID, FILTER_ID);
+        List<String> result = playlistCacheService.getCachedFilteredSongIdsAsync(USER_ID, FILTER_ID).block();
 
-        assertThat(result).isNull();
+        assertThat(result).containsExactly("MG4Vn0xd9dOsgfaQxUyW2O", "song-2");
+        verifyNoInteractions(songCacheCodec);
+    }
+
+    @Test
+    @DisplayName("getCachedFilteredSongIdsAsync - Should complete empty when not found")
+    void getCachedFilteredSongIdsAsync_ShouldBeEmpty_WhenNotFound() {
+        when(reactiveSongValueOperations.get(anyString())).thenReturn(Mono.empty());
+
+        assertThat(playlistCacheService.getCachedFilteredSongIdsAsync(USER_ID, FILTER_ID).blockOptional()).isEmpty();
     }
 //
     @Test
-    @DisplayName("evictFilteredSongs - Should delete filtered songs cache")
-    void evictFilteredSongs_ShouldDeleteCache() {
-        playlistCacheService.evictFilteredSongs(USER_ID, FILTER_ID);
+    @DisplayName("evictFilteredSongsAsync - Should delete filtered songs cache")
+    void evictFilteredSongsAsync_ShouldDeleteCache() {
+        when(reactiveRedisTemplate.delete("user:filtered:" + USER_ID + ":" + FILTER_ID + ":ids")).thenReturn(Mono.just(1L));
 
-        verify(redisTemplate).delete("user:filtered:" + USER_ID + ":" + FILTER_ID + ":songs");
+        playlistCacheService.evictFilteredSongsAsync(USER_ID, FILTER_ID).block();
+
+        verify(reactiveRedisTemplate).delete("user:filtered:" + USER_ID + ":" + FILTER_ID + ":ids");
     }
 //
 //    // ---- SONGS ----
 //
     @Test
-    @DisplayName("cacheSongs - Should serialize and cache songs")
-    void cacheSongs_ShouldSerializeAndCacheSongs() throws Exception {
-        when(objectMapper.writeValueAsString(songList)).thenReturn("json");
+    @DisplayName("cacheSongsAsync - Should serialize and cache songs")
+    void cacheSongsAsync_ShouldSerializeAndCacheSongs() throws Exception {
+        when(songCacheCodec.encode(songList)).thenReturn(ENCODED);
+        when(reactiveSongValueOperations.set(anyString(), any(byte[].class), any(Duration.class))).thenReturn(Mono.just(true));
 
-        playlistCacheService.cacheSongs(USER_ID, PLAYLIST_ID, songList);
+        playlistCacheService.cacheSongsAsync(USER_ID, PLAYLIST_ID, songList).block();
 
-        verify(valueOperations).set(eq("user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs"), eq("json"), any());
+        verify(reactiveSongValueOperations).set(eq("user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs"), eq(ENCODED), any(Duration.class));
     }
 
     @Test
-    @DisplayName("getCachedSongs - Should return deserialized songs when found")
-    void getCachedSongs_ShouldReturnSongs_WhenFound() throws Exception {
-        when(valueOperations.get("user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs")).thenReturn("json");
-        when(objectMapper.readValue(eq("json"), any(TypeReference.class))).thenReturn(songList);
+    @DisplayName("getCachedSongsEntryAsync - Should decode songs read without blocking and fill the in-process cache")
+    void getCachedSongsEntryAsync_ShouldReturnSongs_WhenFound() throws Exception {
+        String key = "user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs";
+        when(reactiveSongValueOperations.get(key)).thenReturn(Mono.just(ENCODED));
+        when(songCacheCodec.decode(ENCODED)).thenReturn(songList);
 
-        List<SongDto> result = playlistCacheService.getCachedSongs(USER_ID, PLAYLIST_ID);
+        List<SongDto> result = playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID).block().value();
 
         assertThat(result).containsExactly(testSong);
+        verify(songListL1Cache).put(eq(key), eq(songList), any(Duration.class));
+        verifyNoInteractions(songValueOperations);
+    }
+
+    @Test
+    @DisplayName("getCachedSongsEntryAsync - Should flag songs past the soft TTL as stale")
+    void getCachedSongsEntryAsync_ShouldBeStale_AfterSoftTtl() {
+        String key = "user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs";
+        when(reactiveSongValueOperations.get(key)).thenReturn(Mono.just(ENCODED));
+        when(reactiveSongCacheRedisTemplate.getExpire(key)).thenReturn(Mono.just(Duration.ofMinutes(80)));
+        when(songCacheCodec.decode(ENCODED)).thenReturn(songList);
+
+        CacheEntry<List<SongDto>> result = playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID).block();
+
+        assertThat(result.value()).containsExactly(testSong);
+        assertThat(result.stale()).isTrue();
+    }
+
+    @Test
+    @DisplayName("getCachedSongsEntryAsync - Should treat songs within the soft TTL as fresh")
+    void getCachedSongsEntryAsync_ShouldBeFresh_WithinSoftTtl() {
+        String key = "user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs";
+        when(reactiveSongValueOperations.get(key)).thenReturn(Mono.just(ENCODED));
+        when(reactiveSongCacheRedisTemplate.getExpire(key)).thenReturn(Mono.just(Duration.ofMinutes(100)));
+        when(songCacheCodec.decode(ENCODED)).thenReturn(songList);
+
+        assertThat(playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID).block().stale()).isFalse();
+    }
+
+    @Test
+    @DisplayName("getCachedSongsEntryAsync - Should complete empty on a cache miss")
+    void getCachedSongsEntryAsync_ShouldBeEmpty_WhenMissing() {
+        when(reactiveSongValueOperations.get(anyString())).thenReturn(Mono.empty());
+
+        assertThat(playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID).blockOptional()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("cacheSongsAsync - Should store only a snapshot pointer under the user's key")
+    void cacheSongsAsync_ShouldStoreSnapshotPointer_WhenSnapshotKnown() {
+        String key = "user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs";
+        when(reactiveSongValueOperations.set(anyString(), any(byte[].class), any(Duration.class))).thenReturn(Mono.just(true));
+
+        playlistCacheService.cacheSongsAsync(USER_ID, PLAYLIST_ID, "snap1", songList).block();
+
+        verify(reactiveSongValueOperations).set(eq(key), eq("snapshot:snap1".getBytes(StandardCharsets.UTF_8)), any(Duration.class));
+        verify(songListL1Cache).put(key, songList);
+        verifyNoInteractions(songCacheCodec);
+    }
+
+    @Test
+    @DisplayName("getCachedSongsEntryAsync - Should resolve a snapshot pointer through the shared cache")
+    void getCachedSongsEntryAsync_ShouldResolveSnapshotPointer() {
+        when(reactiveSongValueOperations.get("user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs"))
+                .thenReturn(Mono.just("snapshot:snap1".getBytes(StandardCharsets.UTF_8)));
+        when(sharedSongCache.getAsync(PLAYLIST_ID, "snap1")).thenReturn(Mono.just(songList));
+
+        List<SongDto> result = playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID).block().value();
+
+        assertThat(result).containsExactly(testSong);
+        verifyNoInteractions(songCacheCodec);
+    }
+
+    @Test
+    @DisplayName("getCachedSongs (batch) - Should report a pointer whose shared snapshot expired as a miss")
+    void getCachedSongsBatch_ShouldMissExpiredSnapshot() {
+        String sharedKey = "user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs";
+        String expiredKey = "user:songs:" + USER_ID + ":other:songs";
+        pipelined(List.of("snapshot:snap1".getBytes(StandardCharsets.UTF_8), "snapshot:snap2".getBytes(StandardCharsets.UTF_8)),
+                FRESH, FRESH);
+        when(sharedSongCache.getAll(Map.of(PLAYLIST_ID, "snap1", "other", "snap2"))).thenReturn(Map.of(PLAYLIST_ID, songList));
+
+        CachedSongsLookup result = playlistCacheService.getCachedSongs(USER_ID, List.of(PLAYLIST_ID, "other"));
+
+        assertThat(result.hits()).containsOnlyKeys(PLAYLIST_ID);
+        assertThat(result.misses()).containsExactly("other");
+    }
+
+    @Test
+    @DisplayName("getCachedSongs (batch) - Should read all playlists with one MGET and report misses")
+    void getCachedSongsBatch_ShouldSplitHitsAndMisses() throws Exception {
+        String hitKey = "user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs";
+        String missKey = "user:songs:" + USER_ID + ":other:songs";
+        pipelined(Arrays.asList(ENCODED, null), FRESH, -2L);
+        when(songCacheCodec.decode(ENCODED)).thenReturn(songList);
+
+        CachedSongsLookup result = playlistCacheService.getCachedSongs(USER_ID, List.of(PLAYLIST_ID, "other"));
+
+        assertThat(result.hits()).containsOnlyKeys(PLAYLIST_ID);
+        assertThat(result.hits().get(PLAYLIST_ID)).containsExactly(testSong);
+        assertThat(result.misses()).containsExactly("other");
+        assertThat(result.stale()).isEmpty();
+        verify(songValueOperations, never()).get(anyString());
+    }
+
+    @Test
+    @DisplayName("getCachedSongs (batch) - Should report hits past the soft TTL as stale")
+    void getCachedSongsBatch_ShouldReportStaleHits() throws Exception {
+        // written 40 minutes ago, past the 30 minute soft TTL
+        pipelined(Arrays.asList(ENCODED, ENCODED), Duration.ofMinutes(80).toMillis(), FRESH);
+        when(songCacheCodec.decode(ENCODED)).thenReturn(songList);
+
+        CachedSongsLookup result = playlistCacheService.getCachedSongs(USER_ID, List.of(PLAYLIST_ID, "other"));
+
+        assertThat(result.hits()).containsOnlyKeys(PLAYLIST_ID, "other");
+        assertThat(result.stale()).containsExactly(PLAYLIST_ID);
+    }
+
+    @Test
+    @DisplayName("getCachedSongs (batch) - Should report in-process hits taken from a stale entry as stale")
+    void getCachedSongsBatch_ShouldReportStaleL1Hits() {
+        when(songListL1Cache.getEntry("user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs"))
+                .thenReturn(new CacheEntry<>(songList, true));
+        when(songListL1Cache.getEntry("user:songs:" + USER_ID + ":other:songs"))
+                .thenReturn(new CacheEntry<>(songList, false));
+
+        CachedSongsLookup result = playlistCacheService.getCachedSongs(USER_ID, List.of(PLAYLIST_ID, "other"));
+
+        assertThat(result.hits()).containsOnlyKeys(PLAYLIST_ID, "other");
+        assertThat(result.stale()).containsExactly(PLAYLIST_ID);
+        verify(songCacheRedisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("getCachedSongsEntryAsync - Should report an in-process hit as stale as the entry it was read from")
+    void getCachedSongsEntryAsync_ShouldReportStaleL1Hit() {
+        String key = "user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs";
+        when(songListL1Cache.getEntry(key)).thenReturn(new CacheEntry<>(songList, true));
+
+        CacheEntry<List<SongDto>> result = playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID).block();
+
+        assertThat(result.stale()).isTrue();
+        verifyNoInteractions(reactiveSongValueOperations);
+    }
+
+    @Test
+    @DisplayName("getCachedSongsEntryAsync - Should keep only what is left of the soft TTL for the in-process copy")
+    void getCachedSongsEntryAsync_ShouldCarryRemainingFreshnessToL1() {
+        String key = "user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs";
+        when(reactiveSongValueOperations.get(key)).thenReturn(Mono.just(ENCODED));
+        when(reactiveSongCacheRedisTemplate.getExpire(key)).thenReturn(Mono.just(Duration.ofMinutes(100)));
+        when(songCacheCodec.decode(ENCODED)).thenReturn(songList);
+
+        playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID).block();
+
+        // written 20 minutes ago, 10 minutes of the 30 minute soft TTL left
+        verify(songListL1Cache).put(key, songList, Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("getCachedSongsEntryAsync - Should serve from the in-process cache without touching Redis")
+    void getCachedSongsEntryAsync_ShouldReturnL1Hit_WithoutRedis() {
+        when(songListL1Cache.getEntry("user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs"))
+                .thenReturn(new CacheEntry<>(songList, false));
+
+        CacheEntry<List<SongDto>> result = playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID).block();
+
+        assertThat(result.value()).containsExactly(testSong);
+        assertThat(result.stale()).isFalse();
+        verifyNoInteractions(reactiveSongValueOperations, songCacheCodec);
+    }
+
+    @Test
+    @DisplayName("getCachedSongs (batch) - Should only MGET playlists missing from the in-process cache")
+    void getCachedSongsBatch_ShouldSkipL1HitsInMget() throws Exception {
+        String localKey = "user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs";
+        String remoteKey = "user:songs:" + USER_ID + ":other:songs";
+        when(songListL1Cache.getEntry(localKey)).thenReturn(new CacheEntry<>(songList, false));
+        pipelined(Arrays.asList(ENCODED), FRESH);
+        when(songCacheCodec.decode(ENCODED)).thenReturn(songList);
+
+        CachedSongsLookup result = playlistCacheService.getCachedSongs(USER_ID, List.of(PLAYLIST_ID, "other"));
+
+        assertThat(result.hits()).containsOnlyKeys(PLAYLIST_ID, "other");
+        assertThat(result.misses()).isEmpty();
+        verify(songListL1Cache).put(eq(remoteKey), eq(songList), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("cacheSongsAsync - Should keep the list locally and invalidate other nodes")
+    void cacheSongsAsync_ShouldPopulateL1AndPublishInvalidation() throws Exception {
+        String key = "user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs";
+        when(songCacheCodec.encode(songList)).thenReturn(ENCODED);
+        when(reactiveSongValueOperations.set(anyString(), any(byte[].class), any(Duration.class))).thenReturn(Mono.just(true));
+
+        playlistCacheService.cacheSongsAsync(USER_ID, PLAYLIST_ID, songList).block();
+
+        verify(songListL1Cache).put(key, songList);
+        verify(songListL1Cache).publishInvalidation(key);
     }
 
     @Test
@@ -142,37 +408,103 @@ class PlaylistCacheServiceTest {
         playlistCacheService.evictSongs(USER_ID, PLAYLIST_ID);
 
         verify(redisTemplate).delete("user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs");
+        verify(songListL1Cache).invalidate("user:songs:" + USER_ID + ":" + PLAYLIST_ID + ":songs");
     }
 //
 //    // ---- PLAYLIST METADATA ----
 //
     @Test
-    @DisplayName("cachePlaylistMetaData - Should cache playlist metadata")
-    void cachePlaylistMetaData_ShouldCachePlaylistMetaData() {
-        playlistCacheService.cachePlaylistMetaData(USER_ID, testPlaylist);
+    @DisplayName("cachePlaylistMetaDataAsync - Should cache a single playlist outside the listing hash")
+    void cachePlaylistMetaDataAsync_ShouldNotTouchListing() {
+        when(reactiveValueOperations.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.just(true));
 
-        verify(valueOperations).set(eq("user:playlists:" + USER_ID + ":" + testPlaylist.id() + ":metadata"), eq(testPlaylist), any());
+        playlistCacheService.cachePlaylistMetaDataAsync(USER_ID, testPlaylist).block();
+
+        verify(reactiveValueOperations).set(eq("user:playlists:" + USER_ID + ":playlist:" + testPlaylist.id()),
+                eq(testPlaylist), any(Duration.class));
+        verifyNoInteractions(reactiveHashOperations);
+        verify(reactiveRedisTemplate, never()).expire(eq(METADATA_KEY), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("commitStagedPlaylistsAsync - Should rename the staged listing over the user's hash")
+    void commitStagedPlaylistsAsync_ShouldRenameStagingHash() {
+        String stagingKey = METADATA_KEY + ":staging:abc";
+        when(reactiveRedisTemplate.hasKey(stagingKey)).thenReturn(Mono.just(true));
+        when(reactiveRedisTemplate.rename(stagingKey, METADATA_KEY)).thenReturn(Mono.just(true));
+        when(reactiveRedisTemplate.expire(eq(METADATA_KEY), any(Duration.class))).thenReturn(Mono.just(true));
+
+        playlistCacheService.commitStagedPlaylistsAsync(USER_ID, stagingKey).block();
+
+        verify(reactiveRedisTemplate).rename(stagingKey, METADATA_KEY);
+        verify(reactiveRedisTemplate).expire(eq(METADATA_KEY), any(Duration.class));
     }
 
     @Test
-    @DisplayName("getCachedPlaylistMetaData - Should return playlist metadata when found")
-    void getCachedPlaylistMetaData_ShouldReturnPlaylist_WhenFound() {
-        when(valueOperations.get("user:playlists:" + USER_ID + ":" + PLAYLIST_ID + ":metadata")).thenReturn(testPlaylist);
+    @DisplayName("commitStagedPlaylistsAsync - Should clear the user's hash when the listing was empty")
+    void commitStagedPlaylistsAsync_ShouldDelete_WhenNothingStaged() {
+        String stagingKey = METADATA_KEY + ":staging:abc";
+        when(reactiveRedisTemplate.hasKey(stagingKey)).thenReturn(Mono.just(false));
+        when(reactiveRedisTemplate.delete(METADATA_KEY)).thenReturn(Mono.just(1L));
+
+        playlistCacheService.commitStagedPlaylistsAsync(USER_ID, stagingKey).block();
+
+        verify(reactiveRedisTemplate).delete(METADATA_KEY);
+        verify(reactiveRedisTemplate, never()).rename(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("getCachedPlaylistsMetaDataEntryAsync - Should read all playlists with one HVALS")
+    void getCachedPlaylistsMetaDataEntryAsync_ShouldReturnAllPlaylists() {
+        when(reactiveHashOperations.values(METADATA_KEY)).thenReturn(Flux.just(testPlaylist));
+        when(reactiveRedisTemplate.getExpire(METADATA_KEY)).thenReturn(Mono.just(Duration.ofHours(2)));
         when(objectMapper.convertValue(eq(testPlaylist), any(TypeReference.class))).thenReturn(testPlaylist);
 
-        PlaylistDto result = playlistCacheService.getCachedPlaylistMetaData(USER_ID, PLAYLIST_ID);
+        List<PlaylistDto> result = playlistCacheService.getCachedPlaylistsMetaDataEntryAsync(USER_ID).block().value();
+
+        assertThat(result).containsExactly(testPlaylist);
+    }
+
+    @Test
+    @DisplayName("getCachedPlaylistsMetaDataEntryAsync - Should complete empty when the user has no cached playlists")
+    void getCachedPlaylistsMetaDataEntryAsync_ShouldBeEmpty_WhenEmpty() {
+        when(reactiveHashOperations.values(METADATA_KEY)).thenReturn(Flux.empty());
+        when(reactiveRedisTemplate.getExpire(METADATA_KEY)).thenReturn(Mono.empty());
+
+        assertThat(playlistCacheService.getCachedPlaylistsMetaDataEntryAsync(USER_ID).blockOptional()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("getCachedPlaylistMetaDataAsync - Should return a playlist cached on its own")
+    void getCachedPlaylistMetaDataAsync_ShouldReturnPlaylist_WhenCachedAlone() {
+        when(reactiveValueOperations.get(PLAYLIST_KEY)).thenReturn(Mono.just(testPlaylist));
+        when(objectMapper.convertValue(eq(testPlaylist), any(TypeReference.class))).thenReturn(testPlaylist);
+
+        PlaylistDto result = playlistCacheService.getCachedPlaylistMetaDataAsync(USER_ID, PLAYLIST_ID).block();
 
         assertThat(result).isEqualTo(testPlaylist);
+        verifyNoInteractions(reactiveHashOperations);
     }
 
     @Test
-    @DisplayName("getCachedPlaylistMetaData - Should return null when not found")
-    void getCachedPlaylistMetaData_ShouldReturnNull_WhenNotFound() {
-        when(valueOperations.get(anyString())).thenReturn(null);
+    @DisplayName("getCachedPlaylistMetaDataAsync - Should fall back to the cached listing")
+    void getCachedPlaylistMetaDataAsync_ShouldReturnPlaylist_WhenInListing() {
+        when(reactiveValueOperations.get(PLAYLIST_KEY)).thenReturn(Mono.empty());
+        when(reactiveHashOperations.get(METADATA_KEY, PLAYLIST_ID)).thenReturn(Mono.just(testPlaylist));
+        when(objectMapper.convertValue(eq(testPlaylist), any(TypeReference.class))).thenReturn(testPlaylist);
 
-        PlaylistDto result = playlistCacheService.getCachedPlaylistMetaData(USER_ID, PLAYLIST_ID);
+        PlaylistDto result = playlistCacheService.getCachedPlaylistMetaDataAsync(USER_ID, PLAYLIST_ID).block();
 
-        assertThat(result).isNull();
+        assertThat(result).isEqualTo(testPlaylist);
+    }
+
+    @Test
+    @DisplayName("getCachedPlaylistMetaDataAsync - Should complete empty when not found")
+    void getCachedPlaylistMetaDataAsync_ShouldBeEmpty_WhenNotFound() {
+        when(reactiveValueOperations.get(PLAYLIST_KEY)).thenReturn(Mono.empty());
+        when(reactiveHashOperations.get(METADATA_KEY, PLAYLIST_ID)).thenReturn(Mono.empty());
+
+        assertThat(playlistCacheService.getCachedPlaylistMetaDataAsync(USER_ID, PLAYLIST_ID).blockOptional()).isEmpty();
     }
 
     @Test
@@ -180,18 +512,27 @@ class PlaylistCacheServiceTest {
     void evictPlaylistMetaData_ShouldDeleteCache() {
         playlistCacheService.evictPlaylistMetaData(USER_ID, PLAYLIST_ID);
 
-        verify(redisTemplate).delete("user:playlists:" + USER_ID + ":" + PLAYLIST_ID + ":metadata");
+        verify(hashOperations).delete(METADATA_KEY, PLAYLIST_ID);
+        verify(redisTemplate).delete(PLAYLIST_KEY);
     }
 
     // ---- ERROR HANDLING ----
 
     @Test
-    @DisplayName("cacheSongs - Should throw exception on serialization error")
-    void cacheSongs_ShouldThrowException_OnSerializationError() throws Exception {
-        when(objectMapper.writeValueAsString(any())).thenThrow(new JsonProcessingException("error") {});
+    @DisplayName("cacheSongsAsync - Should throw exception on serialization error")
+    void cacheSongsAsync_ShouldThrowException_OnSerializationError() throws Exception {
+        when(songCacheCodec.encode(any())).thenThrow(new UncheckedIOException(new IOException("error")));
 
-        assertThatThrownBy(() -> playlistCacheService.cacheSongs(USER_ID, PLAYLIST_ID, songList))
+        assertThatThrownBy(() -> playlistCacheService.cacheSongsAsync(USER_ID, PLAYLIST_ID, songList).block())
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Failed to serialize songs list");
     }
+
+    // MGET reply first, then one PTTL reply per key
+    private void pipelined(List<byte[]> values, long... ttls) {
+        List<Object> replies = new ArrayList<>();
+        replies.add(values);
+        for (long ttl : ttls) replies.add(ttl);
+        when(songCacheRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(replies);
+    }
 }
@@ -0,0 +1,138 @@
+package com.example.musicGenie.services.playlist;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.example.musicGenie.dtos.playlist.CreatePlaylistRequest;
+import com.example.musicGenie.dtos.playlist.PlaylistDto;
+import com.example.musicGenie.dtos.playlist.PlaylistJobDto;
+import com.example.musicGenie.dtos.playlist.PlaylistJobStatus;
+import com.example.musicGenie.playlist.PlaylistProviderFactory;
+import com.example.musicGenie.playlist.ReactivePlaylistProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlaylistJobService Tests")
+class PlaylistJobServiceTest {
+
+    @Mock
+    private PlaylistService playlistService;
+
+    @Mock
+    private PlaylistCacheService playlistCacheService;
+
+    @Mock
+    private PlaylistProviderFactory providerFactory;
+
+    @Mock
+    private ReactivePlaylistProvider provider;
+
+    @Mock
+    private PlaylistJobStore jobStore;
+
+    private PlaylistJobService jobService;
+
+    private static final String PROVIDER_NAME = "spotify";
+    private static final Long USER_ID = 1L;
+    private static final String FILTER_ID = "filter123";
+
+    private final OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "token", null, null);
+    private final CreatePlaylistRequest request = CreatePlaylistRequest.builder().filterId(FILTER_ID).name("New").build();
+    private final PlaylistDto newPlaylist = PlaylistDto.builder().id("pl-new").name("New").build();
+    private final List<String> songIds = List.of("s1", "s2", "s3");
+
+    @BeforeEach
+    void setUp() {
+        // runs the job inline so its outcome can be checked right after submit
+        jobService = new PlaylistJobService(playlistService, playlistCacheService, providerFactory, jobStore,
+                Runnable::run, Duration.ofSeconds(5));
+        lenient().when(jobStore.saveAsync(eq(USER_ID), any())).thenReturn(Mono.empty());
+        lenient().when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(provider);
+    }
+
+    @Test
+    @DisplayName("submit - Should return a queued job and record progress until the playlist is complete")
+    void submit_ShouldRunJobToCompletion() {
+        when(playlistCacheService.getCachedFilteredSongIdsAsync(USER_ID, FILTER_ID)).thenReturn(Mono.just(songIds));
+        when(provider.createPlaylistAsync("token", "New")).thenReturn(Mono.just(newPlaylist));
+        when(provider.addSongsToPlaylistInChunksAsync("token", "pl-new", songIds)).thenReturn(Flux.just(2, 1));
+        when(playlistCacheService.evictFilteredSongsAsync(USER_ID, FILTER_ID)).thenReturn(Mono.empty());
+        when(playlistService.getPlaylist(PROVIDER_NAME, "token", USER_ID, "pl-new")).thenReturn(Mono.just(newPlaylist));
+
+        PlaylistJobDto submitted = jobService.submit(PROVIDER_NAME, accessToken, USER_ID, request).block();
+
+        assertThat(submitted.status()).isEqualTo(PlaylistJobStatus.QUEUED);
+        assertThat(submitted.totalSongs()).isEqualTo(3);
+
+        ArgumentCaptor<PlaylistJobDto> saved = ArgumentCaptor.forClass(PlaylistJobDto.class);
+        verify(jobStore, atLeastOnce()).saveAsync(eq(USER_ID), saved.capture());
+        assertThat(saved.getAllValues()).extracting(PlaylistJobDto::status)
+                                        .containsExactly(PlaylistJobStatus.QUEUED, PlaylistJobStatus.RUNNING,
+                                                PlaylistJobStatus.RUNNING, PlaylistJobStatus.RUNNING, PlaylistJobStatus.COMPLETED);
+        assertThat(saved.getAllValues()).extracting(PlaylistJobDto::addedSongs).containsExactly(0, 0, 2, 3, 3);
+        assertThat(saved.getValue().playlist()).isEqualTo(newPlaylist);
+    }
+
+    @Test
+    @DisplayName("submit - Should mark the job failed without exposing the provider's error")
+    void submit_ShouldRecordFailure() {
+        when(playlistCacheService.getCachedFilteredSongIdsAsync(USER_ID, FILTER_ID)).thenReturn(Mono.just(songIds));
+        when(provider.createPlaylistAsync("token", "New")).thenReturn(Mono.just(newPlaylist));
+        when(provider.addSongsToPlaylistInChunksAsync("token", "pl-new", songIds))
+                .thenReturn(Flux.error(new IllegalStateException("403 Forbidden from POST https://api.spotify.com/v1/playlists/pl-new/tracks")));
+        when(playlistCacheService.evictFilteredSongsAsync(USER_ID, FILTER_ID)).thenReturn(Mono.empty());
+
+        jobService.submit(PROVIDER_NAME, accessToken, USER_ID, request).block();
+
+        ArgumentCaptor<PlaylistJobDto> saved = ArgumentCaptor.forClass(PlaylistJobDto.class);
+        verify(jobStore, atLeastOnce()).saveAsync(eq(USER_ID), saved.capture());
+        assertThat(saved.getValue().status()).isEqualTo(PlaylistJobStatus.FAILED);
+        assertThat(saved.getValue().error()).isEqualTo("Playlist creation failed, please try again");
+    }
+
+    @Test
+    @DisplayName("submit - Should fail without queuing a job when the filter expired")
+    void submit_ShouldFail_WhenNoFilteredSongs() {
+        when(playlistCacheService.getCachedFilteredSongIdsAsync(USER_ID, FILTER_ID)).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> jobService.submit(PROVIDER_NAME, accessToken, USER_ID, request).block())
+                .isInstanceOf(IllegalStateException.class);
+        verify(jobStore, never()).saveAsync(any(), any());
+    }
+
+    @Test
+    @DisplayName("submit - Should drop the job record when the worker queue is full")
+    void submit_ShouldDeleteJob_WhenRejected() {
+        jobService = new PlaylistJobService(playlistService, playlistCacheService, providerFactory, jobStore,
+                task -> {
+                    throw new TaskRejectedException("queue full");
+                }, Duration.ofSeconds(5));
+        when(playlistCacheService.getCachedFilteredSongIdsAsync(USER_ID, FILTER_ID)).thenReturn(Mono.just(songIds));
+        when(jobStore.deleteAsync(eq(USER_ID), anyString())).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> jobService.submit(PROVIDER_NAME, accessToken, USER_ID, request).block())
+                .isInstanceOf(TaskRejectedException.class);
+        verify(jobStore).deleteAsync(eq(USER_ID), anyString());
+    }
+}
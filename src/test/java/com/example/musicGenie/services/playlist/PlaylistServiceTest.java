@@ -2,8 +2,7 @@ package com.example.musicGenie.services.playlist;
 
 import com.example.musicGenie.dtos.playlist.CreatePlaylistRequest;
 import com.example.musicGenie.dtos.playlist.PlaylistDto;
-import com.example.musicGenie.dtos.song.SongDto;
-import com.example.musicGenie.playlist.PlaylistProvider;
+import com.example.musicGenie.playlist.ReactivePlaylistProvider;
 import com.example.musicGenie.playlist.PlaylistProviderFactory;
 import com.example.musicGenie.services.playlist.PlaylistCacheService;
 import com.example.musicGenie.services.playlist.PlaylistService;
@@ -11,12 +10,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.time.Year;
-import java.time.YearMonth;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,7 +35,10 @@ class PlaylistServiceTest {
     private PlaylistProviderFactory providerFactory;
 
     @Mock
-    private PlaylistProvider provider;
+    private ReactivePlaylistProvider provider;
+
+    @Mock
+    private StaleCacheRefresher staleCacheRefresher;
 
     @InjectMocks
     private PlaylistService playlistService;
@@ -48,7 +51,7 @@ class PlaylistServiceTest {
 
     private PlaylistDto testPlaylist;
     private List<PlaylistDto> testPlaylists;
-    private List<SongDto> testSongs;
+    private List<String> testSongIds;
 
     @BeforeEach
     void setUp() {
@@ -61,85 +64,144 @@ class PlaylistServiceTest {
                                   .build();
         testPlaylists = List.of(testPlaylist);
 
-        SongDto song = SongDto.builder()
-                              .id("song1")
-                              .title("Song 1")
-                              .artists(List.of("Artist 1"))
-                              .album("Album 1")
-                              .popularity(85)
-                              .releaseYear(Year.of(2022))
-                              .explicit(false)
-                              .addedAt(YearMonth.of(2023, 5))
-                              .build();
-
-        testSongs = List.of(song);
+        testSongIds = List.of("song1");
     }
 
     @Test
     @DisplayName("getUserPlaylists - Should return cached playlists when available")
     void getUserPlaylists_ShouldReturnCached_WhenAvailable() {
-        when(playlistCacheService.getCachedPlaylistsMetaData(USER_ID)).thenReturn(testPlaylists);
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(provider);
+        when(playlistCacheService.getCachedPlaylistsMetaDataEntryAsync(USER_ID)).thenReturn(Mono.just(new CacheEntry<>(testPlaylists, false)));
+
+        List<PlaylistDto> result = playlistService.getUserPlaylists(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, false).block();
+
+        assertThat(result).isEqualTo(testPlaylists);
+        verify(playlistCacheService, times(1)).getCachedPlaylistsMetaDataEntryAsync(USER_ID);
+        verify(staleCacheRefresher, never()).refresh(anyString(), any(), any());
+        verify(providerFactory, times(1)).getReactiveProvider(PROVIDER_NAME);
+        verifyNoInteractions(provider);
+    }
+
+    @Test
+    @DisplayName("getUserPlaylists - Should return stale playlists at once and queue a background refresh")
+    void getUserPlaylists_ShouldServeStaleAndRefresh_WhenPastSoftTtl() {
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(provider);
+        when(playlistCacheService.getCachedPlaylistsMetaDataEntryAsync(USER_ID)).thenReturn(Mono.just(new CacheEntry<>(testPlaylists, true)));
 
-        List<PlaylistDto> result = playlistService.getUserPlaylists(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, false);
+        List<PlaylistDto> result = playlistService.getUserPlaylists(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, false).block();
 
         assertThat(result).isEqualTo(testPlaylists);
-        verify(playlistCacheService, times(1)).getCachedPlaylistsMetaData(USER_ID);
-        verify(providerFactory, times(1)).getProvider(PROVIDER_NAME);
+        verify(staleCacheRefresher, times(1)).refresh(eq(PlaylistCacheService.playlistMetaKey(USER_ID)), any(), any());
+        verifyNoInteractions(provider);
     }
 
     @Test
     @DisplayName("getUserPlaylists - Should fetch and cache playlists when not cached")
     void getUserPlaylists_ShouldFetchAndCache_WhenNotCached() {
-        when(playlistCacheService.getCachedPlaylistsMetaData(USER_ID)).thenReturn(null);
-        when(providerFactory.getProvider(PROVIDER_NAME)).thenReturn(provider);
-        when(provider.fetchUserPlaylists(ACCESS_TOKEN)).thenReturn(testPlaylists);
+        when(playlistCacheService.getCachedPlaylistsMetaDataEntryAsync(USER_ID)).thenReturn(Mono.empty());
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(provider);
+        when(provider.fetchUserPlaylistPagesAsync(ACCESS_TOKEN)).thenReturn(Flux.just(testPlaylists));
+        when(playlistCacheService.stagePlaylistsPageAsync(anyString(), eq(testPlaylists))).thenReturn(Mono.empty());
+        when(playlistCacheService.commitStagedPlaylistsAsync(eq(USER_ID), anyString())).thenReturn(Mono.empty());
+
+        List<PlaylistDto> result = playlistService.getUserPlaylists(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, false).block();
+
+        assertThat(result).isEqualTo(testPlaylists);
+        verify(providerFactory, times(1)).getReactiveProvider(PROVIDER_NAME);
+        verify(provider, times(1)).fetchUserPlaylistPagesAsync(ACCESS_TOKEN);
+        verify(playlistCacheService, times(1)).commitStagedPlaylistsAsync(eq(USER_ID), anyString());
+    }
 
-        List<PlaylistDto> result = playlistService.getUserPlaylists(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, false);
+    @Test
+    @DisplayName("getUserPlaylists - Should bypass the cache when forceRefresh is set")
+    void getUserPlaylists_ShouldSkipCache_WhenForceRefresh() {
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(provider);
+        when(provider.fetchUserPlaylistPagesAsync(ACCESS_TOKEN)).thenReturn(Flux.just(testPlaylists));
+        when(playlistCacheService.stagePlaylistsPageAsync(anyString(), eq(testPlaylists))).thenReturn(Mono.empty());
+        when(playlistCacheService.commitStagedPlaylistsAsync(eq(USER_ID), anyString())).thenReturn(Mono.empty());
+
+        List<PlaylistDto> result = playlistService.getUserPlaylists(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, true).block();
 
         assertThat(result).isEqualTo(testPlaylists);
-        verify(providerFactory, times(1)).getProvider(PROVIDER_NAME);
-        verify(provider, times(1)).fetchUserPlaylists(ACCESS_TOKEN);
-        verify(playlistCacheService, times(1)).cachePlaylistsMetaData(USER_ID, testPlaylists);
+        verify(playlistCacheService, never()).getCachedPlaylistsMetaDataEntryAsync(anyLong());
+    }
+
+    @Test
+    @DisplayName("streamUserPlaylists - Should stage every page in one hash and swap it in after the last page")
+    void streamUserPlaylists_ShouldStagePagesThenCommit() {
+        PlaylistDto second = PlaylistDto.builder().id("456").name("Second").build();
+        when(playlistCacheService.getCachedPlaylistsMetaDataEntryAsync(USER_ID)).thenReturn(Mono.empty());
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(provider);
+        when(provider.fetchUserPlaylistPagesAsync(ACCESS_TOKEN)).thenReturn(Flux.just(testPlaylists, List.of(second)));
+        when(playlistCacheService.stagePlaylistsPageAsync(anyString(), anyList())).thenReturn(Mono.empty());
+        when(playlistCacheService.commitStagedPlaylistsAsync(eq(USER_ID), anyString())).thenReturn(Mono.empty());
+
+        List<PlaylistDto> result = playlistService.streamUserPlaylists(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, false)
+                                                  .collectList().block();
+
+        assertThat(result).containsExactly(testPlaylist, second);
+        ArgumentCaptor<String> stagingKeys = ArgumentCaptor.forClass(String.class);
+        verify(playlistCacheService, times(2)).stagePlaylistsPageAsync(stagingKeys.capture(), anyList());
+        assertThat(stagingKeys.getAllValues()).containsOnly(stagingKeys.getValue());
+        verify(playlistCacheService).commitStagedPlaylistsAsync(USER_ID, stagingKeys.getValue());
+    }
+
+    @Test
+    @DisplayName("streamUserPlaylists - Should not replace the cached listing when a page fails")
+    void streamUserPlaylists_ShouldNotCommit_WhenPageFails() {
+        when(playlistCacheService.getCachedPlaylistsMetaDataEntryAsync(USER_ID)).thenReturn(Mono.empty());
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(provider);
+        when(provider.fetchUserPlaylistPagesAsync(ACCESS_TOKEN))
+                .thenReturn(Flux.just(testPlaylists).concatWith(Mono.error(new IllegalStateException("page failed"))));
+        when(playlistCacheService.stagePlaylistsPageAsync(anyString(), anyList())).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> playlistService.streamUserPlaylists(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, false)
+                                                .collectList().block())
+                .isInstanceOf(IllegalStateException.class);
+        verify(playlistCacheService, never()).commitStagedPlaylistsAsync(anyLong(), anyString());
     }
 
     @Test
     @DisplayName("getPlaylist - Should return cached playlist when available")
     void getPlaylist_ShouldReturnCached_WhenAvailable() {
-        when(playlistCacheService.getCachedPlaylistMetaData(USER_ID, PLAYLIST_ID)).thenReturn(testPlaylist);
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(provider);
+        when(playlistCacheService.getCachedPlaylistMetaDataAsync(USER_ID, PLAYLIST_ID)).thenReturn(Mono.just(testPlaylist));
 
-        PlaylistDto result = playlistService.getPlaylist(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, PLAYLIST_ID);
+        PlaylistDto result = playlistService.getPlaylist(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, PLAYLIST_ID).block();
 
         assertThat(result).isEqualTo(testPlaylist);
-        verify(playlistCacheService, times(1)).getCachedPlaylistMetaData(USER_ID, PLAYLIST_ID);
-        verify(providerFactory, times(1)).getProvider(PROVIDER_NAME);
+        verify(playlistCacheService, times(1)).getCachedPlaylistMetaDataAsync(USER_ID, PLAYLIST_ID);
+        verify(providerFactory, times(1)).getReactiveProvider(PROVIDER_NAME);
+        verifyNoInteractions(provider);
     }
 
     @Test
     @DisplayName("getPlaylist - Should fetch and cache playlist when not cached")
     void getPlaylist_ShouldFetchAndCache_WhenNotCached() {
-        when(playlistCacheService.getCachedPlaylistMetaData(USER_ID, PLAYLIST_ID)).thenReturn(null);
-        when(providerFactory.getProvider(PROVIDER_NAME)).thenReturn(provider);
-        when(provider.fetchUserPlaylist(ACCESS_TOKEN, PLAYLIST_ID)).thenReturn(testPlaylist);
+        when(playlistCacheService.getCachedPlaylistMetaDataAsync(USER_ID, PLAYLIST_ID)).thenReturn(Mono.empty());
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(provider);
+        when(provider.fetchUserPlaylistAsync(ACCESS_TOKEN, PLAYLIST_ID)).thenReturn(Mono.just(testPlaylist));
+        when(playlistCacheService.cachePlaylistMetaDataAsync(USER_ID, testPlaylist)).thenReturn(Mono.empty());
 
-        PlaylistDto result = playlistService.getPlaylist(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, PLAYLIST_ID);
+        PlaylistDto result = playlistService.getPlaylist(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, PLAYLIST_ID).block();
 
         assertThat(result).isEqualTo(testPlaylist);
-        verify(providerFactory, times(1)).getProvider(PROVIDER_NAME);
-        verify(provider, times(1)).fetchUserPlaylist(ACCESS_TOKEN, PLAYLIST_ID);
-        verify(playlistCacheService, times(1)).cachePlaylistMetaData(USER_ID, testPlaylist);
+        verify(providerFactory, times(1)).getReactiveProvider(PROVIDER_NAME);
+        verify(provider, times(1)).fetchUserPlaylistAsync(ACCESS_TOKEN, PLAYLIST_ID);
+        verify(playlistCacheService, times(1)).cachePlaylistMetaDataAsync(USER_ID, testPlaylist);
     }
 
     @Test
     @DisplayName("createPlaylistFromFilter - Should throw when no cached songs found")
     void createPlaylistFromFilter_ShouldThrow_WhenNoCachedSongs() {
         CreatePlaylistRequest request = new CreatePlaylistRequest(FILTER_ID, "TEST filter");
-        when(playlistCacheService.getCachedFilteredSongs(USER_ID, FILTER_ID)).thenReturn(null);
+        when(playlistCacheService.getCachedFilteredSongIdsAsync(USER_ID, FILTER_ID)).thenReturn(Mono.empty());
 
-        assertThatThrownBy(() -> playlistService.createPlaylistFromFilter(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, request))
+        assertThatThrownBy(() -> playlistService.createPlaylistFromFilter(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, request).block())
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessage("No filtered songs found for filterId " + FILTER_ID);
 
-        verify(providerFactory, never()).getProvider(anyString());
+        verify(providerFactory, never()).getReactiveProvider(anyString());
     }
 
     @Test
@@ -154,16 +216,20 @@ class PlaylistServiceTest {
                                              .imageUrl("https://example.com/cover.jpg")
                                              .build();
 
-        when(playlistCacheService.getCachedFilteredSongs(USER_ID, FILTER_ID)).thenReturn(testSongs);
-        when(providerFactory.getProvider(PROVIDER_NAME)).thenReturn(provider);
-        when(provider.createPlaylist(ACCESS_TOKEN, request.name())).thenReturn(newPlaylist);
-        when(provider.fetchUserPlaylist(ACCESS_TOKEN, newPlaylist.id())).thenReturn(newPlaylist);
+        when(playlistCacheService.getCachedFilteredSongIdsAsync(USER_ID, FILTER_ID)).thenReturn(Mono.just(testSongIds));
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(provider);
+        when(provider.createPlaylistAsync(ACCESS_TOKEN, request.name())).thenReturn(Mono.just(newPlaylist));
+        when(provider.addSongsToPlaylistAsync(ACCESS_TOKEN, newPlaylist.id(), testSongIds)).thenReturn(Mono.empty());
+        when(playlistCacheService.evictFilteredSongsAsync(USER_ID, FILTER_ID)).thenReturn(Mono.empty());
+        when(playlistCacheService.getCachedPlaylistMetaDataAsync(USER_ID, newPlaylist.id())).thenReturn(Mono.empty());
+        when(provider.fetchUserPlaylistAsync(ACCESS_TOKEN, newPlaylist.id())).thenReturn(Mono.just(newPlaylist));
+        when(playlistCacheService.cachePlaylistMetaDataAsync(USER_ID, newPlaylist)).thenReturn(Mono.empty());
 
-        PlaylistDto result = playlistService.createPlaylistFromFilter(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, request);
+        PlaylistDto result = playlistService.createPlaylistFromFilter(PROVIDER_NAME, ACCESS_TOKEN, USER_ID, request).block();
 
         assertThat(result).isEqualTo(newPlaylist);
-        verify(provider, times(1)).addSongsToPlaylist(ACCESS_TOKEN, newPlaylist.id(), testSongs);
-        verify(playlistCacheService, times(1)).evictFilteredSongs(USER_ID, FILTER_ID);
+        verify(provider, times(1)).addSongsToPlaylistAsync(ACCESS_TOKEN, newPlaylist.id(), testSongIds);
+        verify(playlistCacheService, times(1)).evictFilteredSongsAsync(USER_ID, FILTER_ID);
     }
 
 }
@@ -0,0 +1,115 @@
+package com.example.musicGenie.services.playlist;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.example.musicGenie.services.playlist.codec.SongCacheCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SharedSongCache Tests")
+class SharedSongCacheTest {
+
+    @Mock
+    private RedisTemplate<String, byte[]> songCacheRedisTemplate;
+
+    @Mock
+    private ReactiveRedisTemplate<String, byte[]> reactiveSongCacheRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> valueOperations;
+
+    @Mock
+    private ReactiveValueOperations<String, byte[]> reactiveValueOperations;
+
+    private final SongCacheCodec codec = new SongCacheCodec(new ObjectMapper().registerModule(new JavaTimeModule()),
+            "compact", false, 1024);
+
+    private SharedSongCache cache;
+
+    private final SongDto track = SongDto.builder().id("t1").title("Song One").artists(List.of("Artist A")).build();
+
+    @BeforeEach
+    void setUp() {
+        cache = new SharedSongCache(songCacheRedisTemplate, reactiveSongCacheRedisTemplate, codec, Duration.ofHours(6));
+        lenient().when(songCacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(reactiveSongCacheRedisTemplate.opsForValue()).thenReturn(reactiveValueOperations);
+    }
+
+    @Test
+    @DisplayName("getAsync - Should join the snapshot's addedAt onto the shared track metadata")
+    void getAsync_ShouldAssembleSnapshotFromTracks() {
+        when(reactiveValueOperations.get("songs:playlist:p1:snap1"))
+                .thenReturn(Mono.just(codec.encode(List.of(SongDto.builder().id("t1").addedAt(YearMonth.of(2024, 3)).build()))));
+        when(reactiveValueOperations.multiGet(List.of("songs:track:t1"))).thenReturn(Mono.just(List.of(codec.encode(List.of(track)))));
+
+        List<SongDto> result = cache.getAsync("p1", "snap1").block();
+
+        assertThat(result).singleElement().satisfies(song -> {
+            assertThat(song.getTitle()).isEqualTo("Song One");
+            assertThat(song.getAddedAt()).isEqualTo(YearMonth.of(2024, 3));
+        });
+    }
+
+    @Test
+    @DisplayName("getAsync - Should miss when one of the snapshot's tracks has expired")
+    void getAsync_ShouldMiss_WhenTrackMissing() {
+        when(reactiveValueOperations.get("songs:playlist:p1:snap1"))
+                .thenReturn(Mono.just(codec.encode(List.of(SongDto.builder().id("t1").build(), SongDto.builder().id("t2").build()))));
+        when(reactiveValueOperations.multiGet(List.of("songs:track:t1", "songs:track:t2")))
+                .thenReturn(Mono.just(Arrays.asList(codec.encode(List.of(track)), null)));
+
+        assertThat(cache.getAsync("p1", "snap1").blockOptional()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("getAll - Should fetch tracks shared between playlists once and skip missing snapshots")
+    void getAll_ShouldDeduplicateTracks() {
+        when(valueOperations.multiGet(List.of("songs:playlist:p1:s1", "songs:playlist:p2:s2")))
+                .thenReturn(Arrays.asList(codec.encode(List.of(SongDto.builder().id("t1").build())), null));
+        when(valueOperations.multiGet(List.of("songs:track:t1"))).thenReturn(List.of(codec.encode(List.of(track))));
+
+        Map<String, String> snapshots = new LinkedHashMap<>();
+        snapshots.put("p1", "s1");
+        snapshots.put("p2", "s2");
+
+        Map<String, List<SongDto>> result = cache.getAll(snapshots);
+
+        assertThat(result).containsOnlyKeys("p1");
+    }
+
+    @Test
+    @DisplayName("renewAsync - Should extend the snapshot and every one of its tracks")
+    void renewAsync_ShouldExpireSnapshotAndTracks() {
+        when(reactiveSongCacheRedisTemplate.expire(anyString(), eq(Duration.ofHours(6)))).thenReturn(Mono.just(true));
+
+        cache.renewAsync("p1", "snap1", List.of(track)).block();
+
+        verify(reactiveSongCacheRedisTemplate).expire("songs:playlist:p1:snap1", Duration.ofHours(6));
+        verify(reactiveSongCacheRedisTemplate).expire("songs:track:t1", Duration.ofHours(6));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.musicGenie.services.playlist;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SongListL1Cache Tests")
+class SongListL1CacheTest {
+
+    @Mock
+    private ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SongListL1Cache cache;
+
+    private static final String KEY = "user:songs:1:playlist-123:songs";
+    private final List<SongDto> songs = List.of(SongDto.builder().id("1").title("Song One").build());
+
+    @BeforeEach
+    void setUp() {
+        cache = new SongListL1Cache(reactiveStringRedisTemplate, eventPublisher, 1_000, Duration.ofMinutes(5));
+        lenient().when(reactiveStringRedisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+    }
+
+    @Test
+    @DisplayName("put - Should store an immutable copy that get returns")
+    void put_ShouldStoreImmutableCopy() {
+        cache.put(KEY, songs);
+
+        assertThat(cache.get(KEY)).containsExactlyElementsOf(songs);
+        assertThat(cache.get(KEY)).isUnmodifiable();
+    }
+
+    @Test
+    @DisplayName("getEntry - Should report a freshly written list as fresh")
+    void getEntry_ShouldBeFresh_AfterWrite() {
+        cache.put(KEY, songs);
+
+        assertThat(cache.getEntry(KEY).stale()).isFalse();
+    }
+
+    @Test
+    @DisplayName("getEntry - Should report a list read from a stale Redis entry as stale")
+    void getEntry_ShouldBeStale_WhenReadPastSoftTtl() {
+        cache.put(KEY, songs, Duration.ofMinutes(-10));
+
+        assertThat(cache.getEntry(KEY).value()).containsExactlyElementsOf(songs);
+        assertThat(cache.getEntry(KEY).stale()).isTrue();
+    }
+
+    @Test
+    @DisplayName("invalidate - Should drop the local copy and notify other nodes")
+    void invalidate_ShouldDropLocalCopyAndPublish() {
+        cache.put(KEY, songs);
+
+        cache.invalidate(KEY);
+
+        assertThat(cache.get(KEY)).isNull();
+        verify(reactiveStringRedisTemplate).convertAndSend(eq(SongListL1Cache.INVALIDATION_CHANNEL), endsWith(" " + KEY));
+        verify(eventPublisher).publishEvent(new PlaylistSongsChangedEvent(KEY));
+    }
+
+    @Test
+    @DisplayName("onMessage - Should drop entries invalidated by another node")
+    void onMessage_ShouldInvalidate_WhenFromOtherNode() {
+        cache.put(KEY, songs);
+
+        cache.onMessage(message("other-node " + KEY), null);
+
+        assertThat(cache.get(KEY)).isNull();
+        verify(eventPublisher).publishEvent(new PlaylistSongsChangedEvent(KEY));
+    }
+
+    @Test
+    @DisplayName("onMessage - Should ignore invalidations this node published itself")
+    void onMessage_ShouldIgnoreOwnMessages() {
+        cache.put(KEY, songs);
+        cache.publishInvalidation(KEY);
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(reactiveStringRedisTemplate).convertAndSend(eq(SongListL1Cache.INVALIDATION_CHANNEL), published.capture());
+
+        cache.onMessage(message(published.getValue()), null);
+
+        assertThat(cache.get(KEY)).containsExactlyElementsOf(songs);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(SongListL1Cache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.musicGenie.services.playlist;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.example.musicGenie.services.session.SessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StaleCacheRefresher Tests")
+class StaleCacheRefresherTest {
+
+    @Mock
+    private SessionService sessionService;
+
+    private final List<Runnable> queued = new ArrayList<>();
+    private boolean full;
+
+    private StaleCacheRefresher refresher;
+
+    private final OAuth2AccessToken token = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "token", null, null);
+
+    @BeforeEach
+    void setUp() {
+        refresher = new StaleCacheRefresher(sessionService, task -> {
+            if (full) throw new TaskRejectedException("queue full");
+            queued.add(task);
+        }, Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("refresh - Should queue one refresh per key until it has run")
+    void refresh_ShouldDeduplicatePerKey() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(refresher.refresh("key", token, () -> Mono.fromRunnable(runs::incrementAndGet))).isTrue();
+        assertThat(refresher.refresh("key", token, () -> Mono.fromRunnable(runs::incrementAndGet))).isFalse();
+        queued.forEach(Runnable::run);
+
+        assertThat(runs).hasValue(1);
+        assertThat(refresher.refresh("key", token, () -> Mono.empty())).isTrue();
+    }
+
+    @Test
+    @DisplayName("refresh - Should release the key when the pool rejects the refresh")
+    void refresh_ShouldReleaseKey_WhenRejected() {
+        full = true;
+        assertThat(refresher.refresh("key", token, Mono::empty)).isFalse();
+
+        full = false;
+        assertThat(refresher.refresh("key", token, Mono::empty)).isTrue();
+    }
+
+    @Test
+    @DisplayName("refresh - Should skip the refresh when no access token was captured")
+    void refresh_ShouldSkip_WithoutAccessToken() {
+        assertThat(refresher.refresh("key", null, Mono::empty)).isFalse();
+        assertThat(queued).isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.musicGenie.services.playlist.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SongCacheCodec Tests")
+class SongCacheCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final List<SongDto> songs = List.of(
+            SongDto.builder().id("1").title("Song One").artists(List.of("Artist A", "Artist B")).album("Album")
+                   .popularity(80).releaseYear(Year.of(2021)).explicit(true).addedAt(YearMonth.of(2023, 4)).build(),
+            SongDto.builder().id("2").title("Sóng Two").artists(List.of("Artist A")).album("Album")
+                   .popularity(0).build(),
+            SongDto.builder().id("3").build()
+    );
+
+    @Test
+    @DisplayName("Compact codec round trips every field, including nulls")
+    void compact_ShouldRoundTrip() {
+        SongCacheCodec codec = new SongCacheCodec(objectMapper, "compact", false, 1024);
+
+        byte[] bytes = codec.encode(songs);
+
+        assertThat(CompactSongListCodec.isCompact(bytes)).isTrue();
+        assertThat(codec.decode(bytes)).usingRecursiveFieldByFieldElementComparator().isEqualTo(songs);
+    }
+
+    @Test
+    @DisplayName("Compressed payloads are smaller and round trip")
+    void compact_ShouldCompressLargeLists() {
+        List<SongDto> many = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            many.add(SongDto.builder().id("track-" + i).title("Title " + i).artists(List.of("Artist " + (i % 5)))
+                            .album("Album " + (i % 3)).popularity(i % 100).releaseYear(Year.of(1990 + i % 30)).build());
+        }
+        SongCacheCodec plain = new SongCacheCodec(objectMapper, "compact", false, 1024);
+        SongCacheCodec compressed = new SongCacheCodec(objectMapper, "compact", true, 1024);
+
+        byte[] bytes = compressed.encode(many);
+
+        assertThat(bytes.length).isLessThan(plain.encode(many).length);
+        assertThat(compressed.decode(bytes)).usingRecursiveFieldByFieldElementComparator().isEqualTo(many);
+    }
+
+    @Test
+    @DisplayName("Reads legacy double-encoded JSON values")
+    void decode_ShouldReadLegacyJson() throws Exception {
+        SongCacheCodec codec = new SongCacheCodec(objectMapper, "compact", true, 1024);
+        // old values were a JSON string holding the JSON array
+        String legacy = objectMapper.writeValueAsString(objectMapper.writeValueAsString(songs));
+
+        List<SongDto> decoded = codec.decode(legacy.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(decoded).usingRecursiveFieldByFieldElementComparator().isEqualTo(songs);
+    }
+
+    @Test
+    @DisplayName("JSON codec round trips")
+    void json_ShouldRoundTrip() {
+        SongCacheCodec codec = new SongCacheCodec(objectMapper, "json", true, 1024);
+
+        assertThat(codec.decode(codec.encode(songs))).usingRecursiveFieldByFieldElementComparator().isEqualTo(songs);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.musicGenie.services.provider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.example.musicGenie.models.Provider;
+import com.example.musicGenie.repos.ProviderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProviderRegistry Tests")
+class ProviderRegistryTest {
+
+    @Mock
+    private ProviderRepository providerRepository;
+
+    private final Provider spotify = Provider.builder().id(1L).name("spotify").displayName("Spotify").build();
+
+    @Test
+    @DisplayName("find - Should serve every lookup from the preloaded table")
+    void find_ShouldServeLookupsFromMemory() {
+        when(providerRepository.findAll()).thenReturn(List.of(spotify));
+        ProviderRegistry registry = new ProviderRegistry(providerRepository, Duration.ofMinutes(1));
+        registry.preload();
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(registry.get("spotify").getId()).isEqualTo(1L);
+        }
+        assertThat(registry.find("Spotify")).isPresent();
+        verify(providerRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("find - Should hand out copies so callers cannot change the shared table")
+    void find_ShouldReturnCopies() {
+        when(providerRepository.findAll()).thenReturn(List.of(spotify));
+        ProviderRegistry registry = new ProviderRegistry(providerRepository, Duration.ofMinutes(1));
+        registry.reload();
+
+        registry.get("spotify").setDisplayName("Changed");
+
+        assertThat(registry.get("spotify").getDisplayName()).isEqualTo("Spotify");
+    }
+
+    @Test
+    @DisplayName("find - Should reload on an unknown name at most once per interval")
+    void find_ShouldThrottleReloadsOnMiss() {
+        when(providerRepository.findAll()).thenReturn(List.of(spotify));
+        ProviderRegistry registry = new ProviderRegistry(providerRepository, Duration.ofMinutes(1));
+        registry.reload();
+
+        assertThat(registry.find("apple_music")).isEmpty();
+        assertThat(registry.find("apple_music")).isEmpty();
+
+        verify(providerRepository, times(1)).findAll();
+        assertThatThrownBy(() -> registry.get("apple_music"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Provider not found: apple_music");
+    }
+
+    @Test
+    @DisplayName("find - Should pick up a provider added since the last load")
+    void find_ShouldReloadForNewProvider() {
+        Provider appleMusic = Provider.builder().id(2L).name("apple_music").displayName("Apple Music").build();
+        when(providerRepository.findAll()).thenReturn(List.of(spotify), List.of(spotify, appleMusic));
+        ProviderRegistry registry = new ProviderRegistry(providerRepository, Duration.ZERO);
+        registry.reload();
+
+        assertThat(registry.get("apple_music").getId()).isEqualTo(2L);
+        verify(providerRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("find - Should load once for misses that arrive while a reload is running")
+    void find_ShouldShareRunningReload() throws Exception {
+        Provider appleMusic = Provider.builder().id(2L).name("apple_music").displayName("Apple Music").build();
+        int callers = 8;
+        CountDownLatch started = new CountDownLatch(callers);
+        AtomicInteger loads = new AtomicInteger();
+        when(providerRepository.findAll()).thenAnswer(invocation -> {
+            if (loads.incrementAndGet() == 1) return List.of(spotify);
+            started.await();
+            Thread.sleep(100); // the other callers queue on the reload meanwhile
+            return List.of(spotify, appleMusic);
+        });
+        ProviderRegistry registry = new ProviderRegistry(providerRepository, Duration.ZERO);
+        registry.reload();
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Provider>> lookups = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                lookups.add(executor.submit(() -> {
+                    started.countDown();
+                    return registry.get("apple_music");
+                }));
+            }
+            for (Future<Provider> lookup : lookups) {
+                assertThat(lookup.get(5, TimeUnit.SECONDS).getId()).isEqualTo(2L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.musicGenie.services.session;
+
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.client.ClientAuthorizationException;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2Error;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccessTokenRefreshService Tests")
+class AccessTokenRefreshServiceTest {
+
+    @Mock
+    private SessionService sessionService;
+
+    @Mock
+    private OAuth2AuthorizedClientManager authorizedClientManager;
+
+    @Mock
+    private HttpSession session;
+
+    @InjectMocks
+    private AccessTokenRefreshService accessTokenRefreshService;
+
+    private static final Long TEST_USER_ID = 1L;
+    private static final String PROVIDER = "spotify";
+
+    private final OAuth2AccessToken expired = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "expired-token",
+            Instant.now().minusSeconds(3600), Instant.now().minusSeconds(60));
+
+    @Test
+    @DisplayName("getValidAccessToken - Should return the session token while it is valid")
+    void getValidAccessToken_ShouldReturnSessionToken_WhenNotExpired() {
+        OAuth2AccessToken token = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "valid-token",
+                Instant.now(), Instant.now().plusSeconds(3600));
+        when(sessionService.getOAuth2AccessToken(session)).thenReturn(token);
+        when(sessionService.isAccessTokenExpired(session)).thenReturn(false);
+
+        assertThat(accessTokenRefreshService.getValidAccessToken(session, PROVIDER, TEST_USER_ID)).isSameAs(token);
+        verifyNoInteractions(authorizedClientManager);
+    }
+
+    @Test
+    @DisplayName("getValidAccessToken - Should return the refreshed token when the session token expired")
+    void getValidAccessToken_ShouldRefresh_WhenExpired() {
+        OAuth2AccessToken refreshed = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "refreshed-token",
+                Instant.now(), Instant.now().plusSeconds(3600));
+        OAuth2AuthorizedClient client = mock(OAuth2AuthorizedClient.class);
+        when(sessionService.getOAuth2AccessToken(session)).thenReturn(expired);
+        when(sessionService.isAccessTokenExpired(session)).thenReturn(true);
+        when(client.getAccessToken()).thenReturn(refreshed);
+        when(authorizedClientManager.authorize(any())).thenReturn(client);
+
+        assertThat(accessTokenRefreshService.getValidAccessToken(session, PROVIDER, TEST_USER_ID)).isSameAs(refreshed);
+    }
+
+    @Test
+    @DisplayName("getValidAccessToken - Should return null when the refresh token is rejected")
+    void getValidAccessToken_ShouldReturnNull_WhenRefreshFails() {
+        when(sessionService.getOAuth2AccessToken(session)).thenReturn(expired);
+        when(sessionService.isAccessTokenExpired(session)).thenReturn(true);
+        when(authorizedClientManager.authorize(any()))
+                .thenThrow(new ClientAuthorizationException(new OAuth2Error("invalid_grant"), PROVIDER));
+
+        assertThat(accessTokenRefreshService.getValidAccessToken(session, PROVIDER, TEST_USER_ID)).isNull();
+    }
+
+    @Test
+    @DisplayName("getValidAccessToken - Should return null when the manager hands back the expired token")
+    void getValidAccessToken_ShouldReturnNull_WhenNoRefreshToken() {
+        OAuth2AuthorizedClient client = mock(OAuth2AuthorizedClient.class);
+        when(sessionService.getOAuth2AccessToken(session)).thenReturn(expired);
+        when(sessionService.isAccessTokenExpired(session)).thenReturn(true);
+        when(client.getAccessToken()).thenReturn(expired);
+        when(authorizedClientManager.authorize(any())).thenReturn(client);
+
+        assertThat(accessTokenRefreshService.getValidAccessToken(session, PROVIDER, TEST_USER_ID)).isNull();
+    }
+
+    @Test
+    @DisplayName("getValidAccessToken - Should return null when the session has no token")
+    void getValidAccessToken_ShouldReturnNull_WhenNoToken() {
+        when(sessionService.getOAuth2AccessToken(session)).thenReturn(null);
+
+        assertThat(accessTokenRefreshService.getValidAccessToken(session, PROVIDER, TEST_USER_ID)).isNull();
+        verifyNoInteractions(authorizedClientManager);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.musicGenie.services.song;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import com.example.musicGenie.services.playlist.PlaylistCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlaylistFetchCoalescer Tests")
+class PlaylistFetchCoalescerTest {
+
+    @Mock
+    private PlaylistCacheService playlistCacheService;
+
+    private PlaylistFetchCoalescer coalescer;
+
+    private static final String PROVIDER_NAME = "spotify";
+    private static final String PLAYLIST_ID = "playlist123";
+    private static final String SCOPE = PlaylistFetchCoalescer.fetchScope(42L, "snap1");
+
+    private final List<SongDto> songs = List.of(SongDto.builder().id("1").title("Song One").build());
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new PlaylistFetchCoalescer(playlistCacheService, Duration.ofSeconds(30), Duration.ofMillis(1));
+    }
+
+    @Test
+    @DisplayName("joinAsync - Should run the work once for callers arriving while it is in flight")
+    void joinAsync_ShouldShareInFlightWork() {
+        Sinks.One<List<SongDto>> upstream = Sinks.one();
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<List<SongDto>> first = coalescer.joinAsync("key", () -> {
+            runs.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+        CompletableFuture<List<SongDto>> second = coalescer.joinAsync("key", () -> {
+            runs.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+        upstream.tryEmitValue(songs);
+
+        assertThat(first.join()).isEqualTo(songs);
+        assertThat(second.join()).isEqualTo(songs);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("joinAsync - Should fail the flight and free the key when the work throws before returning")
+    void joinAsync_ShouldReleaseKey_WhenWorkThrows() {
+        assertThatThrownBy(() -> coalescer.<List<SongDto>>joinAsync("key", () -> {
+            throw new IllegalStateException("no provider");
+        }).block()).isInstanceOf(IllegalStateException.class);
+
+        List<SongDto> result = coalescer.joinAsync("key", () -> Mono.just(songs)).block(Duration.ofSeconds(5));
+
+        assertThat(result).isEqualTo(songs);
+    }
+
+    @Test
+    @DisplayName("joinAsync - Should run the work again once the previous flight finished")
+    void joinAsync_ShouldNotReuseFinishedFlight() {
+        AtomicInteger runs = new AtomicInteger();
+
+        coalescer.joinAsync("key", () -> Mono.just(runs.incrementAndGet())).block();
+        coalescer.joinAsync("key", () -> Mono.just(runs.incrementAndGet())).block();
+
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("fetchAsync - Should share the songs and release the lease after fetching")
+    void fetchAsync_ShouldShareAndRelease_WhenLeaseAcquired() {
+        when(playlistCacheService.getFetchedSongsAsync(PROVIDER_NAME, PLAYLIST_ID, SCOPE)).thenReturn(Mono.empty());
+        when(playlistCacheService.tryAcquireFetchLeaseAsync(eq(PROVIDER_NAME), eq(PLAYLIST_ID), eq(SCOPE), anyString(), any()))
+                .thenReturn(Mono.just(true));
+        when(playlistCacheService.shareFetchedSongsAsync(PROVIDER_NAME, PLAYLIST_ID, SCOPE, songs)).thenReturn(Mono.empty());
+        when(playlistCacheService.releaseFetchLeaseAsync(eq(PROVIDER_NAME), eq(PLAYLIST_ID), eq(SCOPE), anyString())).thenReturn(Mono.empty());
+
+        List<SongDto> result = coalescer.fetchAsync(PROVIDER_NAME, PLAYLIST_ID, SCOPE, () -> Mono.just(songs)).block();
+
+        assertThat(result).isEqualTo(songs);
+        verify(playlistCacheService).shareFetchedSongsAsync(PROVIDER_NAME, PLAYLIST_ID, SCOPE, songs);
+        verify(playlistCacheService).releaseFetchLeaseAsync(eq(PROVIDER_NAME), eq(PLAYLIST_ID), eq(SCOPE), anyString());
+    }
+
+    @Test
+    @DisplayName("fetchAsync - Should fetch without the lease when Redis is unavailable")
+    void fetchAsync_ShouldFallBack_WhenRedisFails() {
+        when(playlistCacheService.getFetchedSongsAsync(PROVIDER_NAME, PLAYLIST_ID, SCOPE))
+                .thenReturn(Mono.error(new RedisConnectionFailureException("down")));
+
+        List<SongDto> result = coalescer.fetchAsync(PROVIDER_NAME, PLAYLIST_ID, SCOPE, () -> Mono.just(songs)).block();
+
+        assertThat(result).isEqualTo(songs);
+        verify(playlistCacheService, never()).tryAcquireFetchLeaseAsync(anyString(), anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("fetchAsync - Should poll until the lease holder hands off its songs")
+    void fetchAsync_ShouldUseHandOff_WhenLeaseHeldElsewhere() {
+        when(playlistCacheService.getFetchedSongsAsync(PROVIDER_NAME, PLAYLIST_ID, SCOPE))
+                .thenReturn(Mono.empty(), Mono.just(songs));
+        when(playlistCacheService.tryAcquireFetchLeaseAsync(eq(PROVIDER_NAME), eq(PLAYLIST_ID), eq(SCOPE), anyString(), any()))
+                .thenReturn(Mono.just(false));
+
+        List<SongDto> result = coalescer.fetchAsync(PROVIDER_NAME, PLAYLIST_ID, SCOPE,
+                () -> Mono.error(new AssertionError("provider must not be called"))).block();
+
+        assertThat(result).isEqualTo(songs);
+    }
+
+    @Test
+    @DisplayName("fetchScope - Should share a fetch by snapshot, and only with the same user without one")
+    void fetchScope_ShouldFallBackToUser_WithoutSnapshot() {
+        assertThat(PlaylistFetchCoalescer.fetchScope(1L, "snap1")).isEqualTo(PlaylistFetchCoalescer.fetchScope(2L, "snap1"));
+        assertThat(PlaylistFetchCoalescer.fetchScope(1L, null)).isNotEqualTo(PlaylistFetchCoalescer.fetchScope(2L, null));
+    }
+
+    @Test
+    @DisplayName("fetchAsync - Should not hand one user's unchecked fetch to another user")
+    void fetchAsync_ShouldNotShareAcrossUsers_WithoutSnapshot() {
+        String first = PlaylistFetchCoalescer.fetchScope(1L, null);
+        String second = PlaylistFetchCoalescer.fetchScope(2L, null);
+        Sinks.One<List<SongDto>> upstream = Sinks.one();
+        AtomicInteger loads = new AtomicInteger();
+        when(playlistCacheService.getFetchedSongsAsync(eq(PROVIDER_NAME), eq(PLAYLIST_ID), anyString())).thenReturn(Mono.empty());
+        when(playlistCacheService.tryAcquireFetchLeaseAsync(eq(PROVIDER_NAME), eq(PLAYLIST_ID), anyString(), anyString(), any()))
+                .thenReturn(Mono.just(true));
+        when(playlistCacheService.shareFetchedSongsAsync(eq(PROVIDER_NAME), eq(PLAYLIST_ID), anyString(), anyList()))
+                .thenReturn(Mono.empty());
+        when(playlistCacheService.releaseFetchLeaseAsync(eq(PROVIDER_NAME), eq(PLAYLIST_ID), anyString(), anyString()))
+                .thenReturn(Mono.empty());
+
+        CompletableFuture<List<SongDto>> firstResult = coalescer.fetchAsync(PROVIDER_NAME, PLAYLIST_ID, first, () -> {
+            loads.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+        List<SongDto> secondResult = coalescer.fetchAsync(PROVIDER_NAME, PLAYLIST_ID, second, () -> {
+            loads.incrementAndGet();
+            return Mono.just(List.of());
+        }).block();
+        upstream.tryEmitValue(songs);
+
+        assertThat(firstResult.join()).isEqualTo(songs);
+        assertThat(secondResult).isEmpty();
+        assertThat(loads).hasValue(2);
+        verify(playlistCacheService).getFetchedSongsAsync(PROVIDER_NAME, PLAYLIST_ID, first);
+        verify(playlistCacheService).getFetchedSongsAsync(PROVIDER_NAME, PLAYLIST_ID, second);
+    }
+}
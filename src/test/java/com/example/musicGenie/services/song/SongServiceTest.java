@@ -1,17 +1,21 @@
 package com.example.musicGenie.services.song;
 
 import com.example.musicGenie.dtos.song.SongDto;
+import com.example.musicGenie.services.playlist.CacheEntry;
 import com.example.musicGenie.services.playlist.PlaylistCacheService;
-import com.example.musicGenie.song.SongProvider;
+import com.example.musicGenie.services.playlist.StaleCacheRefresher;
+import com.example.musicGenie.song.ReactiveSongProvider;
 import com.example.musicGenie.song.SongProviderFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Year;
 import java.time.YearMonth;
 import java.util.Arrays;
@@ -19,6 +23,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,9 +37,11 @@ class SongServiceTest {
     private PlaylistCacheService playlistCacheService;
 
     @Mock
-    private SongProvider songProvider;
+    private ReactiveSongProvider reactiveSongProvider;
+
+    @Mock
+    private StaleCacheRefresher staleCacheRefresher;
 
-    @InjectMocks
     private SongService songService;
 
     private static final String PROVIDER_NAME = "spotify";
@@ -68,57 +75,161 @@ class SongServiceTest {
                                .build();
 
         mockSongs = Arrays.asList(song1, song2);
+
+        // real coalescer, this node always wins the fetch lease
+        songService = new SongService(providerFactory, playlistCacheService,
+                new PlaylistFetchCoalescer(playlistCacheService, Duration.ofSeconds(30), Duration.ofMillis(10)),
+                staleCacheRefresher);
+        lenient().when(playlistCacheService.getFetchedSongsAsync(eq(PROVIDER_NAME), anyString(), anyString())).thenReturn(Mono.empty());
+        lenient().when(playlistCacheService.tryAcquireFetchLeaseAsync(eq(PROVIDER_NAME), anyString(), anyString(), anyString(), any()))
+                 .thenReturn(Mono.just(true));
+        lenient().when(playlistCacheService.shareFetchedSongsAsync(eq(PROVIDER_NAME), anyString(), anyString(), anyList())).thenReturn(Mono.empty());
+        lenient().when(playlistCacheService.releaseFetchLeaseAsync(eq(PROVIDER_NAME), anyString(), anyString(), anyString())).thenReturn(Mono.empty());
     }
 
     @Test
     @DisplayName("getPlaylistSongs - Should return cached songs when available")
     void getPlaylistSongs_ShouldReturnCached_WhenAvailable() {
         // Given
-        when(playlistCacheService.getCachedSongs(USER_ID, PLAYLIST_ID)).thenReturn(mockSongs);
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(reactiveSongProvider);
+        when(playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID)).thenReturn(Mono.just(new CacheEntry<>(mockSongs, false)));
 
         // When
-        List<SongDto> result = songService.getPlaylistSongs(PROVIDER_NAME, PLAYLIST_ID, USER_ID);
+        List<SongDto> result = songService.getPlaylistSongs(PROVIDER_NAME, PLAYLIST_ID, USER_ID).block();
 
         // Then
         assertThat(result).hasSize(2).containsAll(mockSongs);
-        verify(playlistCacheService, times(1)).getCachedSongs(USER_ID, PLAYLIST_ID);
-        verify(providerFactory, times(1)).getProvider(PROVIDER_NAME);
-        verifyNoInteractions(songProvider);
+        verify(playlistCacheService, times(1)).getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID);
+        verify(providerFactory, times(1)).getReactiveProvider(PROVIDER_NAME);
+        verifyNoInteractions(reactiveSongProvider);
+    }
+
+    @Test
+    @DisplayName("getPlaylistSongs - Should return stale songs at once and refresh them in the background")
+    void getPlaylistSongs_ShouldServeStaleAndRefresh_WhenPastSoftTtl() {
+        // Given
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(reactiveSongProvider);
+        when(playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID)).thenReturn(Mono.just(new CacheEntry<>(mockSongs, true)));
+
+        // When
+        List<SongDto> result = songService.getPlaylistSongs(PROVIDER_NAME, PLAYLIST_ID, USER_ID).block();
+
+        // Then
+        assertThat(result).containsExactlyElementsOf(mockSongs);
+        verify(staleCacheRefresher, times(1)).refresh(eq(PlaylistCacheService.playlistSongsKey(USER_ID, PLAYLIST_ID)), any(), any());
+        verifyNoInteractions(reactiveSongProvider);
+    }
+
+    @Test
+    @DisplayName("refreshStaleSongs - Should queue one background refresh per stale playlist")
+    void refreshStaleSongs_ShouldQueueRefreshes() {
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(reactiveSongProvider);
+
+        songService.refreshStaleSongs(PROVIDER_NAME, List.of(PLAYLIST_ID, "other"), USER_ID);
+
+        verify(staleCacheRefresher, times(1)).refresh(eq(PlaylistCacheService.playlistSongsKey(USER_ID, PLAYLIST_ID)), any(), any());
+        verify(staleCacheRefresher, times(1)).refresh(eq(PlaylistCacheService.playlistSongsKey(USER_ID, "other")), any(), any());
+        verifyNoInteractions(reactiveSongProvider);
     }
 
     @Test
     @DisplayName("getPlaylistSongs - Should fetch songs from provider when cache is empty")
     void getPlaylistSongs_ShouldFetchFromProvider_WhenCacheIsEmpty() {
         // Given
-        when(playlistCacheService.getCachedSongs(USER_ID, PLAYLIST_ID)).thenReturn(null);
-        when(providerFactory.getProvider(PROVIDER_NAME)).thenReturn(songProvider);
-        when(songProvider.fetchPlaylistSongs(PLAYLIST_ID)).thenReturn(mockSongs);
+        when(playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID)).thenReturn(Mono.empty());
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(reactiveSongProvider);
+        when(reactiveSongProvider.fetchPlaylistSnapshotAsync(PLAYLIST_ID)).thenReturn(Mono.empty());
+        when(reactiveSongProvider.fetchPlaylistSongsAsync(PLAYLIST_ID)).thenReturn(Flux.fromIterable(mockSongs));
+        when(playlistCacheService.cacheSongsAsync(USER_ID, PLAYLIST_ID, null, mockSongs)).thenReturn(Mono.empty());
 
         // When
-        List<SongDto> result = songService.getPlaylistSongs(PROVIDER_NAME, PLAYLIST_ID, USER_ID);
+        List<SongDto> result = songService.getPlaylistSongs(PROVIDER_NAME, PLAYLIST_ID, USER_ID).block();
 
         // Then
         assertThat(result).hasSize(2).containsAll(mockSongs);
-        verify(providerFactory, times(1)).getProvider(PROVIDER_NAME);
-        verify(songProvider, times(1)).fetchPlaylistSongs(PLAYLIST_ID);
-        verify(playlistCacheService, times(1)).cacheSongs(USER_ID, PLAYLIST_ID, mockSongs);
+        verify(providerFactory, times(1)).getReactiveProvider(PROVIDER_NAME);
+        verify(reactiveSongProvider, times(1)).fetchPlaylistSongsAsync(PLAYLIST_ID);
+        verify(playlistCacheService, times(1)).cacheSongsAsync(USER_ID, PLAYLIST_ID, null, mockSongs);
+        // no snapshot proved access, so the hand-off stays with this user
+        verify(playlistCacheService).getFetchedSongsAsync(PROVIDER_NAME, PLAYLIST_ID, PlaylistFetchCoalescer.fetchScope(USER_ID, null));
     }
 
     @Test
     @DisplayName("getPlaylistSongs - Should handle empty provider response gracefully")
     void getPlaylistSongs_ShouldHandleEmptyProviderResponse() {
         // Given
-        when(playlistCacheService.getCachedSongs(USER_ID, PLAYLIST_ID)).thenReturn(null);
-        when(providerFactory.getProvider(PROVIDER_NAME)).thenReturn(songProvider);
-        when(songProvider.fetchPlaylistSongs(PLAYLIST_ID)).thenReturn(Collections.emptyList());
+        when(playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID)).thenReturn(Mono.empty());
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(reactiveSongProvider);
+        when(reactiveSongProvider.fetchPlaylistSnapshotAsync(PLAYLIST_ID)).thenReturn(Mono.empty());
+        when(reactiveSongProvider.fetchPlaylistSongsAsync(PLAYLIST_ID)).thenReturn(Flux.empty());
+        when(playlistCacheService.cacheSongsAsync(USER_ID, PLAYLIST_ID, null, Collections.emptyList())).thenReturn(Mono.empty());
 
         // When
-        List<SongDto> result = songService.getPlaylistSongs(PROVIDER_NAME, PLAYLIST_ID, USER_ID);
+        List<SongDto> result = songService.getPlaylistSongs(PROVIDER_NAME, PLAYLIST_ID, USER_ID).block();
 
         // Then
         assertThat(result).isEmpty();
-        verify(providerFactory, times(1)).getProvider(PROVIDER_NAME);
-        verify(songProvider, times(1)).fetchPlaylistSongs(PLAYLIST_ID);
-        verify(playlistCacheService, times(1)).cacheSongs(USER_ID, PLAYLIST_ID, Collections.emptyList());
+        verify(providerFactory, times(1)).getReactiveProvider(PROVIDER_NAME);
+        verify(reactiveSongProvider, times(1)).fetchPlaylistSongsAsync(PLAYLIST_ID);
+        verify(playlistCacheService, times(1)).cacheSongsAsync(USER_ID, PLAYLIST_ID, null, Collections.emptyList());
+    }
+
+    @Test
+    @DisplayName("loadPlaylistSongs - Should fetch from provider without reading the cache")
+    void loadPlaylistSongs_ShouldSkipCacheRead() {
+        // Given
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(reactiveSongProvider);
+        when(reactiveSongProvider.fetchPlaylistSnapshotAsync(PLAYLIST_ID)).thenReturn(Mono.empty());
+        when(reactiveSongProvider.fetchPlaylistSongsAsync(PLAYLIST_ID)).thenReturn(Flux.fromIterable(mockSongs));
+        when(playlistCacheService.cacheSongsAsync(USER_ID, PLAYLIST_ID, null, mockSongs)).thenReturn(Mono.empty());
+
+        // When
+        List<SongDto> result = songService.loadPlaylistSongs(PROVIDER_NAME, PLAYLIST_ID, USER_ID);
+
+        // Then
+        assertThat(result).containsExactlyElementsOf(mockSongs);
+        verify(playlistCacheService, never()).getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID);
+        verify(playlistCacheService, times(1)).cacheSongsAsync(USER_ID, PLAYLIST_ID, null, mockSongs);
+    }
+
+    @Test
+    @DisplayName("getPlaylistSongs - Should reuse another user's copy of the same snapshot without paging tracks")
+    void getPlaylistSongs_ShouldUseSharedSnapshot_WhenCached() {
+        // Given
+        when(playlistCacheService.getCachedSongsEntryAsync(USER_ID, PLAYLIST_ID)).thenReturn(Mono.empty());
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(reactiveSongProvider);
+        when(reactiveSongProvider.fetchPlaylistSnapshotAsync(PLAYLIST_ID)).thenReturn(Mono.just("snap1"));
+        when(playlistCacheService.getSharedSongsAsync(PLAYLIST_ID, "snap1")).thenReturn(Mono.just(mockSongs));
+        when(playlistCacheService.renewSharedSongsAsync(PLAYLIST_ID, "snap1", mockSongs)).thenReturn(Mono.empty());
+        when(playlistCacheService.cacheSongsAsync(USER_ID, PLAYLIST_ID, "snap1", mockSongs)).thenReturn(Mono.empty());
+
+        // When
+        List<SongDto> result = songService.getPlaylistSongs(PROVIDER_NAME, PLAYLIST_ID, USER_ID).block();
+
+        // Then
+        assertThat(result).containsExactlyElementsOf(mockSongs);
+        verify(reactiveSongProvider, never()).fetchPlaylistSongsAsync(anyString());
+        verify(playlistCacheService, never()).cacheSharedSongsAsync(anyString(), anyString(), anyList());
+        verify(playlistCacheService, times(1)).renewSharedSongsAsync(PLAYLIST_ID, "snap1", mockSongs);
+    }
+
+    @Test
+    @DisplayName("loadPlaylistSongs - Should store a new snapshot once in the shared cache and point the user at it")
+    void loadPlaylistSongs_ShouldCacheSharedSnapshot_WhenNotShared() {
+        // Given
+        when(providerFactory.getReactiveProvider(PROVIDER_NAME)).thenReturn(reactiveSongProvider);
+        when(reactiveSongProvider.fetchPlaylistSnapshotAsync(PLAYLIST_ID)).thenReturn(Mono.just("snap1"));
+        when(playlistCacheService.getSharedSongsAsync(PLAYLIST_ID, "snap1")).thenReturn(Mono.empty());
+        when(reactiveSongProvider.fetchPlaylistSongsAsync(PLAYLIST_ID)).thenReturn(Flux.fromIterable(mockSongs));
+        when(playlistCacheService.cacheSharedSongsAsync(PLAYLIST_ID, "snap1", mockSongs)).thenReturn(Mono.empty());
+        when(playlistCacheService.cacheSongsAsync(USER_ID, PLAYLIST_ID, "snap1", mockSongs)).thenReturn(Mono.empty());
+
+        // When
+        List<SongDto> result = songService.loadPlaylistSongs(PROVIDER_NAME, PLAYLIST_ID, USER_ID);
+
+        // Then
+        assertThat(result).containsExactlyElementsOf(mockSongs);
+        verify(playlistCacheService, times(1)).cacheSharedSongsAsync(PLAYLIST_ID, "snap1", mockSongs);
+        verify(playlistCacheService, times(1)).cacheSongsAsync(USER_ID, PLAYLIST_ID, "snap1", mockSongs);
     }
 }
@@ -0,0 +1,126 @@
+package com.example.musicGenie.song;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.example.musicGenie.dtos.song.SongDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SpotifySongProvider Tests")
+class SpotifySongProviderTest {
+
+    private final List<Integer> offsets = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Test
+    @DisplayName("fetchPlaylistSongsAsync - Should keep playlist order when later pages answer first")
+    void fetchPlaylistSongs_ShouldKeepOrder_WhenPagesRunConcurrently() {
+        SpotifySongProvider provider = provider(450, 4);
+
+        List<SongDto> songs = provider.fetchPlaylistSongsAsync("pl1").collectList().block();
+
+        assertThat(songs).extracting(SongDto::getId)
+                         .containsExactlyElementsOf(IntStream.range(0, 450).mapToObj(i -> "t" + i).toList());
+        assertThat(offsets).containsExactlyInAnyOrder(0, 100, 200, 300, 400);
+        assertThat(maxInFlight.get()).isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("fetchPlaylistSongsAsync - Should fetch one page at a time when the page concurrency is 1")
+    void fetchPlaylistSongs_ShouldFetchSerially_WhenConcurrencyIsOne() {
+        SpotifySongProvider provider = provider(450, 1);
+
+        List<SongDto> songs = provider.fetchPlaylistSongsAsync("pl1").collectList().block();
+
+        assertThat(songs).hasSize(450);
+        assertThat(songs.get(449).getId()).isEqualTo("t449");
+        assertThat(offsets).containsExactly(0, 100, 200, 300, 400);
+        assertThat(maxInFlight.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("fetchPlaylistSongsAsync - Should make a single request for a playlist that fits one page")
+    void fetchPlaylistSongs_ShouldStop_WhenSinglePage() {
+        SpotifySongProvider provider = provider(40, 4);
+
+        List<SongDto> songs = provider.fetchPlaylistSongsAsync("pl1").collectList().block();
+
+        assertThat(songs).hasSize(40);
+        assertThat(offsets).containsExactly(0);
+    }
+
+    @Test
+    @DisplayName("fetchPlaylistSongsAsync - Should stop serial paging at the first short page")
+    void fetchPlaylistSongs_ShouldStop_AtShortLastPage() {
+        SpotifySongProvider provider = provider(250, 1);
+
+        List<SongDto> songs = provider.fetchPlaylistSongsAsync("pl1").collectList().block();
+
+        assertThat(songs).hasSize(250);
+        assertThat(offsets).containsExactly(0, 100, 200);
+    }
+
+    @Test
+    @DisplayName("fetchPlaylistSongsAsync - Should request only the pages the total calls for when concurrent")
+    void fetchPlaylistSongs_ShouldStop_AtTotal_WhenConcurrent() {
+        SpotifySongProvider provider = provider(300, 4);
+
+        List<SongDto> songs = provider.fetchPlaylistSongsAsync("pl1").collectList().block();
+
+        assertThat(songs).hasSize(300);
+        assertThat(offsets).containsExactlyInAnyOrder(0, 100, 200);
+    }
+
+    @Test
+    @DisplayName("fetchPlaylistSongsAsync - Should return an empty list for an empty playlist")
+    void fetchPlaylistSongs_ShouldReturnEmpty_WhenNoTracks() {
+        SpotifySongProvider provider = provider(0, 4);
+
+        assertThat(provider.fetchPlaylistSongsAsync("pl1").collectList().block()).isEmpty();
+        assertThat(offsets).containsExactly(0);
+    }
+
+    // serves a playlist of total tracks named t0..t{total-1}, later pages answer sooner
+    private SpotifySongProvider provider(int total, int pageConcurrency) {
+        WebClient webClient = WebClient.builder()
+                                       .exchangeFunction(request -> {
+                                           int offset = Integer.parseInt(request.url().getQuery().replaceAll(".*offset=(\\d+).*", "$1"));
+                                           offsets.add(offset);
+                                           maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                                           // counted as answered before the body is read, reading it may send the next request
+                                           return Mono.delay(Duration.ofMillis(Math.max(5, 60 - offset / 10)))
+                                                      .doOnNext(tick -> inFlight.decrementAndGet())
+                                                      .map(tick -> tracksPage(offset, total));
+                                       })
+                                       .build();
+        return new SpotifySongProvider(Map.of("spotify", webClient), pageConcurrency);
+    }
+
+    private static ClientResponse tracksPage(int offset, int total) {
+        int end = Math.min(offset + 100, total);
+        String items = IntStream.range(offset, end)
+                                .mapToObj(i -> "{\"added_at\":\"2024-01-01T00:00:00Z\",\"track\":{\"id\":\"t" + i
+                                        + "\",\"name\":\"Track " + i + "\",\"artists\":[{\"name\":\"Artist\"}]}}")
+                                .collect(Collectors.joining(","));
+        String next = end < total ? "\"https://api.spotify.com/v1/playlists/pl1/tracks?offset=" + end + "\"" : "null";
+        return ClientResponse.create(HttpStatus.OK)
+                             .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                             .body("{\"items\":[" + items + "],\"total\":" + total + ",\"next\":" + next + "}")
+                             .build();
+    }
+}